@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2018-2024, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.purefun.concurrent;
+
+import static com.github.tonivade.purefun.core.Precondition.check;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>Strategy used by {@code Promise.await} and {@code Future.await} to wait for a result. Before parking the
+ * thread, it spins a number of times calling {@code Thread.onSpinWait}, and then yields the thread a number of
+ * times, so results that are completed in a few microseconds by another core don't pay the cost of parking
+ * and unparking the thread. Virtual threads don't spin or yield, they are parked directly.</p>
+ *
+ * <p>It can be configured with the system properties {@code purefun.await.spins} and {@code purefun.await.yields}.
+ * By default it spins 128 times and yields 8 times, unless there is only one processor, in that case it doesn't spin.
+ * Use 0 for both to park immediately.</p>
+ *
+ * <p>It counts how many times every phase is reached, so it can be used to adjust the configuration.</p>
+ */
+public final class AwaitStrategy {
+
+  private static final AwaitStrategy DEFAULT = new AwaitStrategy(
+      Integer.getInteger("purefun.await.spins", Runtime.getRuntime().availableProcessors() > 1 ? 128 : 0),
+      Integer.getInteger("purefun.await.yields", 8));
+
+  private final int spins;
+  private final int yields;
+
+  private final LongAdder spinning = new LongAdder();
+  private final LongAdder yielding = new LongAdder();
+  private final LongAdder parking = new LongAdder();
+
+  AwaitStrategy(int spins, int yields) {
+    check(() -> spins >= 0, "spins should not be negative");
+    check(() -> yields >= 0, "yields should not be negative");
+    this.spins = spins;
+    this.yields = yields;
+  }
+
+  public static AwaitStrategy current() {
+    return DEFAULT;
+  }
+
+  public int spins() {
+    return spins;
+  }
+
+  public int yields() {
+    return yields;
+  }
+
+  /**
+   * Returns the number of times a thread started spinning.
+   */
+  public long spinCount() {
+    return spinning.sum();
+  }
+
+  /**
+   * Returns the number of times a thread started yielding, after spinning.
+   */
+  public long yieldCount() {
+    return yielding.sum();
+  }
+
+  /**
+   * Returns the number of times a thread had to be parked.
+   */
+  public long parkCount() {
+    return parking.sum();
+  }
+
+  @Override
+  public String toString() {
+    return "AwaitStrategy(spins=" + spins + ", yields=" + yields
+        + ", spinCount=" + spinCount() + ", yieldCount=" + yieldCount() + ", parkCount=" + parkCount() + ")";
+  }
+
+  /*
+   * returns true if the promise has been completed while spinning or yielding,
+   * in other case the thread should be parked
+   */
+  @SuppressWarnings("ThreadPriorityCheck")
+  boolean spin(Promise<?> promise) {
+    if (Thread.currentThread().isVirtual()) {
+      return false;
+    }
+    if (spins > 0) {
+      spinning.increment();
+      for (int i = 0; i < spins; i++) {
+        Thread.onSpinWait();
+        if (promise.isCompleted()) {
+          return true;
+        }
+      }
+    }
+    if (yields > 0) {
+      yielding.increment();
+      for (int i = 0; i < yields; i++) {
+        Thread.yield();
+        if (promise.isCompleted()) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  void parked() {
+    parking.increment();
+  }
+}
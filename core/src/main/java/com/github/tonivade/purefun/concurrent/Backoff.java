@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2018-2024, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.purefun.concurrent;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntUnaryOperator;
+import java.util.function.LongUnaryOperator;
+
+import com.github.tonivade.purefun.core.Function1;
+import com.github.tonivade.purefun.core.Function2;
+import com.github.tonivade.purefun.core.Operator1;
+import com.github.tonivade.purefun.core.Tuple2;
+
+/**
+ * <p>Exponential backoff for compare-and-set loops. After every failed attempt the thread spins twice as long as
+ * after the previous one, so the threads that are competing for the same value don't retry all at the same time.
+ * When the limit is reached, or if there is only one processor, it yields the thread instead.</p>
+ *
+ * <p>It also implements the update loops of the references of the effects, {@code Ref}, {@code LongRef} and
+ * {@code IntRef}, that only wrap these operations in their own type.</p>
+ */
+public final class Backoff {
+
+  private static final int MAX_SHIFT = Runtime.getRuntime().availableProcessors() > 1 ? 6 : 0;
+
+  private Backoff() {}
+
+  /**
+   * Waits before retrying a failed compare-and-set.
+   *
+   * @param attempt number of failed attempts before this one, starting with 0
+   */
+  @SuppressWarnings("ThreadPriorityCheck")
+  public static void pause(int attempt) {
+    if (attempt < MAX_SHIFT) {
+      for (int i = 1 << attempt; i > 0; i--) {
+        Thread.onSpinWait();
+      }
+    } else {
+      Thread.yield();
+    }
+  }
+
+  /**
+   * Updates the value and returns the previous one, if {@code previous} is true, or the new one.
+   */
+  @SuppressWarnings("NullAway")
+  public static <A> A update(AtomicReference<A> value, Operator1<A> update, boolean previous) {
+    for (int attempt = 0; ; attempt++) {
+      A current = value.get();
+      A next = update.apply(current);
+      if (value.compareAndSet(current, next)) {
+        return previous ? current : next;
+      }
+      pause(attempt);
+    }
+  }
+
+  /**
+   * Updates the value with the second element of the tuple returned by the function, and returns the first one.
+   */
+  @SuppressWarnings("NullAway")
+  public static <A, B> B modify(AtomicReference<A> value, Function1<A, Tuple2<B, A>> change) {
+    for (int attempt = 0; ; attempt++) {
+      A current = value.get();
+      var tuple = change.apply(current);
+      if (value.compareAndSet(current, tuple.get2())) {
+        return tuple.get1();
+      }
+      pause(attempt);
+    }
+  }
+
+  /**
+   * Updates the value, and returns the result calculated from the previous and the new value. The result is
+   * calculated only once, after the value has been updated.
+   */
+  @SuppressWarnings("NullAway")
+  public static <A, B> B modify(AtomicReference<A> value, Operator1<A> update,
+      Function2<? super A, ? super A, ? extends B> result) {
+    for (int attempt = 0; ; attempt++) {
+      A current = value.get();
+      A next = update.apply(current);
+      if (value.compareAndSet(current, next)) {
+        return result.apply(current, next);
+      }
+      pause(attempt);
+    }
+  }
+
+  /**
+   * Updates the value and returns the previous one, if {@code previous} is true, or the new one.
+   */
+  public static long update(AtomicLong value, LongUnaryOperator update, boolean previous) {
+    for (int attempt = 0; ; attempt++) {
+      long current = value.get();
+      long next = update.applyAsLong(current);
+      if (value.compareAndSet(current, next)) {
+        return previous ? current : next;
+      }
+      pause(attempt);
+    }
+  }
+
+  /**
+   * Updates the value and returns the previous one, if {@code previous} is true, or the new one.
+   */
+  public static int update(AtomicInteger value, IntUnaryOperator update, boolean previous) {
+    for (int attempt = 0; ; attempt++) {
+      int current = value.get();
+      int next = update.applyAsInt(current);
+      if (value.compareAndSet(current, next)) {
+        return previous ? current : next;
+      }
+      pause(attempt);
+    }
+  }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2018-2024, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.purefun.concurrent;
+
+import static com.github.tonivade.purefun.core.Precondition.checkNonNull;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.github.tonivade.purefun.core.Function1;
+import com.github.tonivade.purefun.type.Option;
+
+/**
+ * <p>Releases the resource of a {@code bracket} exactly once. It's used by the effects, like {@code IO} or
+ * {@code PureIO}, that only need to tell how to run the release of the resource.</p>
+ *
+ * <p>The resource is released when the use ends, whatever its result, or when the bracket is cancelled,
+ * even if the resource is acquired after the cancellation.</p>
+ *
+ * @param <T> type of the resource
+ * @param <R> type of the result of the release
+ */
+public final class BracketRelease<T, R> {
+
+  private final Function1<? super T, Promise<R>> release;
+  private final R released;
+  private final AtomicReference<Option<T>> resource = new AtomicReference<>(Option.none());
+  private final AtomicBoolean cancelled = new AtomicBoolean();
+  private final AtomicBoolean done = new AtomicBoolean();
+
+  /**
+   * @param release runs the release of the resource
+   * @param released the result when there is nothing to release
+   */
+  public BracketRelease(Function1<? super T, Promise<R>> release, R released) {
+    this.release = checkNonNull(release);
+    this.released = checkNonNull(released);
+  }
+
+  public void acquired(T value) {
+    resource.set(Option.some(value));
+    if (cancelled.get()) {
+      release();
+    }
+  }
+
+  /**
+   * Marks the bracket as cancelled, and releases the resource if it has been already acquired.
+   */
+  public void cancel() {
+    cancelled.set(true);
+    release();
+  }
+
+  @SuppressWarnings("NullAway")
+  public Promise<R> release() {
+    Option<T> value = resource.get();
+    if (value.isPresent() && done.compareAndSet(false, true)) {
+      return release.apply(value.getOrElseThrow());
+    }
+    return Promise.<R>make().succeeded(released);
+  }
+}
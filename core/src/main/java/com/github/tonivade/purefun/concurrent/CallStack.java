@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2018-2024, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.purefun.concurrent;
+
+import static com.github.tonivade.purefun.core.Precondition.checkNonNull;
+
+import java.util.Arrays;
+import java.util.concurrent.Executor;
+
+import com.github.tonivade.purefun.Nullable;
+import com.github.tonivade.purefun.core.PartialFunction1;
+
+/**
+ * <p>Continuations pending to be executed by the run loop of an effect, like {@code IO} or {@code PureIO}.
+ * The stack is backed by an array that grows on demand, so pushing a continuation doesn't allocate any
+ * other object. Every continuation is stored with a tag that tells the run loop how to use it, and the
+ * error handlers are stored in the same array, marked with the {@code RECOVER} tag.</p>
+ *
+ * <p>It also keeps the executor where the program has been started, so the run loop can cede the thread
+ * to other fibers without moving the program to a different executor.</p>
+ *
+ * <p>It's not thread safe, it's used by only one run loop at a time.</p>
+ */
+public final class CallStack {
+
+  // applies a function to the value
+  public static final byte MAP = 0;
+  // continues with the program returned by a function of the value
+  public static final byte FLAT_MAP = 1;
+  // continues with the success or the error continuation, depending on the result
+  public static final byte FOLD = 2;
+  // continues with the given program, ignoring the value
+  public static final byte RESUME = 3;
+  // handles the exceptions, discarded if none is thrown
+  public static final byte RECOVER = 4;
+
+  /**
+   * Number of steps the run loop evaluates before ceding the thread to other fibers, configured with
+   * the {@code purefun.cede.threshold} system property. It's disabled by default, with a value of 0.
+   */
+  public static final int CEDE_THRESHOLD = Integer.getInteger("purefun.cede.threshold", 0);
+
+  private static final int INITIAL_CAPACITY = 16;
+
+  private final Executor executor;
+
+  private Object[] continuations = new Object[INITIAL_CAPACITY];
+  private byte[] tags = new byte[INITIAL_CAPACITY];
+  private int size = 0;
+
+  public CallStack() {
+    this(Future.DEFAULT_EXECUTOR);
+  }
+
+  public CallStack(Executor executor) {
+    this.executor = checkNonNull(executor);
+  }
+
+  public Executor executor() {
+    return executor;
+  }
+
+  public void push(byte tag, Object continuation) {
+    if (size == continuations.length) {
+      continuations = Arrays.copyOf(continuations, size << 1);
+      tags = Arrays.copyOf(tags, size << 1);
+    }
+    continuations[size] = continuation;
+    tags[size] = tag;
+    size++;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  public byte tag() {
+    return tags[size - 1];
+  }
+
+  public Object pop() {
+    Object continuation = continuations[--size];
+    continuations[size] = null;
+    return continuation;
+  }
+
+  /**
+   * Discards all the continuations until an error handler defined for the given error is found.
+   *
+   * @return the handler, or null if there is none and the stack is empty
+   */
+  @Nullable
+  @SuppressWarnings("unchecked")
+  public PartialFunction1<? super Throwable, ?> findHandler(Throwable error) {
+    while (size > 0) {
+      byte tag = tag();
+      Object continuation = pop();
+      if (tag == RECOVER) {
+        var handler = (PartialFunction1<? super Throwable, ?>) continuation;
+        if (handler.isDefinedAt(error)) {
+          return handler;
+        }
+      }
+    }
+    return null;
+  }
+}
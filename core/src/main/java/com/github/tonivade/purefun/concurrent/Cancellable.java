@@ -6,8 +6,9 @@ package com.github.tonivade.purefun.concurrent;
 
 import static com.github.tonivade.purefun.core.Precondition.checkNonNull;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 import java.util.concurrent.CancellationException;
-import java.util.concurrent.locks.ReentrantLock;
 
 import com.github.tonivade.purefun.Nullable;
 import com.github.tonivade.purefun.type.Try;
@@ -27,10 +28,23 @@ public sealed interface Cancellable {
 
 final class CancellableImpl implements Cancellable {
 
-  private final ReentrantLock lock = new ReentrantLock();
-  private boolean cancelled = false;
+  private static final VarHandle STATE;
+
+  static {
+    try {
+      STATE = MethodHandles.lookup().findVarHandle(CancellableImpl.class, "state", Object.class);
+    } catch (ReflectiveOperationException e) {
+      throw new ExceptionInInitializerError(e);
+    }
+  }
+
+  private static final Object CANCELLED = new Object();
+
+  /*
+   * null at the beginning, the thread that is running the task once started, or CANCELLED
+   */
   @Nullable
-  private Thread thread = null;
+  private volatile Object state;
 
   private final Promise<?> promise;
 
@@ -40,43 +54,27 @@ final class CancellableImpl implements Cancellable {
 
   @Override
   public void updateThread() {
-    lock.lock();
-    try {
-      thread = Thread.currentThread();
-    } finally {
-      lock.unlock();
+    Thread thread = Thread.currentThread();
+    while (true) {
+      Object current = state;
+      if (current == CANCELLED || STATE.compareAndSet(this, current, thread)) {
+        return;
+      }
     }
   }
 
   @Override
   public void cancel(boolean mayThreadInterrupted) {
     if (promise.tryComplete(Try.failure(new CancellationException()))) {
-      lock.lock();
-      try {
-        cancelled = true;
-        if (mayThreadInterrupted) {
-          interrupt();
-        }
-      } finally {
-        lock.unlock();
+      Object previous = STATE.getAndSet(this, CANCELLED);
+      if (mayThreadInterrupted && previous instanceof Thread thread) {
+        thread.interrupt();
       }
     }
   }
 
   @Override
   public boolean isCancelled() {
-    lock.lock();
-    try {
-      return cancelled;
-    } finally {
-      lock.unlock();
-    }
-  }
-
-  private void interrupt() {
-    if (thread != null) {
-      thread.interrupt();
-      thread = null;
-    }
+    return state == CANCELLED;
   }
 }
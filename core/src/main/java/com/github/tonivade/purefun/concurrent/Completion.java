@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2018-2024, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.purefun.concurrent;
+
+import static com.github.tonivade.purefun.core.Precondition.checkNonNull;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.github.tonivade.purefun.Nullable;
+import com.github.tonivade.purefun.core.Consumer1;
+import com.github.tonivade.purefun.type.Try;
+
+/**
+ * <p>A value that can be completed only once, shared by the deferred values of the effects, that only wrap
+ * these operations in their own type. The callbacks registered before the value is available are kept in a
+ * lock-free queue, and they are called by the thread that completes the value.</p>
+ *
+ * <p>Unlike {@link Promise}, a callback can be removed before the value is available, so the cancelled fibers
+ * are not retained until then. Removing a callback is a linear scan of the queue, so it's meant for a moderate
+ * number of waiters, not for thousands of fibers that are cancelled while they wait for the same value.</p>
+ *
+ * @param <A> type of the value
+ */
+public final class Completion<A> {
+
+  private final AtomicReference<A> value = new AtomicReference<>();
+  private final ConcurrentLinkedQueue<Consumer1<? super Try<? extends A>>> waiters = new ConcurrentLinkedQueue<>();
+
+  @Nullable
+  public A get() {
+    return value.get();
+  }
+
+  /**
+   * Calls the callback when the value is completed, immediately if it is already available.
+   *
+   * @return an action to remove the callback
+   */
+  public Runnable onComplete(Consumer1<? super Try<? extends A>> callback) {
+    checkNonNull(callback);
+    A current = value.get();
+    if (current != null) {
+      callback.accept(Try.success(current));
+      return () -> {};
+    }
+    waiters.offer(callback);
+    // the value may have been completed before the callback was added
+    current = value.get();
+    if (current != null && waiters.remove(callback)) {
+      callback.accept(Try.success(current));
+      return () -> {};
+    }
+    return () -> waiters.remove(callback);
+  }
+
+  /**
+   * Completes the value and calls all the registered callbacks
+   *
+   * @return false if the value was already completed
+   */
+  public boolean complete(A newValue) {
+    checkNonNull(newValue);
+    if (!value.compareAndSet(null, newValue)) {
+      return false;
+    }
+    Try<A> result = Try.success(newValue);
+    for (var callback = waiters.poll(); callback != null; callback = waiters.poll()) {
+      callback.accept(result);
+    }
+    return true;
+  }
+
+  public int waiting() {
+    return waiters.size();
+  }
+
+  @Override
+  public String toString() {
+    return "Completion(" + value.get() + ")";
+  }
+}
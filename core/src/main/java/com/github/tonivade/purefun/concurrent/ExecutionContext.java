@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2018-2024, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.purefun.concurrent;
+
+import static com.github.tonivade.purefun.core.Precondition.checkNonNull;
+
+import java.time.Duration;
+import java.util.ServiceLoader;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.github.tonivade.purefun.Nullable;
+
+/**
+ * <p>Executors used when no executor is provided, there are three roles:</p>
+ * <ul>
+ *   <li>compute: runs the computations, used by {@code Future.DEFAULT_EXECUTOR}.</li>
+ *   <li>blocking: runs blocking computations, like file or database I/O, used by {@code Future.BLOCKING_EXECUTOR}.</li>
+ *   <li>scheduler: runs tasks after a delay, used by {@code Future.sleep} and all the derived operations.</li>
+ * </ul>
+ *
+ * <p>The context is selected only once, at startup. If the system property {@code purefun.context} is defined,
+ * it should be the name of a class implementing this interface with a public constructor without parameters.
+ * If not, the first implementation found using {@code ServiceLoader} is used. And if there is none, the default
+ * context is used, that can be configured with these system properties:</p>
+ * <ul>
+ *   <li>{@code purefun.executor}: {@code virtual} (default) a new virtual thread per task, {@code fiber} a
+ *   {@link FiberScheduler}, {@code forkjoin} the common {@code ForkJoinPool}, {@code fixed} a fixed pool of
+ *   platform threads, one per processor.</li>
+ *   <li>{@code purefun.blocking.max}: maximum number of threads of the blocking executor (unbounded by default).</li>
+ * </ul>
+ */
+public interface ExecutionContext {
+
+  Executor compute();
+
+  Executor blocking();
+
+  Scheduler scheduler();
+
+  @FunctionalInterface
+  interface Scheduler {
+
+    /**
+     * Runs the task after the given delay
+     *
+     * @return an action to cancel the task
+     */
+    Runnable schedule(Duration delay, Runnable task);
+  }
+
+  static ExecutionContext current() {
+    return ExecutionContextModule.CURRENT;
+  }
+
+  static ExecutionContext defaultContext() {
+    return of(ExecutionContextModule.computeExecutor(),
+        ExecutionContextModule.blockingExecutor(), ExecutionContextModule::schedule);
+  }
+
+  static ExecutionContext of(Executor compute, Executor blocking, Scheduler scheduler) {
+    return new ExecutionContextImpl(compute, blocking, scheduler);
+  }
+}
+
+record ExecutionContextImpl(Executor compute, Executor blocking, ExecutionContext.Scheduler scheduler) implements ExecutionContext {
+
+  ExecutionContextImpl {
+    checkNonNull(compute);
+    checkNonNull(blocking);
+    checkNonNull(scheduler);
+  }
+}
+
+interface ExecutionContextModule {
+
+  ExecutionContext CURRENT = load(System.getProperty("purefun.context"));
+
+  static ExecutionContext load(@Nullable String className) {
+    if (className != null) {
+      try {
+        return Class.forName(className).asSubclass(ExecutionContext.class).getConstructor().newInstance();
+      } catch (ReflectiveOperationException | ClassCastException e) {
+        throw new IllegalStateException("cannot create execution context: " + className, e);
+      }
+    }
+    return ServiceLoader.load(ExecutionContext.class).findFirst().orElseGet(ExecutionContext::defaultContext);
+  }
+
+  static Runnable schedule(Duration delay, Runnable task) {
+    HashedWheelTimer.Timeout timeout = TimerHolder.TIMER.schedule(delay, task);
+    return timeout::cancel;
+  }
+
+  static Executor computeExecutor() {
+    return switch (System.getProperty("purefun.executor", "virtual")) {
+      case "fiber" -> new FiberScheduler();
+      case "forkjoin" -> ForkJoinPool.commonPool();
+      case "fixed" -> Executors.newFixedThreadPool(
+          Runtime.getRuntime().availableProcessors(), daemonThreads("purefun-compute-"));
+      default -> Executors.newVirtualThreadPerTaskExecutor();
+    };
+  }
+
+  static Executor blockingExecutor() {
+    int maxThreads = Integer.getInteger("purefun.blocking.max", Integer.MAX_VALUE);
+    ThreadFactory factory = daemonThreads("purefun-blocking-");
+    if (maxThreads == Integer.MAX_VALUE) {
+      return new ThreadPoolExecutor(0, maxThreads, 60L, TimeUnit.SECONDS, new SynchronousQueue<>(), factory);
+    }
+    ThreadPoolExecutor executor = new ThreadPoolExecutor(
+        maxThreads, maxThreads, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), factory);
+    executor.allowCoreThreadTimeOut(true);
+    return executor;
+  }
+
+  private static ThreadFactory daemonThreads(String prefix) {
+    AtomicInteger counter = new AtomicInteger();
+    return runnable -> {
+      Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    };
+  }
+
+  // the timer thread is started only when used for the first time
+  final class TimerHolder {
+
+    private static final HashedWheelTimer TIMER =
+        new HashedWheelTimer(Duration.ofMillis(1), 512, Future.DEFAULT_EXECUTOR);
+
+    private TimerHolder() {}
+  }
+}
@@ -0,0 +1,261 @@
+/*
+ * Copyright (c) 2018-2024, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.purefun.concurrent;
+
+import static com.github.tonivade.purefun.core.Precondition.checkNonNull;
+import static com.github.tonivade.purefun.core.Precondition.checkPositive;
+
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+import com.github.tonivade.purefun.Nullable;
+
+/**
+ * <p>Work-stealing executor designed to run the continuations of effects (callbacks of promises,
+ * forked fibers, etc...) in a fixed set of platform threads, usually one per core, instead of
+ * creating a new thread for every task.</p>
+ *
+ * <p>Every worker has its own deque, and a LIFO slot with the task most recently submitted from
+ * that worker, that is usually the continuation of the task that is running right now. The owner
+ * takes the newest tasks from one end of the deque, and when a worker runs out of tasks, it tries
+ * to steal the oldest tasks from the other end of the deques of the other workers before parking.
+ * A task that waits too long in the LIFO slot of a busy worker can be stolen too. Tasks submitted
+ * from outside of the scheduler go to a shared queue.</p>
+ *
+ * <p>The scheduler can be used in any method that accepts an {@code Executor}, or can be selected
+ * globally as {@link Future#DEFAULT_EXECUTOR} with the system property {@code purefun.executor=fiber}.
+ * Tasks executed in this scheduler should not block, because every blocked task holds a worker.</p>
+ */
+public final class FiberScheduler implements Executor, AutoCloseable {
+
+  private static final int MAX_LIFO_STREAK = 16;
+  private static final int EXTERNAL_CHECK_INTERVAL = 61;
+  private static final long LIFO_STEAL_DELAY = 50_000;
+
+  private final Worker[] workers;
+  private final ConcurrentLinkedQueue<Runnable> external = new ConcurrentLinkedQueue<>();
+  private final ConcurrentLinkedQueue<Worker> idle = new ConcurrentLinkedQueue<>();
+
+  private volatile boolean closed = false;
+
+  public FiberScheduler() {
+    this(Runtime.getRuntime().availableProcessors());
+  }
+
+  public FiberScheduler(int parallelism) {
+    checkPositive(parallelism);
+    this.workers = new Worker[parallelism];
+    for (int i = 0; i < parallelism; i++) {
+      workers[i] = new Worker(this, i);
+    }
+    for (Worker worker : workers) {
+      worker.start();
+    }
+  }
+
+  public int parallelism() {
+    return workers.length;
+  }
+
+  @Override
+  public void execute(Runnable task) {
+    checkNonNull(task);
+    if (closed) {
+      throw new RejectedExecutionException("scheduler is closed");
+    }
+    if (Thread.currentThread() instanceof Worker worker && worker.scheduler == this) {
+      // a task that only sits in the lifo slot will be run by the owner next, nothing to steal yet
+      if (worker.push(task)) {
+        notifyIdle();
+      }
+    } else {
+      external.offer(task);
+      notifyIdle();
+    }
+  }
+
+  @Override
+  public void close() {
+    closed = true;
+    for (Worker worker : workers) {
+      worker.wakeUp();
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "FiberScheduler(" + workers.length + ")";
+  }
+
+  private void notifyIdle() {
+    while (true) {
+      Worker worker = idle.poll();
+      if (worker == null || worker.wakeUp()) {
+        return;
+      }
+    }
+  }
+
+  @Nullable
+  private Runnable steal(Worker thief) {
+    thief.lifoPending = false;
+    int length = workers.length;
+    int start = ThreadLocalRandom.current().nextInt(length);
+    for (int i = 0; i < length; i++) {
+      Worker victim = workers[(start + i) % length];
+      if (victim != thief) {
+        Runnable task = victim.queue.pollFirst();
+        if (task != null) {
+          return task;
+        }
+        task = victim.stealLifo(thief);
+        if (task != null) {
+          return task;
+        }
+      }
+    }
+    return null;
+  }
+
+  private static final class Worker extends Thread {
+
+    private final FiberScheduler scheduler;
+    // the owner works on the last end, the thieves steal from the first end
+    private final ConcurrentLinkedDeque<Runnable> queue = new ConcurrentLinkedDeque<>();
+    private final AtomicReference<Runnable> lifoSlot = new AtomicReference<>();
+    private final AtomicBoolean parked = new AtomicBoolean();
+
+    // written by the owner before setting the lifo slot, so it's visible to the thieves that read the slot
+    private long lifoTime;
+
+    // only accessed by the owner thread
+    private int lifoStreak;
+    private int ticks;
+    private boolean lifoPending;
+
+    private Worker(FiberScheduler scheduler, int index) {
+      super("purefun-fiber-" + index);
+      this.scheduler = scheduler;
+      setDaemon(true);
+    }
+
+    @Override
+    public void run() {
+      while (!scheduler.closed) {
+        Runnable task = next();
+        if (task != null) {
+          runTask(task);
+          continue;
+        }
+        if (lifoPending) {
+          // another worker is busy with a task waiting in its lifo slot, that can be stolen soon
+          LockSupport.parkNanos(this, LIFO_STEAL_DELAY);
+          continue;
+        }
+
+        parked.set(true);
+        scheduler.idle.offer(this);
+
+        // check again to avoid losing a task submitted before being registered as idle
+        task = next();
+        if (task != null || lifoPending) {
+          parked.set(false);
+          if (task != null) {
+            runTask(task);
+          }
+          continue;
+        }
+
+        while (parked.get() && !scheduler.closed) {
+          LockSupport.park(this);
+        }
+      }
+    }
+
+    /**
+     * @return true if the previous task in the lifo slot has been moved to the deque, so it can be stolen
+     */
+    private boolean push(Runnable task) {
+      lifoTime = System.nanoTime();
+      Runnable previous = lifoSlot.getAndSet(task);
+      if (previous != null) {
+        queue.offerLast(previous);
+        return true;
+      }
+      return false;
+    }
+
+    @Nullable
+    private Runnable stealLifo(Worker thief) {
+      Runnable task = lifoSlot.get();
+      if (task == null) {
+        return null;
+      }
+      if (System.nanoTime() - lifoTime >= LIFO_STEAL_DELAY && lifoSlot.compareAndSet(task, null)) {
+        return task;
+      }
+      thief.lifoPending = true;
+      return null;
+    }
+
+    private boolean wakeUp() {
+      if (parked.compareAndSet(true, false)) {
+        LockSupport.unpark(this);
+        return true;
+      }
+      if (scheduler.closed) {
+        LockSupport.unpark(this);
+      }
+      return false;
+    }
+
+    @Nullable
+    private Runnable next() {
+      // from time to time the shared queue is checked first to avoid starving external submissions
+      if (++ticks % EXTERNAL_CHECK_INTERVAL == 0) {
+        Runnable task = scheduler.external.poll();
+        if (task != null) {
+          return task;
+        }
+      }
+
+      Runnable task = lifoSlot.getAndSet(null);
+      if (task != null && lifoStreak < MAX_LIFO_STREAK) {
+        lifoStreak++;
+        return task;
+      }
+      lifoStreak = 0;
+      if (task != null) {
+        // the lifo slot has been used too many times in a row, let the oldest task run first
+        queue.offerLast(task);
+        task = queue.pollFirst();
+      } else {
+        task = queue.pollLast();
+      }
+      if (task != null) {
+        return task;
+      }
+      task = scheduler.external.poll();
+      if (task != null) {
+        return task;
+      }
+      return scheduler.steal(this);
+    }
+
+    private void runTask(Runnable task) {
+      try {
+        task.run();
+      } catch (Throwable error) {
+        getUncaughtExceptionHandler().uncaughtException(this, error);
+      }
+    }
+  }
+}
@@ -7,19 +7,17 @@ package com.github.tonivade.purefun.concurrent;
 import static com.github.tonivade.purefun.core.Function1.cons;
 import static com.github.tonivade.purefun.core.Function1.identity;
 import static com.github.tonivade.purefun.core.Precondition.checkNonNull;
-import static java.util.concurrent.CompletableFuture.supplyAsync;
+import static com.github.tonivade.purefun.core.Precondition.checkPositive;
 
 import java.time.Duration;
-import java.util.UUID;
+import java.util.NoSuchElementException;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
 
 import com.github.tonivade.purefun.HigherKind;
 import com.github.tonivade.purefun.Kind;
+import com.github.tonivade.purefun.Nullable;
 import com.github.tonivade.purefun.core.Bindable;
 import com.github.tonivade.purefun.core.CheckedRunnable;
 import com.github.tonivade.purefun.core.Consumer1;
@@ -29,8 +27,8 @@ import com.github.tonivade.purefun.core.Matcher1;
 import com.github.tonivade.purefun.core.Producer;
 import com.github.tonivade.purefun.core.Tuple2;
 import com.github.tonivade.purefun.core.Unit;
-import com.github.tonivade.purefun.data.ImmutableList;
 import com.github.tonivade.purefun.data.Sequence;
+import com.github.tonivade.purefun.type.Either;
 import com.github.tonivade.purefun.type.Try;
 import com.github.tonivade.purefun.type.TryOf;
 
@@ -69,7 +67,17 @@ import com.github.tonivade.purefun.type.TryOf;
 @HigherKind
 public sealed interface Future<T> extends FutureOf<T>, Bindable<Future<?>, T> {
 
-  Executor DEFAULT_EXECUTOR = Executors.newVirtualThreadPerTaskExecutor();
+  /**
+   * Default executor used when no executor is provided, the compute executor of the current {@link ExecutionContext}.
+   * By default a new virtual thread is created per task.
+   */
+  Executor DEFAULT_EXECUTOR = ExecutionContext.current().compute();
+
+  /**
+   * Executor used to run blocking computations, like file or database I/O, out of the default executor,
+   * the blocking executor of the current {@link ExecutionContext}. By default it's a cached pool of daemon threads.
+   */
+  Executor BLOCKING_EXECUTOR = ExecutionContext.current().blocking();
 
   Try<T> await();
   Try<T> await(Duration timeout);
@@ -257,10 +265,49 @@ public sealed interface Future<T> extends FutureOf<T>, Bindable<Future<?>, T> {
     return FutureImpl.bracket(executor, acquire, use, release);
   }
 
-  // TODO
   static <A> Future<Sequence<A>> traverse(Sequence<Future<A>> sequence) {
-    return sequence.foldLeft(success(ImmutableList.empty()),
-        (Future<Sequence<A>> xs, Future<A> a) -> map2(xs, a, Sequence::append));
+    return sequence(sequence);
+  }
+
+  static <A, B> Future<Sequence<B>> traverse(Sequence<? extends A> sequence,
+      Function1<? super A, ? extends Future<? extends B>> mapper) {
+    return traverse(DEFAULT_EXECUTOR, sequence, mapper, Integer.MAX_VALUE, false);
+  }
+
+  /**
+   * Applies the mapper to every element of the sequence and waits for all the futures. The mapper is called
+   * lazily, so at most {@code maxConcurrency} futures are running at the same time. If {@code failFast} is true,
+   * when one of the futures fails the others are cancelled, and no more futures are started. The results are
+   * returned as an {@code ImmutableList}, in the same order as the elements of the sequence.
+   */
+  static <A, B> Future<Sequence<B>> traverse(Executor executor, Sequence<? extends A> sequence,
+      Function1<? super A, ? extends Future<? extends B>> mapper, int maxConcurrency, boolean failFast) {
+    return FutureImpl.traverse(executor, sequence, mapper, maxConcurrency, failFast);
+  }
+
+  static <A> Future<Sequence<A>> sequence(Sequence<? extends Future<? extends A>> sequence) {
+    return sequence(DEFAULT_EXECUTOR, sequence, false);
+  }
+
+  static <A> Future<Sequence<A>> sequence(Executor executor,
+      Sequence<? extends Future<? extends A>> sequence, boolean failFast) {
+    return traverse(executor, sequence, identity(), Integer.MAX_VALUE, failFast);
+  }
+
+  static Future<Unit> allOf(Sequence<? extends Future<?>> sequence) {
+    return allOf(DEFAULT_EXECUTOR, sequence, false);
+  }
+
+  static Future<Unit> allOf(Executor executor, Sequence<? extends Future<?>> sequence, boolean failFast) {
+    return FutureImpl.allOf(executor, sequence, failFast);
+  }
+
+  static <T> Future<T> firstCompletedOf(Sequence<? extends Future<? extends T>> sequence) {
+    return firstCompletedOf(DEFAULT_EXECUTOR, sequence);
+  }
+
+  static <T> Future<T> firstCompletedOf(Executor executor, Sequence<? extends Future<? extends T>> sequence) {
+    return FutureImpl.firstCompletedOf(executor, sequence);
   }
 
   static <T, V, R> Future<R> map2(Future<? extends T> fa, Future<? extends V> fb,
@@ -284,20 +331,19 @@ public sealed interface Future<T> extends FutureOf<T>, Bindable<Future<?>, T> {
 final class FutureImpl<T> implements Future<T> {
 
   private final Executor executor;
-  private final Propagate propagate;
+  // stage this future was derived from, cancellation is propagated to it
+  @Nullable
+  private final FutureImpl<?> parent;
   private final Promise<T> promise;
   private final Cancellable cancellable;
 
-  private final UUID uuid;
-
   private FutureImpl(Executor executor, Callback<T> callback) {
-    this(executor, callback, Propagate.noop());
+    this(executor, callback, null);
   }
 
-  private FutureImpl(Executor executor, Callback<T> callback, Propagate propagate) {
-    this.uuid = UUID.randomUUID();
+  private FutureImpl(Executor executor, Callback<T> callback, @Nullable FutureImpl<?> parent) {
     this.executor = checkNonNull(executor);
-    this.propagate = checkNonNull(propagate);
+    this.parent = parent;
     this.promise = Promise.make(executor);
     this.cancellable = Cancellable.from(promise);
     callback.accept(promise, cancellable);
@@ -366,7 +412,7 @@ final class FutureImpl<T> implements Future<T> {
     checkNonNull(apply);
     return new FutureImpl<>(executor,
         (p, c) -> promise.onComplete(try1 -> apply.onComplete(
-            try2 -> p.tryComplete(Try.map2(try2, try1, Function1::apply)))), this::cancel);
+            try2 -> p.tryComplete(Try.map2(try2, try1, Function1::apply)))), this);
   }
 
   @Override
@@ -398,7 +444,9 @@ final class FutureImpl<T> implements Future<T> {
     try {
       cancellable.cancel(mayInterruptThread);
     } finally {
-      propagate.accept(mayInterruptThread);
+      if (parent != null) {
+        parent.cancel(mayInterruptThread);
+      }
     }
   }
 
@@ -409,14 +457,14 @@ final class FutureImpl<T> implements Future<T> {
 
   @Override
   public String toString() {
-    return "Future(" + uuid + ')';
+    return "Future(" + Integer.toHexString(System.identityHashCode(this)) + ')';
   }
 
   private <R> Future<R> transform(Function1<? super Try<? extends T>, ? extends Try<? extends R>> mapper) {
     checkNonNull(mapper);
     return new FutureImpl<>(executor,
         (p, c) ->
-          promise.onComplete(value -> p.tryComplete(mapper.apply(value))), this::cancel);
+          promise.onComplete(value -> p.tryComplete(mapper.apply(value))), this);
   }
 
   private <R> Future<R> chain(Function1<? super Try<? extends T>, ? extends Kind<Future<?>, ? extends R>> mapper) {
@@ -424,7 +472,7 @@ final class FutureImpl<T> implements Future<T> {
     checkNonNull(mapper);
     return new FutureImpl<>(executor,
         (p, c) ->
-          promise.onComplete(value -> mapper.andThen(FutureOf::<R>toFuture).apply(value).onComplete(p::tryComplete)), this::cancel);
+          promise.onComplete(value -> mapper.andThen(FutureOf::<R>toFuture).apply(value).onComplete(p::tryComplete)), this);
   }
 
   static <T> Future<T> sync(Executor executor, Try<? extends T> result) {
@@ -463,7 +511,55 @@ final class FutureImpl<T> implements Future<T> {
   static Future<Unit> sleep(Executor executor, Duration delay) {
     checkNonNull(executor);
     checkNonNull(delay);
-    return from(executor, FutureModule.sleep(executor, delay));
+    return new FutureImpl<>(executor, (p, c) -> {
+      Runnable cancel = FutureModule.SCHEDULER.schedule(delay, () -> p.tryComplete(Try.success(Unit.unit())));
+      p.onFailure(error -> cancel.run());
+    });
+  }
+
+  @SuppressWarnings("unchecked")
+  static <A, B> Future<Sequence<B>> traverse(Executor executor, Sequence<? extends A> sequence,
+      Function1<? super A, ? extends Future<? extends B>> mapper, int maxConcurrency, boolean failFast) {
+    checkNonNull(executor);
+    checkNonNull(sequence);
+    checkNonNull(mapper);
+    checkPositive(maxConcurrency);
+    return new FutureImpl<>(executor, (p, c) -> {
+      Object[] values = sequence.stream().toArray();
+      Runnable cancel = Gather.<B>all(values.length, maxConcurrency,
+          (index, result) -> start(mapper.apply((A) values[index]), failFast, result),
+          Matcher1.never(), result -> p.tryComplete(result.map(either -> either.getRight().asList())));
+      if (failFast) {
+        p.onFailure(error -> cancel.run());
+      }
+    });
+  }
+
+  static Future<Unit> allOf(Executor executor, Sequence<? extends Future<?>> sequence, boolean failFast) {
+    checkNonNull(executor);
+    checkNonNull(sequence);
+    return new FutureImpl<>(executor, (p, c) -> {
+      Object[] values = sequence.stream().toArray();
+      Runnable cancel = Gather.<Object>all(values.length, Integer.MAX_VALUE,
+          (index, result) -> start((Future<?>) values[index], failFast, result),
+          Matcher1.never(), result -> p.tryComplete(result.map(ignore -> Unit.unit())));
+      if (failFast) {
+        p.onFailure(error -> cancel.run());
+      }
+    });
+  }
+
+  static <T> Future<T> firstCompletedOf(Executor executor, Sequence<? extends Future<? extends T>> sequence) {
+    checkNonNull(executor);
+    checkNonNull(sequence);
+    if (sequence.isEmpty()) {
+      return Future.failure(executor, new NoSuchElementException("empty sequence"));
+    }
+    return new FutureImpl<>(executor, (p, c) -> {
+      for (Future<? extends T> future : sequence) {
+        future.onComplete(p::tryComplete);
+      }
+    });
   }
 
   static <T, R> Future<R> bracket(Executor executor, Future<? extends T> acquire,
@@ -478,31 +574,22 @@ final class FutureImpl<T> implements Future<T> {
                   .onComplete(p::tryComplete)
                   .onComplete(result -> resource.onSuccess(release))));
   }
+
+  /*
+   * starts a computation of a Gather, the future is cancelled only when failing fast
+   */
+  private static <T> Runnable start(Future<? extends T> future, boolean failFast, Consumer1<? super Try<? extends T>> callback) {
+    future.onComplete(callback);
+    return failFast ? () -> future.cancel(true) : () -> {};
+  }
 }
 
 interface FutureModule {
 
-  ScheduledExecutorService SCHEDULER = Executors.newScheduledThreadPool(0);
-
-  static Promise<Unit> sleep(Executor executor, Duration delay) {
-    return Promise.from(executor, supplyAsync(Unit::unit, delayedExecutor(delay, executor)));
-  }
-
-  static Executor delayedExecutor(Duration delay, Executor executor) {
-    return task -> SCHEDULER.schedule(() -> executor.execute(task), delay.toMillis(), TimeUnit.MILLISECONDS);
-  }
+  ExecutionContext.Scheduler SCHEDULER = ExecutionContext.current().scheduler();
 }
 
 interface Callback<T> {
 
   void accept(Promise<T> promise, Cancellable cancellable);
 }
-
-interface Propagate {
-
-  void accept(boolean mayInterruptThread);
-
-  static Propagate noop() {
-    return mayInterruptThread -> {};
-  }
-}
\ No newline at end of file
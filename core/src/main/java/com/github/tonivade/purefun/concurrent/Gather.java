@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2018-2024, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.purefun.concurrent;
+
+import static com.github.tonivade.purefun.core.Precondition.checkNonNull;
+import static com.github.tonivade.purefun.core.Precondition.checkPositive;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import com.github.tonivade.purefun.core.Consumer1;
+import com.github.tonivade.purefun.core.Matcher1;
+import com.github.tonivade.purefun.data.ImmutableArray;
+import com.github.tonivade.purefun.type.Either;
+import com.github.tonivade.purefun.type.Try;
+
+/**
+ * <p>Runs a number of computations in parallel and gathers their results. It's used by {@code Future}
+ * and by the effects, like {@code IO} or {@code PureIO}, to implement the parallel operations, like
+ * {@code traverse}, {@code parMapN} or {@code raceAll}, that only need to tell how to start every
+ * computation.</p>
+ *
+ * <p>At most {@code parallelism} computations are running at the same time, and the next pending
+ * one is started when another one completes. The results are written in a preallocated array, in
+ * the same order as the computations. The first failure, or the first result that interrupts the
+ * gathering, completes it and cancels all the computations that are still running.</p>
+ */
+public final class Gather<T> {
+
+  @FunctionalInterface
+  public interface Task<T> {
+
+    /**
+     * Starts the computation with the given index, that calls the callback when it completes.
+     *
+     * @return an action to cancel the computation
+     */
+    Runnable start(int index, Consumer1<? super Try<? extends T>> callback);
+  }
+
+  private final Task<T> task;
+  private final Matcher1<? super T> interrupt;
+  private final Consumer1<? super Try<Either<T, ImmutableArray<T>>>> callback;
+  private final Object[] results;
+  private final AtomicReferenceArray<Runnable> cancels;
+  private final AtomicInteger next = new AtomicInteger();
+  private final AtomicInteger remaining;
+  private final AtomicInteger pending = new AtomicInteger();
+  private final AtomicBoolean done = new AtomicBoolean();
+
+  private Gather(int size, Task<T> task, Matcher1<? super T> interrupt,
+      Consumer1<? super Try<Either<T, ImmutableArray<T>>>> callback) {
+    this.task = checkNonNull(task);
+    this.interrupt = checkNonNull(interrupt);
+    this.callback = checkNonNull(callback);
+    this.results = new Object[size];
+    this.cancels = new AtomicReferenceArray<>(size);
+    this.remaining = new AtomicInteger(size);
+  }
+
+  /**
+   * Gathers the results of all the computations. The callback receives all the results as a right value,
+   * or the first result that matches {@code interrupt} as a left value.
+   *
+   * @return an action to cancel all the computations
+   */
+  public static <T> Runnable all(int size, int parallelism, Task<T> task, Matcher1<? super T> interrupt,
+      Consumer1<? super Try<Either<T, ImmutableArray<T>>>> callback) {
+    checkPositive(parallelism);
+    Gather<T> gather = new Gather<>(size, task, interrupt, callback);
+    gather.start(parallelism);
+    return gather::cancel;
+  }
+
+  /**
+   * The first computation to complete, successfully or not, wins the race and all the others are cancelled.
+   * If there is no computation at all, the callback is never called.
+   *
+   * @return an action to cancel all the computations
+   */
+  public static <T> Runnable race(int size, Task<T> task, Consumer1<? super Try<? extends T>> callback) {
+    checkNonNull(callback);
+    Gather<T> gather = new Gather<>(size, task, Matcher1.always(),
+        result -> callback.accept(result.map(Either::getLeft)));
+    if (size > 0) {
+      gather.start(size);
+    }
+    return gather::cancel;
+  }
+
+  private void start(int parallelism) {
+    if (results.length == 0) {
+      complete();
+    } else {
+      for (int i = 0; i < Math.min(parallelism, results.length); i++) {
+        startNext();
+      }
+    }
+  }
+
+  private void cancel() {
+    if (done.compareAndSet(false, true)) {
+      cancelAll();
+    }
+  }
+
+  /*
+   * computations already completed call the callback in the same thread, so instead of starting the next
+   * one recursively, the loop that is already running in the current thread is asked to do it
+   */
+  private void startNext() {
+    if (pending.getAndIncrement() == 0) {
+      do {
+        run();
+      } while (pending.decrementAndGet() != 0);
+    }
+  }
+
+  private void run() {
+    int index = next.getAndIncrement();
+    if (index >= results.length || done.get()) {
+      return;
+    }
+
+    Runnable cancel;
+    try {
+      cancel = task.start(index, result -> onComplete(index, result));
+    } catch (RuntimeException e) {
+      finish(Try.failure(e));
+      return;
+    }
+    cancels.set(index, cancel);
+
+    // the gathering may have been completed before the cancel action was known
+    if (done.get()) {
+      cancel.run();
+    }
+  }
+
+  private void onComplete(int index, Try<? extends T> result) {
+    if (result.isFailure()) {
+      finish(Try.failure(result.getCause()));
+      return;
+    }
+    T value = result.getOrElseThrow();
+    if (interrupt.match(value)) {
+      finish(Try.success(Either.left(value)));
+      return;
+    }
+    results[index] = value;
+    if (remaining.decrementAndGet() == 0) {
+      complete();
+    } else {
+      startNext();
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private void complete() {
+    if (done.compareAndSet(false, true)) {
+      callback.accept(Try.success(Either.right(ImmutableArray.of((T[]) results))));
+    }
+  }
+
+  private void finish(Try<Either<T, ImmutableArray<T>>> result) {
+    if (done.compareAndSet(false, true)) {
+      try {
+        cancelAll();
+      } finally {
+        callback.accept(result);
+      }
+    }
+  }
+
+  private void cancelAll() {
+    for (int i = 0; i < cancels.length(); i++) {
+      Runnable cancel = cancels.get(i);
+      if (cancel != null) {
+        cancel.run();
+      }
+    }
+  }
+}
@@ -0,0 +1,273 @@
+/*
+ * Copyright (c) 2018-2024, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.purefun.concurrent;
+
+import static com.github.tonivade.purefun.core.Precondition.checkNonNull;
+import static com.github.tonivade.purefun.core.Precondition.checkPositive;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import com.github.tonivade.purefun.Nullable;
+
+/**
+ * <p>Timer based on a hashed wheel, schedule and cancel are O(1) operations. Used to implement
+ * {@code Future.sleep} and all the derived operations, like timeouts or retries.</p>
+ *
+ * <p>The wheel is an array of buckets, every bucket is a doubly linked list of timeouts, and only the
+ * timer thread modifies the buckets. New and cancelled timeouts are enqueued and moved in or out of
+ * the wheel every time the timer thread wakes up. The task of an expired timeout is dispatched to the
+ * given executor, so a slow task never delays the other timeouts.</p>
+ *
+ * <p>The timer thread doesn't wake up every tick, it sleeps until the tick of the next bucket that is not
+ * empty, or until a new timeout is scheduled before that. When there are no pending timeouts the timer
+ * thread is parked until a new timeout is scheduled.</p>
+ */
+final class HashedWheelTimer {
+
+  private static final int MAX_TRANSFERS_PER_TICK = 100_000;
+
+  private final long tickDuration;
+  private final Bucket[] wheel;
+  private final int mask;
+  private final long startTime;
+  private final Executor executor;
+
+  private final ConcurrentLinkedQueue<Timeout> pending = new ConcurrentLinkedQueue<>();
+  private final ConcurrentLinkedQueue<Timeout> cancelled = new ConcurrentLinkedQueue<>();
+
+  private final Thread worker;
+  // time when the timer thread is going to wake up, or 0 if it is not sleeping
+  private volatile long wakeUpTime = 0;
+
+  // only accessed by the timer thread
+  private long tick;
+  private int size;
+
+  HashedWheelTimer(Duration tickDuration, int ticksPerWheel, Executor executor) {
+    checkNonNull(tickDuration);
+    checkPositive(ticksPerWheel);
+    this.tickDuration = Math.max(tickDuration.toNanos(), 1);
+    this.wheel = new Bucket[ticksPerWheel == 1 ? 1 : Integer.highestOneBit(ticksPerWheel - 1) << 1];
+    for (int i = 0; i < wheel.length; i++) {
+      wheel[i] = new Bucket();
+    }
+    this.mask = wheel.length - 1;
+    this.startTime = System.nanoTime();
+    this.executor = checkNonNull(executor);
+    this.worker = Thread.ofPlatform().name("purefun-timer").daemon().unstarted(this::run);
+    this.worker.start();
+  }
+
+  Timeout schedule(Duration delay, Runnable task) {
+    checkNonNull(delay);
+    checkNonNull(task);
+    long deadline = elapsed() + Math.max(delay.toNanos(), 0);
+    Timeout timeout = new Timeout(this, task, deadline);
+    pending.offer(timeout);
+    // the timer thread is woken up only if the timeout expires before the time it's sleeping until
+    if (tickDuration * (deadline / tickDuration + 1) < wakeUpTime) {
+      LockSupport.unpark(worker);
+    }
+    return timeout;
+  }
+
+  private void run() {
+    while (true) {
+      removeCancelled();
+      if (size == 0) {
+        // nothing is in the wheel, so the missed ticks can be skipped
+        tick = Math.max(tick, elapsed() / tickDuration);
+      }
+      transferPending();
+      expireTicks();
+      sleepUntilNextTimeout();
+    }
+  }
+
+  private void expireTicks() {
+    long now = elapsed();
+    while (size > 0 && tickDuration * (tick + 1) <= now) {
+      wheel[(int) (tick & mask)].expire(tick);
+      tick++;
+    }
+  }
+
+  private void sleepUntilNextTimeout() {
+    long wakeUp = size == 0 ? Long.MAX_VALUE : tickDuration * (nextTick() + 1);
+    wakeUpTime = wakeUp;
+    // check again to avoid losing a timeout scheduled before the wake up time was published
+    if (pending.isEmpty()) {
+      if (wakeUp == Long.MAX_VALUE) {
+        LockSupport.park(this);
+      } else {
+        long sleepTime = wakeUp - elapsed();
+        if (sleepTime > 0) {
+          LockSupport.parkNanos(this, sleepTime);
+        }
+      }
+    }
+    wakeUpTime = 0;
+  }
+
+  private long nextTick() {
+    for (int i = 0; i < wheel.length; i++) {
+      if (!wheel[(int) ((tick + i) & mask)].isEmpty()) {
+        return tick + i;
+      }
+    }
+    return tick + wheel.length;
+  }
+
+  private long elapsed() {
+    return System.nanoTime() - startTime;
+  }
+
+  private void removeCancelled() {
+    while (true) {
+      Timeout timeout = cancelled.poll();
+      if (timeout == null) {
+        return;
+      }
+      Bucket bucket = timeout.bucket;
+      if (bucket != null) {
+        bucket.remove(timeout);
+      }
+    }
+  }
+
+  private void transferPending() {
+    for (int i = 0; i < MAX_TRANSFERS_PER_TICK; i++) {
+      Timeout timeout = pending.poll();
+      if (timeout == null) {
+        return;
+      }
+      if (timeout.isCancelled()) {
+        continue;
+      }
+      timeout.deadlineTick = Math.max(timeout.deadline / tickDuration, tick);
+      wheel[(int) (timeout.deadlineTick & mask)].add(timeout);
+    }
+  }
+
+  static final class Timeout {
+
+    private static final int INIT = 0;
+    private static final int CANCELLED = 1;
+    private static final int EXPIRED = 2;
+
+    private final HashedWheelTimer timer;
+    private final Runnable task;
+    private final long deadline;
+    private final AtomicInteger state = new AtomicInteger(INIT);
+
+    // only accessed by the timer thread
+    private long deadlineTick;
+    @Nullable
+    private Bucket bucket;
+    @Nullable
+    private Timeout prev;
+    @Nullable
+    private Timeout next;
+
+    private Timeout(HashedWheelTimer timer, Runnable task, long deadline) {
+      this.timer = timer;
+      this.task = task;
+      this.deadline = deadline;
+    }
+
+    boolean cancel() {
+      if (state.compareAndSet(INIT, CANCELLED)) {
+        timer.cancelled.offer(this);
+        return true;
+      }
+      return false;
+    }
+
+    boolean isCancelled() {
+      return state.get() == CANCELLED;
+    }
+
+    boolean isExpired() {
+      return state.get() == EXPIRED;
+    }
+
+    private void expire() {
+      if (state.compareAndSet(INIT, EXPIRED)) {
+        try {
+          timer.executor.execute(task);
+        } catch (RejectedExecutionException error) {
+          Thread thread = Thread.currentThread();
+          thread.getUncaughtExceptionHandler().uncaughtException(thread, error);
+        }
+      }
+    }
+  }
+
+  private final class Bucket {
+
+    @Nullable
+    private Timeout head;
+    @Nullable
+    private Timeout tail;
+
+    private void add(Timeout timeout) {
+      timeout.bucket = this;
+      Timeout last = tail;
+      if (last == null) {
+        head = timeout;
+      } else {
+        last.next = timeout;
+        timeout.prev = last;
+      }
+      tail = timeout;
+      size++;
+    }
+
+    private boolean isEmpty() {
+      return head == null;
+    }
+
+    // timeouts of later rounds stay in the bucket
+    private void expire(long tick) {
+      Timeout timeout = head;
+      while (timeout != null) {
+        Timeout next = timeout.next;
+        if (timeout.deadlineTick <= tick) {
+          remove(timeout);
+          timeout.expire();
+        } else if (timeout.isCancelled()) {
+          remove(timeout);
+        }
+        timeout = next;
+      }
+    }
+
+    private void remove(Timeout timeout) {
+      Timeout next = timeout.next;
+      Timeout prev = timeout.prev;
+      if (prev != null) {
+        prev.next = next;
+      }
+      if (next != null) {
+        next.prev = prev;
+      }
+      if (timeout == head) {
+        head = next;
+      }
+      if (timeout == tail) {
+        tail = prev;
+      }
+      timeout.prev = null;
+      timeout.next = null;
+      timeout.bucket = null;
+      size--;
+    }
+  }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2018-2024, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.purefun.concurrent;
+
+import static com.github.tonivade.purefun.core.Precondition.check;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.github.tonivade.purefun.core.Consumer1;
+import com.github.tonivade.purefun.core.Unit;
+import com.github.tonivade.purefun.type.Try;
+
+/**
+ * Count down latch shared by the latches of the effects, that only wrap these operations in their own type.
+ * The callbacks are called when {@code countDown} has been called the given number of times, a latch created
+ * with a count of zero is already open.
+ */
+public final class Latch {
+
+  private final AtomicInteger count;
+  private final Completion<Unit> done = new Completion<>();
+
+  public Latch(int count) {
+    check(() -> count >= 0, "count must not be negative");
+    this.count = new AtomicInteger(count);
+    if (count == 0) {
+      done.complete(Unit.unit());
+    }
+  }
+
+  public void countDown() {
+    if (count.getAndUpdate(current -> Math.max(current - 1, 0)) == 1) {
+      done.complete(Unit.unit());
+    }
+  }
+
+  /**
+   * Calls the callback when the count reaches zero, immediately if it is already zero.
+   *
+   * @return an action to remove the callback
+   */
+  public Runnable await(Consumer1<? super Try<? extends Unit>> callback) {
+    return done.onComplete(callback);
+  }
+
+  public int count() {
+    return count.get();
+  }
+
+  @Override
+  public String toString() {
+    return "Latch(" + count.get() + ")";
+  }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2018-2024, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.purefun.concurrent;
+
+import static com.github.tonivade.purefun.core.Precondition.check;
+import static com.github.tonivade.purefun.core.Precondition.checkNonNull;
+import static com.github.tonivade.purefun.core.Precondition.checkPositive;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.github.tonivade.purefun.core.Consumer1;
+import com.github.tonivade.purefun.core.Unit;
+import com.github.tonivade.purefun.type.Try;
+
+/**
+ * <p>Permits of an asynchronous semaphore, shared by the semaphores of the effects, that only wrap these
+ * operations in their own type. A request that cannot be granted right now is kept in a queue with its callback,
+ * and the callback is called when other thread releases enough permits. Cancelling the request removes it from
+ * the queue, and it doesn't get any permit.</p>
+ *
+ * <p>In a fair semaphore the permits are granted in the same order they were requested, so a request of many
+ * permits stops the ones behind it. In a non fair semaphore a new request can take the available permits even
+ * if others are waiting, and any waiting request gets the permits as soon as there are enough for it.</p>
+ *
+ * <p>When there are enough permits and nobody is waiting, acquiring and releasing permits is just a CAS.</p>
+ */
+public final class Permits {
+
+  private final boolean fair;
+
+  private final AtomicInteger permits;
+  private final ConcurrentLinkedQueue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger draining = new AtomicInteger();
+
+  public Permits(int permits, boolean fair) {
+    check(() -> permits >= 0, "permits should not be negative");
+    this.permits = new AtomicInteger(permits);
+    this.fair = fair;
+  }
+
+  public int available() {
+    return permits.get();
+  }
+
+  /**
+   * Calls the callback when the permits are granted, immediately if they are available.
+   *
+   * @return an action to cancel the request
+   */
+  public Runnable acquire(int n, Consumer1<? super Try<? extends Unit>> callback) {
+    checkPositive(n);
+    checkNonNull(callback);
+    if ((!fair || waiters.isEmpty()) && tryAcquire(n)) {
+      callback.accept(Try.success(Unit.unit()));
+      return () -> {};
+    }
+    Waiter waiter = new Waiter(n, callback);
+    waiters.offer(waiter);
+    drain();
+    return () -> cancel(waiter);
+  }
+
+  public boolean tryAcquire(int n) {
+    checkPositive(n);
+    while (true) {
+      int current = permits.get();
+      if (current < n) {
+        return false;
+      }
+      if (permits.compareAndSet(current, current - n)) {
+        return true;
+      }
+    }
+  }
+
+  public void release(int n) {
+    checkPositive(n);
+    permits.addAndGet(n);
+    drain();
+  }
+
+  @Override
+  public String toString() {
+    return "Permits(" + permits.get() + ")";
+  }
+
+  private void cancel(Waiter waiter) {
+    if (waiter.done.compareAndSet(false, true)) {
+      // the waiter at the head could be stopping the others
+      drain();
+    }
+  }
+
+  /*
+   * only one thread at a time grants permits to the waiters, if other thread
+   * tries to drain meanwhile, the current one repeats the loop
+   */
+  private void drain() {
+    if (draining.getAndIncrement() != 0) {
+      return;
+    }
+    do {
+      Iterator<Waiter> iterator = waiters.iterator();
+      while (iterator.hasNext()) {
+        Waiter waiter = iterator.next();
+        if (waiter.done.get()) {
+          iterator.remove();
+        } else if (tryAcquire(waiter.permits)) {
+          iterator.remove();
+          if (waiter.done.compareAndSet(false, true)) {
+            waiter.callback.accept(Try.success(Unit.unit()));
+          } else {
+            // cancelled meanwhile
+            permits.addAndGet(waiter.permits);
+            draining.incrementAndGet();
+          }
+        } else if (fair) {
+          break;
+        }
+      }
+    } while (draining.decrementAndGet() != 0);
+  }
+
+  private static final class Waiter {
+
+    private final int permits;
+    private final Consumer1<? super Try<? extends Unit>> callback;
+    private final AtomicBoolean done = new AtomicBoolean();
+
+    private Waiter(int permits, Consumer1<? super Try<? extends Unit>> callback) {
+      this.permits = permits;
+      this.callback = callback;
+    }
+  }
+}
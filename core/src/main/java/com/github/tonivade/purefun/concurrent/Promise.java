@@ -6,20 +6,18 @@ package com.github.tonivade.purefun.concurrent;
 
 import static com.github.tonivade.purefun.core.Precondition.checkNonNull;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 import java.time.Duration;
-import java.util.ArrayDeque;
-import java.util.Queue;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
-import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
-import java.util.concurrent.atomic.AtomicReference;
-import java.util.concurrent.locks.Condition;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.LockSupport;
 
 import com.github.tonivade.purefun.HigherKind;
 import com.github.tonivade.purefun.Kind;
+import com.github.tonivade.purefun.Nullable;
 import com.github.tonivade.purefun.core.Applicable;
 import com.github.tonivade.purefun.core.Bindable;
 import com.github.tonivade.purefun.core.CheckedRunnable;
@@ -30,7 +28,6 @@ import com.github.tonivade.purefun.core.Function3;
 import com.github.tonivade.purefun.core.Function4;
 import com.github.tonivade.purefun.core.Function5;
 import com.github.tonivade.purefun.core.Unit;
-import com.github.tonivade.purefun.type.Option;
 import com.github.tonivade.purefun.type.Try;
 import com.github.tonivade.purefun.type.TryOf;
 
@@ -149,10 +146,24 @@ public sealed interface Promise<T> extends PromiseOf<T>, Bindable<Promise<?>, T>
 
 final class PromiseImpl<T> implements Promise<T> {
 
-  private final ReentrantLock lock = new ReentrantLock();
-  private final Condition condition = lock.newCondition();
-  private final Queue<Consumer1<? super Try<? extends T>>> consumers = new ArrayDeque<>();
-  private final AtomicReference<Try<? extends T>> reference = new AtomicReference<>();
+  private static final VarHandle STATE;
+
+  private static final AwaitStrategy AWAIT = AwaitStrategy.current();
+
+  static {
+    try {
+      STATE = MethodHandles.lookup().findVarHandle(PromiseImpl.class, "state", Object.class);
+    } catch (ReflectiveOperationException e) {
+      throw new ExceptionInInitializerError(e);
+    }
+  }
+
+  /*
+   * null when the promise is empty, a stack of nodes with the callbacks and the waiting threads
+   * when it is not completed yet, or the result once completed.
+   */
+  @Nullable
+  private volatile Object state;
 
   private final Executor executor;
 
@@ -162,40 +173,31 @@ final class PromiseImpl<T> implements Promise<T> {
 
   @Override
   public boolean tryComplete(Try<? extends T> value) {
-    if (isEmpty()) {
-      lock.lock();
-      try {
-        if (isEmpty()) {
-          set(value);
-          condition.signalAll();
-          while (true) {
-            var consumer = consumers.poll();
-            if (consumer != null)
-              submit(value, consumer);
-            else break;
-          }
-          return true;
+    checkNonNull(value);
+    while (true) {
+      Object current = state;
+      if (current instanceof Try) {
+        return false;
+      }
+      if (STATE.compareAndSet(this, current, value)) {
+        for (Node node = Node.reverse((Node) current); node != null; node = node.next) {
+          node.complete(value, executor);
         }
-      } finally {
-        lock.unlock();
+        return true;
       }
     }
-    return false;
   }
 
   @Override
   public Try<T> await() {
-    if (isEmpty()) {
-      lock.lock();
-      try {
-        while (isEmpty()) {
-          condition.await();
+    if (!isCompleted() && !AWAIT.spin(this)) {
+      AWAIT.parked();
+      push(new Node(Thread.currentThread()));
+      while (!isCompleted()) {
+        LockSupport.park(this);
+        if (Thread.interrupted()) {
+          interrupted();
         }
-      } catch (InterruptedException e) {
-        Thread.currentThread().interrupt();
-        set(Try.failure(e));
-      } finally {
-        lock.unlock();
       }
     }
     return safeGet();
@@ -203,17 +205,20 @@ final class PromiseImpl<T> implements Promise<T> {
 
   @Override
   public Try<T> await(Duration timeout) {
-    if (isEmpty()) {
-      lock.lock();
-      try {
-        if (isEmpty() && !condition.await(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
-          set(Try.failure(new TimeoutException()));
+    long deadline = System.nanoTime() + timeout.toNanos();
+    if (!isCompleted() && !AWAIT.spin(this)) {
+      AWAIT.parked();
+      push(new Node(Thread.currentThread()));
+      while (!isCompleted()) {
+        long remaining = deadline - System.nanoTime();
+        if (remaining <= 0) {
+          tryComplete(Try.failure(new TimeoutException()));
+        } else {
+          LockSupport.parkNanos(this, remaining);
+          if (Thread.interrupted()) {
+            interrupted();
+          }
         }
-      } catch (InterruptedException e) {
-        Thread.currentThread().interrupt();
-        set(Try.failure(e));
-      } finally {
-        lock.unlock();
       }
     }
     return safeGet();
@@ -221,17 +226,16 @@ final class PromiseImpl<T> implements Promise<T> {
 
   @Override
   public boolean isCompleted() {
-    lock.lock();
-    try {
-      return !isEmpty();
-    } finally {
-      lock.unlock();
-    }
+    return state instanceof Try;
   }
 
   @Override
+  @SuppressWarnings("unchecked")
   public Promise<T> onComplete(Consumer1<? super Try<? extends T>> consumer) {
-    current(consumer).ifPresent(consumer);
+    checkNonNull(consumer);
+    if (push(new Node(consumer)) instanceof Try<?> result) {
+      consumer.accept((Try<? extends T>) result);
+    }
     return this;
   }
 
@@ -262,34 +266,69 @@ final class PromiseImpl<T> implements Promise<T> {
     return other;
   }
 
-  private Option<Try<T>> current(Consumer1<? super Try<? extends T>> consumer) {
-    if (isEmpty()) {
-      lock.lock();
-      try {
-        if (isEmpty()) {
-          consumers.add(consumer);
-        }
-      } finally {
-        lock.unlock();
+  /*
+   * pushes the node in the stack if the promise is not completed, in other case the result is returned
+   */
+  @Nullable
+  private Object push(Node node) {
+    while (true) {
+      Object current = state;
+      if (current instanceof Try) {
+        return current;
+      }
+      node.next = (Node) current;
+      if (STATE.compareAndSet(this, current, node)) {
+        return null;
       }
     }
-    return Option.of(safeGet());
   }
 
-  @SuppressWarnings("NullAway")
-  private Try<T> safeGet() {
-    return TryOf.toTry(reference.get());
+  private void interrupted() {
+    tryComplete(Try.failure(new InterruptedException()));
+    Thread.currentThread().interrupt();
   }
 
-  private void set(Try<? extends T> value) {
-    reference.set(value);
+  @SuppressWarnings({"unchecked", "NullAway"})
+  private Try<T> safeGet() {
+    return TryOf.toTry((Try<? extends T>) state);
   }
 
-  private boolean isEmpty() {
-    return reference.get() == null;
-  }
+  private static final class Node {
+
+    private final Object item;
+    @Nullable
+    private Node next;
+
+    private Node(Object item) {
+      this.item = item;
+    }
 
-  private void submit(Try<? extends T> value, Consumer1<? super Try<? extends T>> consumer) {
-    executor.execute(() -> consumer.accept(value));
+    @SuppressWarnings("unchecked")
+    private <T> void complete(Try<? extends T> value, Executor executor) {
+      if (item instanceof Thread thread) {
+        LockSupport.unpark(thread);
+      } else {
+        var consumer = (Consumer1<? super Try<? extends T>>) item;
+        if (TrampolineExecutor.INLINE_CALLBACKS) {
+          TrampolineExecutor.execute(executor, () -> consumer.accept(value));
+        } else {
+          executor.execute(() -> consumer.accept(value));
+        }
+      }
+    }
+
+    // callbacks are executed in the same order they were registered
+    @Nullable
+    private static Node reverse(@Nullable Node head) {
+      Node result = null;
+      Node current = head;
+      while (current != null) {
+        Node next = current.next;
+        current.next = result;
+        result = current;
+        current = next;
+      }
+      return result;
+    }
   }
 }
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2018-2024, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.purefun.concurrent;
+
+import static com.github.tonivade.purefun.core.Precondition.checkNonNull;
+import static com.github.tonivade.purefun.core.Precondition.checkPositive;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.Executor;
+
+/**
+ * <p>Executor that runs the tasks in the calling thread, instead of sending them to another thread. It's designed
+ * to execute the callbacks of promises and futures, usually cheap transformations, where the cost of switching
+ * to another thread is much higher than the cost of the transformation itself.</p>
+ *
+ * <p>Tasks submitted while another task is running in the same thread are not executed recursively, they are
+ * enqueued in a per-thread trampoline and executed after the current one finishes, so long chains of callbacks
+ * are stack safe. After running {@code maxBatch} tasks in a row, the rest of the pending tasks are sent to the
+ * fallback executor, so a thread is never captured forever.</p>
+ *
+ * <p>It can be used in any method that accepts an {@code Executor}, or can be enabled globally for all the
+ * callbacks of promises with the system property {@code purefun.callbacks=inline}. Callbacks should not block,
+ * because they can run in any thread, like the one that completes the promise.</p>
+ */
+public final class TrampolineExecutor implements Executor {
+
+  static final boolean INLINE_CALLBACKS = "inline".equals(System.getProperty("purefun.callbacks"));
+
+  private static final int DEFAULT_MAX_BATCH = 128;
+
+  private static final ThreadLocal<Trampoline> TRAMPOLINE = ThreadLocal.withInitial(Trampoline::new);
+
+  private final Executor fallback;
+  private final int maxBatch;
+
+  public TrampolineExecutor() {
+    this(Future.DEFAULT_EXECUTOR);
+  }
+
+  public TrampolineExecutor(Executor fallback) {
+    this(fallback, DEFAULT_MAX_BATCH);
+  }
+
+  public TrampolineExecutor(Executor fallback, int maxBatch) {
+    this.fallback = checkNonNull(fallback);
+    this.maxBatch = checkPositive(maxBatch);
+  }
+
+  @Override
+  public void execute(Runnable task) {
+    execute(fallback, maxBatch, checkNonNull(task));
+  }
+
+  static void execute(Executor fallback, Runnable task) {
+    execute(fallback, DEFAULT_MAX_BATCH, task);
+  }
+
+  private static void execute(Executor fallback, int maxBatch, Runnable task) {
+    Trampoline trampoline = TRAMPOLINE.get();
+    if (trampoline.running) {
+      trampoline.queue.addLast(task);
+    } else {
+      trampoline.run(fallback, maxBatch, task);
+    }
+  }
+
+  private static final class Trampoline {
+
+    private final ArrayDeque<Runnable> queue = new ArrayDeque<>();
+    private boolean running;
+
+    private void run(Executor fallback, int maxBatch, Runnable task) {
+      running = true;
+      try {
+        int count = 0;
+        Runnable next = task;
+        while (next != null) {
+          if (++count > maxBatch) {
+            queue.addFirst(next);
+            handOff(fallback, maxBatch);
+            return;
+          }
+          runSafe(next);
+          next = queue.pollFirst();
+        }
+      } finally {
+        running = false;
+      }
+    }
+
+    private void handOff(Executor fallback, int maxBatch) {
+      Runnable[] pending = queue.toArray(Runnable[]::new);
+      queue.clear();
+      fallback.execute(() -> {
+        for (Runnable runnable : pending) {
+          execute(fallback, maxBatch, runnable);
+        }
+      });
+    }
+
+    private static void runSafe(Runnable task) {
+      try {
+        task.run();
+      } catch (Throwable error) {
+        Thread thread = Thread.currentThread();
+        thread.getUncaughtExceptionHandler().uncaughtException(thread, error);
+      }
+    }
+  }
+}
@@ -112,8 +112,14 @@ public interface ImmutableList<E> extends Sequence<E> {
 
     private final PStack<E> backend;
 
+    // ConsPStack.from is recursive, so the stack is built from the last element to the first one instead
     static <E> ImmutableList<E> from(Collection<E> backend) {
-      return from(ConsPStack.from(backend));
+      List<E> list = backend instanceof List<E> l ? l : new ArrayList<>(backend);
+      var current = ConsPStack.<E>empty();
+      for (var iterator = list.listIterator(list.size()); iterator.hasPrevious();) {
+        current = current.plus(iterator.previous());
+      }
+      return from(current);
     }
 
     static <E> ImmutableList<E> from(PStack<E> backend) {
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2018-2024, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.purefun.concurrent;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.tonivade.purefun.type.Try;
+
+class AwaitStrategyTest {
+
+  @Test
+  void spinAndYield() {
+    AwaitStrategy strategy = new AwaitStrategy(10, 2);
+
+    boolean completed = strategy.spin(Promise.make());
+
+    assertAll(
+        () -> assertFalse(completed),
+        () -> assertEquals(1, strategy.spinCount()),
+        () -> assertEquals(1, strategy.yieldCount()));
+  }
+
+  @Test
+  void completedWhileSpinning() {
+    AwaitStrategy strategy = new AwaitStrategy(10, 2);
+
+    boolean completed = strategy.spin(Promise.make().succeeded("hola"));
+
+    assertAll(
+        () -> assertTrue(completed),
+        () -> assertEquals(1, strategy.spinCount()),
+        () -> assertEquals(0, strategy.yieldCount()));
+  }
+
+  @Test
+  void parkImmediately() {
+    AwaitStrategy strategy = new AwaitStrategy(0, 0);
+
+    boolean completed = strategy.spin(Promise.make());
+
+    assertAll(
+        () -> assertFalse(completed),
+        () -> assertEquals(0, strategy.spinCount()),
+        () -> assertEquals(0, strategy.yieldCount()));
+  }
+
+  @Test
+  void virtualThreadsDontSpin() throws InterruptedException {
+    AwaitStrategy strategy = new AwaitStrategy(10, 2);
+    AtomicBoolean completed = new AtomicBoolean(true);
+
+    Thread.ofVirtual().start(() -> completed.set(strategy.spin(Promise.make()))).join();
+
+    assertAll(
+        () -> assertFalse(completed.get()),
+        () -> assertEquals(0, strategy.spinCount()),
+        () -> assertEquals(0, strategy.yieldCount()));
+  }
+
+  @Test
+  void parkCount() {
+    AwaitStrategy strategy = AwaitStrategy.current();
+    long parks = strategy.parkCount();
+
+    Try<String> result = Future.delay(Duration.ofMillis(100), () -> "hola").await();
+
+    assertEquals(Try.success("hola"), result);
+    assertTrue(strategy.parkCount() > parks);
+  }
+
+  @Test
+  void invalid() {
+    assertThrows(IllegalArgumentException.class, () -> new AwaitStrategy(-1, 0));
+  }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2018-2024, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.purefun.concurrent;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.tonivade.purefun.core.PartialFunction1;
+
+class CallStackTest {
+
+  @Test
+  void pushAndPop() {
+    CallStack stack = new CallStack();
+
+    for (int i = 0; i < 100; i++) {
+      stack.push(CallStack.MAP, i);
+    }
+
+    for (int i = 99; i >= 0; i--) {
+      assertEquals(CallStack.MAP, stack.tag());
+      assertEquals(i, stack.pop());
+    }
+    assertTrue(stack.isEmpty());
+  }
+
+  @Test
+  void findHandler() {
+    PartialFunction1<Throwable, String> handler =
+        PartialFunction1.of(IllegalStateException.class::isInstance, Throwable::getMessage);
+    CallStack stack = new CallStack();
+
+    stack.push(CallStack.RECOVER, handler);
+    stack.push(CallStack.MAP, "a");
+    stack.push(CallStack.RECOVER, PartialFunction1.of(UnsupportedOperationException.class::isInstance, Throwable::getMessage));
+    stack.push(CallStack.FLAT_MAP, "b");
+
+    assertSame(handler, stack.findHandler(new IllegalStateException()));
+    assertTrue(stack.isEmpty());
+  }
+
+  @Test
+  void noHandler() {
+    CallStack stack = new CallStack();
+
+    stack.push(CallStack.MAP, "a");
+
+    assertNull(stack.findHandler(new IllegalStateException()));
+    assertTrue(stack.isEmpty());
+  }
+}
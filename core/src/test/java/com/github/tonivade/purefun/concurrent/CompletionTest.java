@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2018-2024, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.purefun.concurrent;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.tonivade.purefun.type.Try;
+
+class CompletionTest {
+
+  @Test
+  void complete() {
+    Completion<String> completion = new Completion<>();
+    AtomicReference<Try<? extends String>> result = new AtomicReference<>();
+
+    completion.onComplete(result::set);
+
+    assertNull(result.get());
+    assertTrue(completion.complete("a"));
+    assertFalse(completion.complete("b"));
+    assertEquals(Try.success("a"), result.get());
+    assertEquals("a", completion.get());
+  }
+
+  @Test
+  void alreadyCompleted() {
+    Completion<String> completion = new Completion<>();
+    AtomicReference<Try<? extends String>> result = new AtomicReference<>();
+
+    completion.complete("a");
+    completion.onComplete(result::set);
+
+    assertEquals(Try.success("a"), result.get());
+    assertEquals(0, completion.waiting());
+  }
+
+  @Test
+  void removeCallback() {
+    Completion<String> completion = new Completion<>();
+    AtomicReference<Try<? extends String>> result = new AtomicReference<>();
+
+    Runnable cancel = completion.onComplete(result::set);
+    cancel.run();
+    completion.complete("a");
+
+    assertNull(result.get());
+    assertEquals(0, completion.waiting());
+  }
+}
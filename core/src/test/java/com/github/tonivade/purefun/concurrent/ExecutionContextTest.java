@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2018-2024, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.purefun.concurrent;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+
+class ExecutionContextTest {
+
+  @Test
+  void current() {
+    ExecutionContext context = ExecutionContext.current();
+
+    assertAll(
+        () -> assertSame(context.compute(), Future.DEFAULT_EXECUTOR),
+        () -> assertSame(context.blocking(), Future.BLOCKING_EXECUTOR));
+  }
+
+  @Test
+  void scheduler() throws InterruptedException {
+    CountDownLatch latch = new CountDownLatch(1);
+
+    ExecutionContext.current().scheduler().schedule(Duration.ofMillis(10), latch::countDown);
+
+    assertTrue(latch.await(1, TimeUnit.SECONDS));
+  }
+
+  @Test
+  void schedulerCancel() throws InterruptedException {
+    AtomicBoolean executed = new AtomicBoolean();
+
+    Runnable cancel = ExecutionContext.current().scheduler().schedule(Duration.ofMillis(50), () -> executed.set(true));
+    cancel.run();
+    Thread.sleep(100);
+
+    assertFalse(executed.get());
+  }
+
+  @Test
+  void loadByClassName() {
+    ExecutionContext context = ExecutionContextModule.load(Inline.class.getName());
+
+    assertTrue(context instanceof Inline);
+  }
+
+  @Test
+  void loadDefault() {
+    ExecutionContext context = ExecutionContextModule.load(null);
+
+    assertTrue(context instanceof ExecutionContextImpl);
+  }
+
+  @Test
+  void loadInvalid() {
+    assertAll(
+        () -> assertThrows(IllegalStateException.class, () -> ExecutionContextModule.load("not.a.Class")),
+        () -> assertThrows(IllegalStateException.class, () -> ExecutionContextModule.load(String.class.getName())));
+  }
+
+  @Test
+  void customContext() {
+    Executor executor = Runnable::run;
+    ExecutionContext context = ExecutionContext.of(executor, executor, (delay, task) -> {
+      task.run();
+      return () -> {};
+    });
+
+    assertEquals("hola", Future.task(context.compute(), () -> "hola").getOrElseThrow());
+  }
+
+  public static final class Inline implements ExecutionContext {
+
+    @Override
+    public Executor compute() {
+      return Runnable::run;
+    }
+
+    @Override
+    public Executor blocking() {
+      return Runnable::run;
+    }
+
+    @Override
+    public Scheduler scheduler() {
+      return (delay, task) -> {
+        task.run();
+        return () -> {};
+      };
+    }
+  }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2018-2024, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.purefun.concurrent;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.github.tonivade.purefun.type.Try;
+
+class FiberSchedulerTest {
+
+  private final FiberScheduler scheduler = new FiberScheduler(4);
+
+  @AfterEach
+  void tearDown() {
+    scheduler.close();
+  }
+
+  @Test
+  void externalTasks() throws InterruptedException {
+    int tasks = 10_000;
+    CountDownLatch latch = new CountDownLatch(tasks);
+    AtomicInteger counter = new AtomicInteger();
+
+    for (int i = 0; i < tasks; i++) {
+      scheduler.execute(() -> {
+        counter.incrementAndGet();
+        latch.countDown();
+      });
+    }
+
+    assertTrue(latch.await(10, TimeUnit.SECONDS));
+    assertEquals(tasks, counter.get());
+  }
+
+  @Test
+  void nestedTasks() throws InterruptedException {
+    int depth = 10_000;
+    CountDownLatch latch = new CountDownLatch(1);
+    AtomicInteger counter = new AtomicInteger();
+
+    scheduler.execute(new Runnable() {
+      @Override
+      public void run() {
+        if (counter.incrementAndGet() < depth) {
+          scheduler.execute(this);
+        } else {
+          latch.countDown();
+        }
+      }
+    });
+
+    assertTrue(latch.await(10, TimeUnit.SECONDS));
+    assertEquals(depth, counter.get());
+  }
+
+  @Test
+  void forkJoin() throws InterruptedException {
+    int tasks = 1_000;
+    CountDownLatch latch = new CountDownLatch(tasks * 2);
+
+    for (int i = 0; i < tasks; i++) {
+      scheduler.execute(() -> {
+        latch.countDown();
+        scheduler.execute(latch::countDown);
+      });
+    }
+
+    assertTrue(latch.await(10, TimeUnit.SECONDS));
+  }
+
+  @Test
+  void stealFromBusyWorker() throws InterruptedException {
+    CountDownLatch stolen = new CountDownLatch(2);
+    CountDownLatch done = new CountDownLatch(1);
+
+    scheduler.execute(() -> {
+      // the first task goes to the deque, the second one stays in the lifo slot
+      scheduler.execute(stolen::countDown);
+      scheduler.execute(stolen::countDown);
+      try {
+        if (stolen.await(10, TimeUnit.SECONDS)) {
+          done.countDown();
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    });
+
+    assertTrue(done.await(10, TimeUnit.SECONDS));
+  }
+
+  @Test
+  void failingTaskDoesNotStopWorker()throws InterruptedException {
+    FiberScheduler single = new FiberScheduler(1);
+    CountDownLatch latch = new CountDownLatch(1);
+
+    try {
+      single.execute(() -> { throw new UnsupportedOperationException(); });
+      single.execute(latch::countDown);
+
+      assertTrue(latch.await(10, TimeUnit.SECONDS));
+    } finally {
+      single.close();
+    }
+  }
+
+  @Test
+  void future() {
+    Future<Integer> future = Future.task(scheduler, () -> 1).flatMap(x -> Future.task(scheduler, () -> x + 1));
+
+    assertEquals(Try.success(2), future.await());
+  }
+
+  @Test
+  void closed() {
+    scheduler.close();
+
+    assertThrows(RejectedExecutionException.class, () -> scheduler.execute(() -> {}));
+  }
+}
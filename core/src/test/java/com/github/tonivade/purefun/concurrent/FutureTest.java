@@ -6,6 +6,7 @@ package com.github.tonivade.purefun.concurrent;
 
 import static com.github.tonivade.purefun.core.Producer.cons;
 import static com.github.tonivade.purefun.core.Producer.failure;
+import static com.github.tonivade.purefun.data.Sequence.listOf;
 import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -27,6 +28,8 @@ import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -36,6 +39,9 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import com.github.tonivade.purefun.core.Consumer1;
 import com.github.tonivade.purefun.core.Producer;
 import com.github.tonivade.purefun.core.Unit;
+import com.github.tonivade.purefun.data.ImmutableArray;
+import com.github.tonivade.purefun.data.ImmutableList;
+import com.github.tonivade.purefun.data.Sequence;
 import com.github.tonivade.purefun.type.Try;
 
 @ExtendWith(MockitoExtension.class)
@@ -252,6 +258,18 @@ public class FutureTest {
     assertTrue(future.await().getCause() instanceof CancellationException);
   }
 
+  @Test
+  public void cancelPropagation() {
+    Future<Unit> sleep = Future.sleep(Duration.ofSeconds(1));
+    Future<String> future = sleep.map(ignore -> "hello").map(String::toUpperCase);
+
+    future.cancel(false);
+
+    assertTrue(future.isCancelled());
+    assertTrue(sleep.isCancelled());
+    assertTrue(sleep.await().getCause() instanceof CancellationException);
+  }
+
   @Test
   public void sleep() {
     long start = System.currentTimeMillis();
@@ -293,6 +311,99 @@ public class FutureTest {
     assertEquals(4, result.size());
   }
 
+  @Test
+  public void traverse() {
+    Future<Sequence<Integer>> future = Future.traverse(listOf(3, 1, 2),
+        i -> Future.delay(Duration.ofMillis(i * 10), () -> i * 2));
+
+    assertEquals(Try.success(listOf(6, 2, 4)), future.await());
+  }
+
+  @Test
+  public void sequence() {
+    Future<Sequence<String>> future = Future.sequence(listOf(Future.task(() -> "a"), Future.success("b")));
+
+    assertEquals(Try.success(listOf("a", "b")), future.await());
+  }
+
+  @Test
+  public void sequenceEmpty() {
+    Future<Sequence<String>> future = Future.sequence(ImmutableList.<Future<String>>empty());
+
+    assertEquals(Try.success(ImmutableList.empty()), future.await());
+  }
+
+  @Test
+  public void traverseMaxConcurrency() {
+    AtomicInteger running = new AtomicInteger();
+    AtomicInteger max = new AtomicInteger();
+
+    Future<Sequence<Integer>> future = Future.traverse(Future.DEFAULT_EXECUTOR,
+        ImmutableArray.from(IntStream.range(0, 100).boxed()),
+        i -> Future.task(() -> {
+          max.accumulateAndGet(running.incrementAndGet(), Math::max);
+          Thread.sleep(1);
+          running.decrementAndGet();
+          return i;
+        }), 4, false);
+
+    assertEquals(100, future.getOrElseThrow().size());
+    assertTrue(max.get() <= 4, () -> "max concurrency " + max.get());
+  }
+
+  @Test
+  public void traverseStackSafety() {
+    Future<Sequence<Integer>> future = Future.traverse(Future.DEFAULT_EXECUTOR,
+        ImmutableArray.from(IntStream.range(0, 10000).boxed()), Future::success, 1, false);
+
+    assertEquals(10000, future.getOrElseThrow().size());
+  }
+
+  @Test
+  public void traverseFailFast() {
+    Future<Unit> sleep = Future.sleep(Duration.ofSeconds(5));
+    UnsupportedOperationException error = new UnsupportedOperationException();
+
+    Future<Sequence<Object>> future = Future.sequence(Future.DEFAULT_EXECUTOR,
+        listOf(sleep, Future.failure(error)), true);
+
+    assertEquals(Try.failure(error), future.await(Duration.ofSeconds(1)));
+    assertTrue(sleep.await(Duration.ofSeconds(1)).getCause() instanceof CancellationException);
+  }
+
+  @Test
+  public void traverseWithoutFailFast() {
+    Future<Unit> sleep = Future.sleep(Duration.ofMillis(100));
+    UnsupportedOperationException error = new UnsupportedOperationException();
+
+    Future<Sequence<Object>> future = Future.sequence(listOf(sleep, Future.failure(error)));
+
+    assertEquals(Try.failure(error), future.await());
+    assertEquals(Try.success(Unit.unit()), sleep.await());
+  }
+
+  @Test
+  public void allOf() {
+    Future<Unit> future = Future.allOf(listOf(Future.task(() -> "a"), Future.sleep(Duration.ofMillis(10))));
+
+    assertEquals(Try.success(Unit.unit()), future.await());
+  }
+
+  @Test
+  public void firstCompletedOf() {
+    Future<String> future = Future.firstCompletedOf(
+        listOf(Future.delay(Duration.ofSeconds(1), () -> "slow"), Future.success("fast")));
+
+    assertEquals(Try.success("fast"), future.await());
+  }
+
+  @Test
+  public void firstCompletedOfEmpty() {
+    Future<String> future = Future.firstCompletedOf(ImmutableList.<Future<String>>empty());
+
+    assertTrue(future.await().getCause() instanceof NoSuchElementException);
+  }
+
   private Future<Unit> currentThread(Executor executor, List<String> result) {
     return Future.exec(executor, () -> result.add("thread-" + Thread.currentThread().threadId()));
   }
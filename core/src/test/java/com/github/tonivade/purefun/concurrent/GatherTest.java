@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2018-2024, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.purefun.concurrent;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.tonivade.purefun.core.Consumer1;
+import com.github.tonivade.purefun.core.Matcher1;
+import com.github.tonivade.purefun.data.ImmutableArray;
+import com.github.tonivade.purefun.type.Either;
+import com.github.tonivade.purefun.type.Try;
+
+class GatherTest {
+
+  @Test
+  void allInOrder() {
+    List<Consumer1<? super Try<? extends Integer>>> callbacks = new ArrayList<>();
+    AtomicReference<Try<Either<Integer, ImmutableArray<Integer>>>> result = new AtomicReference<>();
+
+    Gather.<Integer>all(3, 3, (index, callback) -> {
+      callbacks.add(callback);
+      return () -> {};
+    }, Matcher1.never(), result::set);
+
+    callbacks.get(2).accept(Try.success(3));
+    callbacks.get(0).accept(Try.success(1));
+    callbacks.get(1).accept(Try.success(2));
+
+    assertEquals(Try.success(Either.right(ImmutableArray.of(1, 2, 3))), result.get());
+  }
+
+  @Test
+  void allParallelism() {
+    AtomicInteger running = new AtomicInteger();
+    AtomicInteger max = new AtomicInteger();
+    AtomicReference<Try<Either<Integer, ImmutableArray<Integer>>>> result = new AtomicReference<>();
+
+    Gather.<Integer>all(100, 4, (index, callback) -> {
+      max.accumulateAndGet(running.incrementAndGet(), Math::max);
+      running.decrementAndGet();
+      callback.accept(Try.success(index));
+      return () -> {};
+    }, Matcher1.never(), result::set);
+
+    assertEquals(100, result.get().getOrElseThrow().getRight().size());
+    assertTrue(max.get() <= 4);
+  }
+
+  @Test
+  void allFailureCancelsOthers() {
+    List<Consumer1<? super Try<? extends Integer>>> callbacks = new ArrayList<>();
+    AtomicInteger cancelled = new AtomicInteger();
+    AtomicReference<Try<Either<Integer, ImmutableArray<Integer>>>> result = new AtomicReference<>();
+    IllegalStateException error = new IllegalStateException();
+
+    Gather.<Integer>all(3, 3, (index, callback) -> {
+      callbacks.add(callback);
+      return cancelled::incrementAndGet;
+    }, Matcher1.never(), result::set);
+
+    callbacks.get(1).accept(Try.failure(error));
+    callbacks.get(0).accept(Try.success(1));
+
+    assertEquals(error, result.get().getCause());
+    assertEquals(3, cancelled.get());
+  }
+
+  @Test
+  void allInterrupted() {
+    AtomicReference<Try<Either<Integer, ImmutableArray<Integer>>>> result = new AtomicReference<>();
+
+    Gather.<Integer>all(5, 1, (index, callback) -> {
+      callback.accept(Try.success(index));
+      return () -> {};
+    }, value -> value == 2, result::set);
+
+    assertEquals(Try.success(Either.left(2)), result.get());
+  }
+
+  @Test
+  void allEmpty() {
+    AtomicReference<Try<Either<Integer, ImmutableArray<Integer>>>> result = new AtomicReference<>();
+
+    Gather.<Integer>all(0, 1, (index, callback) -> () -> {}, Matcher1.never(), result::set);
+
+    assertEquals(Try.success(Either.right(ImmutableArray.empty())), result.get());
+  }
+
+  @Test
+  void race() {
+    List<Consumer1<? super Try<? extends String>>> callbacks = new ArrayList<>();
+    AtomicInteger cancelled = new AtomicInteger();
+    AtomicReference<Try<? extends String>> result = new AtomicReference<>();
+
+    Gather.<String>race(3, (index, callback) -> {
+      callbacks.add(callback);
+      return cancelled::incrementAndGet;
+    }, result::set);
+
+    callbacks.get(1).accept(Try.success("b"));
+    callbacks.get(0).accept(Try.success("a"));
+
+    assertEquals(Try.success("b"), result.get());
+    assertEquals(3, cancelled.get());
+  }
+
+  @Test
+  void cancel() {
+    AtomicInteger cancelled = new AtomicInteger();
+    AtomicReference<Try<? extends String>> result = new AtomicReference<>();
+
+    Runnable cancel = Gather.<String>race(3, (index, callback) -> cancelled::incrementAndGet, result::set);
+    cancel.run();
+
+    assertEquals(3, cancelled.get());
+    assertEquals(null, result.get());
+  }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2018-2024, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.purefun.concurrent;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.tonivade.purefun.core.Unit;
+import com.github.tonivade.purefun.type.Try;
+
+class HashedWheelTimerTest {
+
+  private final HashedWheelTimer timer = new HashedWheelTimer(Duration.ofMillis(1), 8, Future.DEFAULT_EXECUTOR);
+
+  @Test
+  void expire() throws InterruptedException {
+    CountDownLatch latch = new CountDownLatch(1);
+    long start = System.nanoTime();
+
+    HashedWheelTimer.Timeout timeout = timer.schedule(Duration.ofMillis(50), latch::countDown);
+
+    assertTrue(latch.await(1, TimeUnit.SECONDS));
+    assertTrue(System.nanoTime() - start >= Duration.ofMillis(50).toNanos());
+    assertTrue(timeout.isExpired());
+  }
+
+  @Test
+  void severalRounds() throws InterruptedException {
+    CountDownLatch latch = new CountDownLatch(1);
+    long start = System.nanoTime();
+
+    timer.schedule(Duration.ofMillis(30), latch::countDown);
+
+    assertTrue(latch.await(1, TimeUnit.SECONDS));
+    assertTrue(System.nanoTime() - start >= Duration.ofMillis(30).toNanos());
+  }
+
+  @Test
+  void earlierThanNextTimeout() throws InterruptedException {
+    CountDownLatch latch = new CountDownLatch(1);
+    long start = System.nanoTime();
+
+    timer.schedule(Duration.ofSeconds(10), () -> {});
+    Thread.sleep(10);
+    timer.schedule(Duration.ofMillis(20), latch::countDown);
+
+    assertTrue(latch.await(1, TimeUnit.SECONDS));
+    assertTrue(System.nanoTime() - start < Duration.ofSeconds(1).toNanos());
+  }
+
+  @Test
+  void runInExecutor() throws InterruptedException {
+    CountDownLatch latch = new CountDownLatch(1);
+    AtomicReference<String> thread = new AtomicReference<>();
+
+    timer.schedule(Duration.ofMillis(10), () -> {
+      thread.set(Thread.currentThread().getName());
+      latch.countDown();
+    });
+
+    assertTrue(latch.await(1, TimeUnit.SECONDS));
+    assertNotEquals("purefun-timer", thread.get());
+  }
+
+  @Test
+  void cancel() throws InterruptedException {
+    AtomicInteger counter = new AtomicInteger();
+
+    HashedWheelTimer.Timeout timeout = timer.schedule(Duration.ofMillis(20), counter::incrementAndGet);
+
+    assertTrue(timeout.cancel());
+    assertFalse(timeout.cancel());
+    Thread.sleep(50);
+    assertTrue(timeout.isCancelled());
+    assertEquals(0, counter.get());
+  }
+
+  @Test
+  void manyTimeouts() throws InterruptedException {
+    int timeouts = 10_000;
+    CountDownLatch latch = new CountDownLatch(timeouts / 2);
+    AtomicInteger counter = new AtomicInteger();
+    int cancelled = 0;
+
+    for (int i = 0; i < timeouts; i++) {
+      HashedWheelTimer.Timeout timeout = timer.schedule(Duration.ofMillis(i % 100), () -> {
+        counter.incrementAndGet();
+        latch.countDown();
+      });
+      // timeouts without delay can expire before being cancelled
+      if (i % 2 == 0 && timeout.cancel()) {
+        cancelled++;
+      }
+    }
+
+    assertTrue(latch.await(5, TimeUnit.SECONDS));
+    Thread.sleep(150);
+    assertEquals(timeouts - cancelled, counter.get());
+  }
+
+  @Test
+  void sleepCancelled() {
+    Future<Unit> sleep = Future.sleep(Duration.ofSeconds(10));
+
+    sleep.cancel(false);
+
+    assertTrue(sleep.await().isFailure());
+    assertTrue(sleep.isCancelled());
+  }
+
+  @Test
+  void sleep() {
+    assertEquals(Try.success(Unit.unit()), Future.sleep(Duration.ofMillis(10)).await());
+  }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2018-2024, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.purefun.concurrent;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+class LatchTest {
+
+  @Test
+  void countDown() {
+    Latch latch = new Latch(2);
+    AtomicInteger done = new AtomicInteger();
+
+    latch.await(result -> done.incrementAndGet());
+    latch.countDown();
+
+    assertEquals(0, done.get());
+    assertEquals(1, latch.count());
+
+    latch.countDown();
+    latch.countDown();
+
+    assertEquals(1, done.get());
+    assertEquals(0, latch.count());
+  }
+
+  @Test
+  void awaitWhenZero() {
+    Latch latch = new Latch(1);
+    AtomicInteger done = new AtomicInteger();
+
+    latch.countDown();
+    latch.await(result -> done.incrementAndGet());
+
+    assertEquals(1, done.get());
+  }
+
+  @Test
+  void zeroIsAlreadyOpen() {
+    Latch latch = new Latch(0);
+    AtomicInteger done = new AtomicInteger();
+
+    latch.await(result -> done.incrementAndGet());
+    latch.countDown();
+
+    assertEquals(1, done.get());
+    assertEquals(0, latch.count());
+  }
+
+  @Test
+  void negativeCount() {
+    assertThrows(IllegalArgumentException.class, () -> new Latch(-1));
+  }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2018-2024, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.purefun.concurrent;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+class PermitsTest {
+
+  @Test
+  void acquireAndRelease() {
+    Permits permits = new Permits(1, true);
+    AtomicInteger granted = new AtomicInteger();
+
+    permits.acquire(1, result -> granted.incrementAndGet());
+    permits.acquire(1, result -> granted.incrementAndGet());
+
+    assertEquals(1, granted.get());
+    assertEquals(0, permits.available());
+
+    permits.release(1);
+
+    assertEquals(2, granted.get());
+    assertEquals(0, permits.available());
+  }
+
+  @Test
+  void fair() {
+    Permits permits = new Permits(0, true);
+    AtomicInteger granted = new AtomicInteger();
+
+    permits.acquire(2, result -> granted.incrementAndGet());
+    permits.acquire(1, result -> granted.incrementAndGet());
+    permits.release(1);
+
+    assertEquals(0, granted.get());
+    assertFalse(permits.tryAcquire(2));
+  }
+
+  @Test
+  void nonFair() {
+    Permits permits = new Permits(0, false);
+    AtomicInteger granted = new AtomicInteger();
+
+    permits.acquire(2, result -> granted.incrementAndGet());
+    permits.acquire(1, result -> granted.incrementAndGet());
+    permits.release(1);
+
+    assertEquals(1, granted.get());
+  }
+
+  @Test
+  void cancel() {
+    Permits permits = new Permits(0, true);
+    AtomicInteger granted = new AtomicInteger();
+
+    Runnable cancel = permits.acquire(2, result -> granted.incrementAndGet());
+    permits.acquire(1, result -> granted.incrementAndGet());
+    cancel.run();
+    permits.release(1);
+
+    assertEquals(1, granted.get());
+    assertEquals(0, permits.available());
+    permits.release(2);
+    assertTrue(permits.tryAcquire(2));
+    assertEquals(1, granted.get());
+  }
+}
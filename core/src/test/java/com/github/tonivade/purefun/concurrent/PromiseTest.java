@@ -10,11 +10,13 @@ import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.verify;
 
 import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
@@ -175,6 +177,43 @@ class PromiseTest {
     assertEquals(Try.success(Tuple.of("one", "two")), promise.await());
   }
 
+  @Test
+  void concurrentCallbacks() throws InterruptedException {
+    int callbacks = 1000;
+    Promise<String> promise = Promise.make();
+    CountDownLatch latch = new CountDownLatch(callbacks);
+    AtomicInteger counter = new AtomicInteger();
+
+    for (int i = 0; i < callbacks; i++) {
+      executor.execute(() -> promise.onComplete(value -> {
+        counter.incrementAndGet();
+        latch.countDown();
+      }));
+      if (i == callbacks / 2) {
+        executor.execute(() -> promise.tryComplete(Try.success("hola mundo!")));
+      }
+    }
+
+    assertTrue(latch.await(5, TimeUnit.SECONDS));
+    Thread.sleep(100);
+    assertEquals(callbacks, counter.get());
+  }
+
+  @Test
+  void severalWaiters() throws InterruptedException {
+    Promise<String> promise = Promise.make();
+    Promise<String> first = Promise.make();
+    Promise<String> second = Promise.make();
+
+    Thread.ofVirtual().start(() -> first.complete(promise.await()));
+    Thread.ofVirtual().start(() -> second.complete(promise.await()));
+    Thread.sleep(100);
+    promise.succeeded("hola mundo!");
+
+    assertEquals(Try.success("hola mundo!"), first.await());
+    assertEquals(Try.success("hola mundo!"), second.await());
+  }
+
   @Test
   void toFuture() {
     Promise<String> promise = Promise.<String>make().succeeded("hola mundo!");
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2018-2024, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.purefun.concurrent;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.tonivade.purefun.type.Try;
+
+class TrampolineExecutorTest {
+
+  @Test
+  void runInCallingThread() {
+    TrampolineExecutor executor = new TrampolineExecutor();
+    AtomicReference<Thread> thread = new AtomicReference<>();
+
+    executor.execute(() -> thread.set(Thread.currentThread()));
+
+    assertSame(Thread.currentThread(), thread.get());
+  }
+
+  @Test
+  void nestedTasksAreNotRecursive() {
+    TrampolineExecutor executor = new TrampolineExecutor(Future.DEFAULT_EXECUTOR, Integer.MAX_VALUE);
+    List<String> result = new ArrayList<>();
+
+    executor.execute(() -> {
+      executor.execute(() -> result.add("second"));
+      result.add("first");
+    });
+
+    assertEquals(List.of("first", "second"), result);
+  }
+
+  @Test
+  void stackSafety() {
+    TrampolineExecutor executor = new TrampolineExecutor(Future.DEFAULT_EXECUTOR, Integer.MAX_VALUE);
+    AtomicInteger counter = new AtomicInteger();
+
+    executor.execute(new Runnable() {
+      @Override
+      public void run() {
+        if (counter.incrementAndGet() < 100_000) {
+          executor.execute(this);
+        }
+      }
+    });
+
+    assertEquals(100_000, counter.get());
+  }
+
+  @Test
+  void maxBatch() throws InterruptedException {
+    AtomicInteger fallbacks = new AtomicInteger();
+    Executor fallback = task -> {
+      fallbacks.incrementAndGet();
+      Future.DEFAULT_EXECUTOR.execute(task);
+    };
+    TrampolineExecutor executor = new TrampolineExecutor(fallback, 10);
+    CountDownLatch latch = new CountDownLatch(100);
+
+    executor.execute(() -> {
+      for (int i = 0; i < 100; i++) {
+        executor.execute(latch::countDown);
+      }
+    });
+
+    assertTrue(latch.await(5, TimeUnit.SECONDS));
+    assertTrue(fallbacks.get() > 0);
+  }
+
+  @Test
+  void promiseCallbacks() {
+    Promise<String> promise = Promise.make(new TrampolineExecutor());
+    AtomicReference<Thread> thread = new AtomicReference<>();
+
+    Promise<String> map = promise.map(String::toUpperCase).map(value -> {
+      thread.set(Thread.currentThread());
+      return value + "!";
+    });
+    promise.succeeded("hola");
+
+    assertTrue(map.isCompleted());
+    assertEquals(Try.success("HOLA!"), map.await());
+    assertSame(Thread.currentThread(), thread.get());
+  }
+}
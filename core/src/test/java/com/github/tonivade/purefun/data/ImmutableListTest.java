@@ -21,6 +21,7 @@ import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.util.Collections;
+import java.util.stream.IntStream;
 import org.junit.jupiter.api.Test;
 
 import com.github.tonivade.purefun.core.Function1;
@@ -114,6 +115,15 @@ public class ImmutableListTest {
     );
   }
 
+  @Test
+  public void fromLargeCollection() {
+    ImmutableList<Integer> list = ImmutableList.from(IntStream.range(0, 100_000).boxed());
+
+    assertEquals(100_000, list.size());
+    assertEquals(Option.some(0), list.head());
+    assertEquals(Option.some(99_999), list.drop(99_999).head());
+  }
+
   @Test
   void serialization() throws IOException, ClassNotFoundException {
     ImmutableList<Integer> list = listOf(1, 2, 3, 4, 5);
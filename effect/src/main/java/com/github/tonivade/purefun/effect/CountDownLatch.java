@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2018-2024, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.purefun.effect;
+
+import com.github.tonivade.purefun.concurrent.Latch;
+import com.github.tonivade.purefun.core.Unit;
+
+/**
+ * Fibers that call {@code await} are suspended, without blocking any thread, until {@code countDown}
+ * has been called the given number of times.
+ */
+public final class CountDownLatch {
+
+  private final Latch latch;
+
+  private CountDownLatch(int count) {
+    this.latch = new Latch(count);
+  }
+
+  public UIO<Unit> countDown() {
+    return UIO.exec(latch::countDown);
+  }
+
+  public UIO<Unit> await() {
+    return UIO.cancellable(callback -> {
+      Runnable cancel = latch.await(callback);
+      return UIO.exec(cancel::run);
+    });
+  }
+
+  public UIO<Integer> count() {
+    return UIO.task(latch::count);
+  }
+
+  @Override
+  public String toString() {
+    return "CountDownLatch(" + latch.count() + ")";
+  }
+
+  public static UIO<CountDownLatch> make(int count) {
+    return UIO.task(() -> of(count));
+  }
+
+  public static CountDownLatch of(int count) {
+    return new CountDownLatch(count);
+  }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2018-2024, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.purefun.effect;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import com.github.tonivade.purefun.core.Unit;
+
+/**
+ * <p>A counter to be updated by many fibers at the same time, like the number of requests received. It's backed
+ * by a {@link LongAdder}, that keeps many cells and spreads the threads over them when there is contention,
+ * so updates don't retry on the same value like in a {@link LongRef}.</p>
+ *
+ * <p>The sum is not an atomic snapshot, updates made while it's being calculated may not be included.</p>
+ */
+public final class Counter {
+
+  private final LongAdder value = new LongAdder();
+
+  private Counter() {}
+
+  public UIO<Unit> increment() {
+    return UIO.exec(value::increment);
+  }
+
+  public UIO<Unit> decrement() {
+    return UIO.exec(value::decrement);
+  }
+
+  public UIO<Unit> add(long delta) {
+    return UIO.exec(() -> value.add(delta));
+  }
+
+  public UIO<Long> sum() {
+    return UIO.task(value::sum);
+  }
+
+  public UIO<Long> sumThenReset() {
+    return UIO.task(value::sumThenReset);
+  }
+
+  public UIO<Unit> reset() {
+    return UIO.exec(value::reset);
+  }
+
+  public static UIO<Counter> make() {
+    return UIO.task(Counter::new);
+  }
+
+  @Override
+  public String toString() {
+    return String.format("Counter(%s)", value.sum());
+  }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2018-2024, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.purefun.effect;
+
+import static com.github.tonivade.purefun.core.Precondition.checkNonNull;
+
+import com.github.tonivade.purefun.concurrent.Completion;
+import com.github.tonivade.purefun.type.Option;
+
+/**
+ * <p>A value that is not available yet, and can be completed only once. Fibers that call {@code get} before
+ * the value is available are suspended until another fiber completes it, without blocking any thread.</p>
+ *
+ * <p>If a waiting fiber is cancelled, its callback is removed, so it is not retained until the value is available.</p>
+ *
+ * @param <A> type of the value
+ */
+public final class Deferred<A> {
+
+  private final Completion<A> value = new Completion<>();
+
+  private Deferred() { }
+
+  public UIO<A> get() {
+    return UIO.cancellable(callback -> {
+      Runnable cancel = value.onComplete(callback);
+      return UIO.exec(cancel::run);
+    });
+  }
+
+  public UIO<Option<A>> tryGet() {
+    return UIO.task(() -> Option.of(value.get()));
+  }
+
+  /**
+   * Completes the value and resumes all the waiting fibers
+   *
+   * @return false if the value was already completed
+   */
+  public UIO<Boolean> complete(A newValue) {
+    checkNonNull(newValue);
+    return UIO.task(() -> value.complete(newValue));
+  }
+
+  @Override
+  public String toString() {
+    return "Deferred(" + value.get() + ")";
+  }
+
+  int waiting() {
+    return value.waiting();
+  }
+
+  public static <A> UIO<Deferred<A>> make() {
+    return UIO.task(Deferred::of);
+  }
+
+  public static <A> Deferred<A> of() {
+    return new Deferred<>();
+  }
+}
@@ -38,6 +38,20 @@ public final class EIO<E, A> implements EIOOf<E, A>, Effect<EIO<E, ?>, A> {
 
   private static final EIO<?, Unit> UNIT = new EIO<>(PureIO.unit());
 
+  private static final FunctionK<?, ?> FROM_PURE_IO = new FunctionK<PureIO<Void, Object, ?>, EIO<Object, ?>>() {
+    @Override
+    public <T> EIO<Object, T> apply(Kind<PureIO<Void, Object, ?>, ? extends T> from) {
+      return new EIO<>(from.fix(PureIOOf::toPureIO));
+    }
+  };
+
+  private static final FunctionK<?, ?> TO_PURE_IO = new FunctionK<EIO<Object, ?>, PureIO<Void, Object, ?>>() {
+    @Override
+    public <T> PureIO<Void, Object, T> apply(Kind<EIO<Object, ?>, ? extends T> from) {
+      return EIOOf.<Object, T>toEIO(from).instance;
+    }
+  };
+
   private final PureIO<Void, E, A> instance;
 
   EIO(PureIO<Void, E, A> value) {
@@ -76,10 +90,7 @@ public final class EIO<E, A> implements EIOOf<E, A>, Effect<EIO<E, ?>, A> {
 
   @Override
   public <B> EIO<E, B> flatMap(Function1<? super A, ? extends Kind<EIO<E, ?>, ? extends B>> map) {
-    return new EIO<>(instance.flatMap(value -> {
-      EIO<E, ? extends B> apply = map.andThen(EIOOf::toEIO).apply(value);
-      return apply.instance;
-    }));
+    return new EIO<>(new PureIO.FlatMapped<>(instance, EIO::raiseError, map, EIO.<E>unwrap()));
   }
 
   @Override
@@ -101,10 +112,7 @@ public final class EIO<E, A> implements EIOOf<E, A>, Effect<EIO<E, ?>, A> {
   }
 
   public <F> EIO<F, A> flatMapError(Function1<? super E, ? extends Kind<EIO<F, ?>, ? extends A>> map) {
-    return new EIO<>(instance.flatMapError(error -> {
-      EIO<F, ? extends A> apply = map.andThen(EIOOf::toEIO).apply(error);
-      return apply.instance;
-    }));
+    return new EIO<>(new PureIO.FlatMapped<>(instance, map, EIO::pure, EIO.<F>unwrap()));
   }
 
   public <B, F> EIO<F, B> bimap(Function1<? super E, ? extends F> mapError, Function1<? super A, ? extends B> map) {
@@ -114,9 +122,7 @@ public final class EIO<E, A> implements EIOOf<E, A>, Effect<EIO<E, ?>, A> {
   public <B, F> EIO<F, B> foldM(
       Function1<? super E, ? extends Kind<EIO<F, ?>, ? extends B>> mapError,
       Function1<? super A, ? extends Kind<EIO<F, ?>, ? extends B>> map) {
-    return new EIO<>(instance.foldM(
-        error -> mapError.andThen(EIOOf::toEIO).apply(error).instance,
-        value -> map.andThen(EIOOf::toEIO).apply(value).instance));
+    return new EIO<>(new PureIO.FlatMapped<>(instance, mapError, map, EIO.<F>unwrap()));
   }
 
   public <B> UIO<B> fold(Function1<? super E, ? extends B> mapError, Function1<? super A, ? extends B> map) {
@@ -153,12 +159,7 @@ public final class EIO<E, A> implements EIOOf<E, A>, Effect<EIO<E, ?>, A> {
   }
 
   public EIO<E, Fiber<EIO<E, ?>, A>> fork() {
-    return new EIO<>(instance.fork().map(f -> f.mapK(new FunctionK<>() {
-      @Override
-      public <T> EIO<E, T> apply(Kind<PureIO<Void, E, ?>, ? extends T> from) {
-        return new EIO<>(from.fix(PureIOOf::toPureIO));
-      }
-    })));
+    return new EIO<>(instance.fork().map(f -> f.mapK(fromPureIO())));
   }
 
   @Override
@@ -250,17 +251,7 @@ public final class EIO<E, A> implements EIOOf<E, A>, Effect<EIO<E, ?>, A> {
     PureIO<Void, E, A> instance1 = fa.fix(EIOOf::toEIO).instance.fix(PureIOOf::toPureIO);
     PureIO<Void, E, B> instance2 = fb.fix(EIOOf::toEIO).instance.fix(PureIOOf::toPureIO);
     return new EIO<>(PureIO.racePair(executor, instance1, instance2).map(
-      either -> either.bimap(a -> a.map2(f -> f.mapK(new FunctionK<>() {
-        @Override
-        public <T> EIO<E, T> apply(Kind<PureIO<Void, E, ?>, ? extends T> from) {
-          return new EIO<>(from.fix(PureIOOf::toPureIO));
-        }
-      })), b -> b.map1(f -> f.mapK(new FunctionK<>() {
-        @Override
-        public <T> EIO<E, T> apply(Kind<PureIO<Void, E, ?>, ? extends T> from) {
-          return new EIO<>(from.fix(PureIOOf::toPureIO));
-        }
-      })))));
+      either -> either.bimap(a -> a.map2(f -> f.mapK(fromPureIO())), b -> b.map1(f -> f.mapK(fromPureIO())))));
   }
 
   public static <E, A> EIO<E, A> absorb(EIO<E, Either<E, A>> value) {
@@ -382,4 +373,14 @@ public final class EIO<E, A> implements EIOOf<E, A>, Effect<EIO<E, ?>, A> {
   public static <E> EIO<E, Unit> unit() {
     return (EIO<E, Unit>) UNIT;
   }
+
+  @SuppressWarnings("unchecked")
+  private static <E> FunctionK<EIO<E, ?>, PureIO<Void, E, ?>> unwrap() {
+    return (FunctionK<EIO<E, ?>, PureIO<Void, E, ?>>) TO_PURE_IO;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <E> FunctionK<PureIO<Void, E, ?>, EIO<E, ?>> fromPureIO() {
+    return (FunctionK<PureIO<Void, E, ?>, EIO<E, ?>>) FROM_PURE_IO;
+  }
 }
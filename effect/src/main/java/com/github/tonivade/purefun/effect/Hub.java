@@ -0,0 +1,474 @@
+/*
+ * Copyright (c) 2018-2024, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.purefun.effect;
+
+import static com.github.tonivade.purefun.core.Precondition.checkNonNull;
+import static com.github.tonivade.purefun.core.Precondition.checkPositive;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.github.tonivade.purefun.Nullable;
+import com.github.tonivade.purefun.core.Consumer1;
+import com.github.tonivade.purefun.core.Producer;
+import com.github.tonivade.purefun.data.ImmutableArray;
+import com.github.tonivade.purefun.data.Sequence;
+import com.github.tonivade.purefun.type.Option;
+import com.github.tonivade.purefun.type.Try;
+
+/**
+ * <p>Asynchronous hub to broadcast messages to many fibers. Every message published is received by all the
+ * subscribers that exist at that moment. When a subscriber has nothing to read, {@code take} suspends the fiber
+ * until a new message is published, without blocking any thread. What happens when the hub is full, because
+ * the slowest subscriber has not read the oldest message yet, depends on the strategy used to create it:</p>
+ * <ul>
+ *   <li>{@code bounded}: {@code publish} suspends the fiber until there is space in the hub (backpressure).</li>
+ *   <li>{@code dropping}: the new message is discarded and {@code publish} returns false.</li>
+ *   <li>{@code sliding}: the oldest message is discarded, the subscribers that have not read it yet lose it.</li>
+ * </ul>
+ *
+ * <p>The messages are written once in a ring buffer shared by all the subscribers, and every slot keeps the
+ * number of subscribers that have not read it yet, so publishing doesn't depend on the number of subscribers.
+ * Every subscriber has its own read cursor. If there are no subscribers, the messages are discarded.</p>
+ *
+ * <p>A waiting fiber that is cancelled doesn't lose any message: if a message was already on its way to the
+ * fiber, it's given back to the subscription, and the next {@code take} receives it.</p>
+ *
+ * @param <A> type of the messages
+ */
+public final class Hub<A> {
+
+  private enum Strategy { BACKPRESSURE, DROPPING, SLIDING }
+
+  private final Strategy strategy;
+  private final int capacity;
+
+  private final ReentrantLock lock = new ReentrantLock();
+
+  // all the state below is guarded by the lock
+  private final Object[] messages;
+  private final int[] remaining;
+  private long head;
+  private long tail;
+  private int subscribers;
+
+  private final Set<Subscription<A>> waiting = new LinkedHashSet<>();
+  private final ArrayDeque<Publisher> publishers = new ArrayDeque<>();
+
+  private Hub(int capacity, Strategy strategy) {
+    this.capacity = checkPositive(capacity);
+    this.strategy = checkNonNull(strategy);
+    this.messages = new Object[capacity];
+    this.remaining = new int[capacity];
+  }
+
+  public UIO<Boolean> publish(A value) {
+    checkNonNull(value);
+    return publishAll(ImmutableArray.of(value));
+  }
+
+  /**
+   * Publishes all the messages. In a bounded hub the fiber is suspended until all the messages are published.
+   *
+   * @return true if all the messages have been published, false if any of them has been dropped
+   */
+  public UIO<Boolean> publishAll(Sequence<? extends A> values) {
+    checkNonNull(values);
+    return UIO.cancellable(callback -> {
+      Publisher publisher = new Publisher(values.stream().map(value -> checkNonNull((Object) value)).toArray(), callback);
+      List<Runnable> resumed = new ArrayList<>();
+      boolean done;
+      lock.lock();
+      try {
+        // in a bounded hub the messages are published in order
+        done = publishers.isEmpty() && publish(publisher);
+        if (!done) {
+          publishers.offer(publisher);
+        }
+        resume(resumed);
+      } finally {
+        lock.unlock();
+      }
+      resumed.forEach(Runnable::run);
+      if (done) {
+        callback.accept(Try.success(!publisher.dropped));
+        return UIO.unit();
+      }
+      return UIO.exec(() -> cancel(publisher));
+    });
+  }
+
+  /**
+   * Subscribes to the hub. The subscriber receives the messages published after the subscription is
+   * acquired, and it's removed from the hub when the subscription is released.
+   */
+  public <R, E> Managed<R, E, Subscription<A>> subscribe() {
+    return Managed.from(UIO.task(this::newSubscription).<R, E>toPureIO(), Subscription::close);
+  }
+
+  public UIO<Integer> subscribers() {
+    return UIO.task(() -> locked(() -> subscribers));
+  }
+
+  public UIO<Integer> size() {
+    return UIO.task(() -> locked(() -> (int) (tail - head)));
+  }
+
+  public int capacity() {
+    return capacity;
+  }
+
+  @Override
+  public String toString() {
+    return "Hub(" + strategy + ", " + capacity + ")";
+  }
+
+  public static <A> UIO<Hub<A>> bounded(int capacity) {
+    return UIO.task(() -> new Hub<>(capacity, Strategy.BACKPRESSURE));
+  }
+
+  public static <A> UIO<Hub<A>> dropping(int capacity) {
+    return UIO.task(() -> new Hub<>(capacity, Strategy.DROPPING));
+  }
+
+  public static <A> UIO<Hub<A>> sliding(int capacity) {
+    return UIO.task(() -> new Hub<>(capacity, Strategy.SLIDING));
+  }
+
+  private Subscription<A> newSubscription() {
+    return locked(() -> {
+      subscribers++;
+      return new Subscription<>(this, tail);
+    });
+  }
+
+  private void cancel(Publisher publisher) {
+    locked(() -> publishers.remove(publisher));
+  }
+
+  private <T> T locked(Producer<T> action) {
+    lock.lock();
+    try {
+      return action.get();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /*
+   * the methods below must be called holding the lock, the callbacks of the fibers
+   * to resume are added to the list, and called after releasing the lock
+   */
+
+  private boolean publish(Publisher publisher) {
+    while (publisher.index < publisher.values.length) {
+      if (subscribers == 0) {
+        // nobody is going to read them
+        publisher.index = publisher.values.length;
+      } else if (tail - head < capacity) {
+        int index = (int) (tail % capacity);
+        messages[index] = publisher.values[publisher.index++];
+        remaining[index] = subscribers;
+        tail++;
+      } else if (strategy == Strategy.SLIDING) {
+        release(head++);
+      } else if (strategy == Strategy.DROPPING) {
+        publisher.dropped = true;
+        publisher.index = publisher.values.length;
+      } else {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Nullable
+  @SuppressWarnings("unchecked")
+  private A next(Subscription<A> subscription) {
+    A returned = subscription.returned.poll();
+    if (returned != null) {
+      return returned;
+    }
+    // the messages between the cursor and the head have been discarded by a sliding hub
+    long position = Math.max(subscription.cursor, head);
+    if (position == tail) {
+      subscription.cursor = position;
+      return null;
+    }
+    int index = (int) (position % capacity);
+    A value = (A) messages[index];
+    subscription.cursor = position + 1;
+    remaining[index]--;
+    advance();
+    return value;
+  }
+
+  private void unsubscribe(Subscription<A> subscription, List<Runnable> resumed) {
+    subscribers--;
+    for (long position = Math.max(subscription.cursor, head); position < tail; position++) {
+      remaining[(int) (position % capacity)]--;
+    }
+    advance();
+    waiting.remove(subscription);
+    subscription.returned.clear();
+    for (var taker = subscription.takers.poll(); taker != null; taker = subscription.takers.poll()) {
+      Taker<A> current = taker;
+      resumed.add(() -> current.fail(new IllegalStateException("subscription closed")));
+    }
+    resume(resumed);
+  }
+
+  private void advance() {
+    while (head < tail && remaining[(int) (head % capacity)] == 0) {
+      release(head++);
+    }
+  }
+
+  private void release(long position) {
+    int index = (int) (position % capacity);
+    messages[index] = null;
+    remaining[index] = 0;
+  }
+
+  /*
+   * publishing messages can resume subscribers, and reading messages can resume publishers,
+   * so both sides are resumed until neither of them makes progress
+   */
+  private void resume(List<Runnable> resumed) {
+    boolean progress = true;
+    while (progress) {
+      boolean published = resumePublishers(resumed);
+      boolean released = resumeSubscribers(resumed);
+      progress = published || released;
+    }
+  }
+
+  /**
+   * @return true if any message has been published
+   */
+  private boolean resumePublishers(List<Runnable> resumed) {
+    boolean published = false;
+    while (!publishers.isEmpty()) {
+      Publisher publisher = publishers.peek();
+      long before = tail;
+      boolean done = publish(publisher);
+      published |= tail > before;
+      if (!done) {
+        break;
+      }
+      publishers.poll();
+      resumed.add(() -> publisher.callback.accept(Try.success(!publisher.dropped)));
+    }
+    return published;
+  }
+
+  /**
+   * @return true if any slot has been released
+   */
+  private boolean resumeSubscribers(List<Runnable> resumed) {
+    boolean released = false;
+    Iterator<Subscription<A>> iterator = waiting.iterator();
+    while (iterator.hasNext()) {
+      Subscription<A> subscription = iterator.next();
+      while (!subscription.takers.isEmpty()) {
+        Taker<A> taker = subscription.takers.peek();
+        if (taker.done.get()) {
+          // cancelled
+          subscription.takers.poll();
+          continue;
+        }
+        long before = head;
+        A value = next(subscription);
+        if (value == null) {
+          break;
+        }
+        released |= head > before;
+        subscription.takers.poll();
+        resumed.add(() -> subscription.deliver(taker, value));
+      }
+      if (subscription.takers.isEmpty()) {
+        iterator.remove();
+      }
+    }
+    return released;
+  }
+
+  /**
+   * A subscriber of the hub, it keeps its own read cursor. It should be used only inside the
+   * {@code Managed} returned by {@code subscribe}, after that any attempt to take a message fails.
+   *
+   * @param <A> type of the messages
+   */
+  public static final class Subscription<A> {
+
+    private final Hub<A> hub;
+
+    // guarded by the hub lock
+    private long cursor;
+    private boolean closed;
+    private final ArrayDeque<Taker<A>> takers = new ArrayDeque<>();
+    // messages already read by a taker that was cancelled before receiving them
+    private final ArrayDeque<A> returned = new ArrayDeque<>();
+
+    private Subscription(Hub<A> hub, long cursor) {
+      this.hub = checkNonNull(hub);
+      this.cursor = cursor;
+    }
+
+    public UIO<A> take() {
+      return UIO.cancellable(callback -> {
+        List<Runnable> resumed = new ArrayList<>();
+        A value = null;
+        Taker<A> taker = new Taker<>(callback);
+        boolean closed;
+        hub.lock.lock();
+        try {
+          closed = this.closed;
+          if (!closed) {
+            value = hub.next(this);
+            if (value == null) {
+              takers.offer(taker);
+              hub.waiting.add(this);
+            } else {
+              hub.resume(resumed);
+            }
+          }
+        } finally {
+          hub.lock.unlock();
+        }
+        resumed.forEach(Runnable::run);
+        if (closed) {
+          callback.accept(Try.failure(new IllegalStateException("subscription closed")));
+          return UIO.unit();
+        }
+        if (value != null) {
+          callback.accept(Try.success(value));
+          return UIO.unit();
+        }
+        return UIO.exec(() -> cancel(taker));
+      });
+    }
+
+    /**
+     * Takes at most {@code max} messages that are already published, it never suspends the fiber.
+     */
+    public UIO<Sequence<A>> takeUpTo(int max) {
+      checkPositive(max);
+      return UIO.task(() -> ImmutableArray.from(read(max)));
+    }
+
+    public UIO<Option<A>> poll() {
+      return UIO.task(() -> {
+        List<A> result = read(1);
+        return result.isEmpty() ? Option.none() : Option.some(result.get(0));
+      });
+    }
+
+    public UIO<Integer> size() {
+      return UIO.task(() -> hub.locked(
+          () -> closed ? 0 : returned.size() + (int) (hub.tail - Math.max(cursor, hub.head))));
+    }
+
+    private List<A> read(int max) {
+      List<A> result = new ArrayList<>();
+      List<Runnable> resumed = new ArrayList<>();
+      hub.lock.lock();
+      try {
+        while (!closed && result.size() < max) {
+          A value = hub.next(this);
+          if (value == null) {
+            break;
+          }
+          result.add(value);
+        }
+        hub.resume(resumed);
+      } finally {
+        hub.lock.unlock();
+      }
+      resumed.forEach(Runnable::run);
+      return result;
+    }
+
+    private void cancel(Taker<A> taker) {
+      if (taker.done.compareAndSet(false, true)) {
+        hub.locked(() -> takers.remove(taker));
+      }
+    }
+
+    // called without holding the lock
+    private void deliver(Taker<A> taker, A value) {
+      if (taker.done.compareAndSet(false, true)) {
+        taker.callback.accept(Try.success(value));
+        return;
+      }
+      // cancelled meanwhile, the message is given back for the next taker
+      List<Runnable> resumed = new ArrayList<>();
+      hub.lock.lock();
+      try {
+        if (!closed) {
+          returned.offer(value);
+          if (!takers.isEmpty()) {
+            hub.waiting.add(this);
+            hub.resume(resumed);
+          }
+        }
+      } finally {
+        hub.lock.unlock();
+      }
+      resumed.forEach(Runnable::run);
+    }
+
+    private void close() {
+      List<Runnable> resumed = new ArrayList<>();
+      hub.lock.lock();
+      try {
+        if (!closed) {
+          closed = true;
+          hub.unsubscribe(this, resumed);
+        }
+      } finally {
+        hub.lock.unlock();
+      }
+      resumed.forEach(Runnable::run);
+    }
+  }
+
+  private static final class Taker<A> {
+
+    private final Consumer1<? super Try<? extends A>> callback;
+    private final AtomicBoolean done = new AtomicBoolean();
+
+    private Taker(Consumer1<? super Try<? extends A>> callback) {
+      this.callback = callback;
+    }
+
+    private void fail(Throwable error) {
+      if (done.compareAndSet(false, true)) {
+        callback.accept(Try.failure(error));
+      }
+    }
+  }
+
+  private static final class Publisher {
+
+    private final Object[] values;
+    private final Consumer1<? super Try<? extends Boolean>> callback;
+
+    // guarded by the hub lock
+    private int index;
+    private boolean dropped;
+
+    private Publisher(Object[] values, Consumer1<? super Try<? extends Boolean>> callback) {
+      this.values = values;
+      this.callback = callback;
+    }
+  }
+}
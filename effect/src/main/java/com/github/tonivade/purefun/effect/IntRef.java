@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2018-2024, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.purefun.effect;
+
+import static com.github.tonivade.purefun.core.Precondition.checkNonNull;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntUnaryOperator;
+
+import com.github.tonivade.purefun.concurrent.Backoff;
+import com.github.tonivade.purefun.core.Unit;
+
+/**
+ * A {@link Ref} specialized for {@code int} values, the value is kept in an {@link AtomicInteger} without boxing it.
+ */
+public final class IntRef {
+
+  private final AtomicInteger value;
+
+  private IntRef(int value) {
+    this.value = new AtomicInteger(value);
+  }
+
+  public UIO<Integer> get() {
+    return UIO.task(value::get);
+  }
+
+  public UIO<Unit> set(int newValue) {
+    return UIO.exec(() -> value.set(newValue));
+  }
+
+  public UIO<Unit> lazySet(int newValue) {
+    return UIO.exec(() -> value.lazySet(newValue));
+  }
+
+  public UIO<Integer> getAndSet(int newValue) {
+    return UIO.task(() -> value.getAndSet(newValue));
+  }
+
+  public UIO<Integer> incrementAndGet() {
+    return UIO.task(value::incrementAndGet);
+  }
+
+  public UIO<Integer> decrementAndGet() {
+    return UIO.task(value::decrementAndGet);
+  }
+
+  public UIO<Integer> addAndGet(int delta) {
+    return UIO.task(() -> value.addAndGet(delta));
+  }
+
+  public UIO<Integer> getAndAdd(int delta) {
+    return UIO.task(() -> value.getAndAdd(delta));
+  }
+
+  public UIO<Unit> update(IntUnaryOperator update) {
+    checkNonNull(update);
+    return UIO.exec(() -> Backoff.update(value, update, false));
+  }
+
+  public UIO<Integer> updateAndGet(IntUnaryOperator update) {
+    checkNonNull(update);
+    return UIO.task(() -> Backoff.update(value, update, false));
+  }
+
+  public UIO<Integer> getAndUpdate(IntUnaryOperator update) {
+    checkNonNull(update);
+    return UIO.task(() -> Backoff.update(value, update, true));
+  }
+
+  public static UIO<IntRef> make(int value) {
+    return UIO.pure(of(value));
+  }
+
+  public static IntRef of(int value) {
+    return new IntRef(value);
+  }
+
+  @Override
+  public String toString() {
+    return String.format("IntRef(%s)", value.get());
+  }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2018-2024, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.purefun.effect;
+
+import static com.github.tonivade.purefun.core.Precondition.checkNonNull;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongUnaryOperator;
+
+import com.github.tonivade.purefun.concurrent.Backoff;
+import com.github.tonivade.purefun.core.Unit;
+
+/**
+ * A {@link Ref} specialized for {@code long} values, the value is kept in an {@link AtomicLong} without boxing it.
+ */
+public final class LongRef {
+
+  private final AtomicLong value;
+
+  private LongRef(long value) {
+    this.value = new AtomicLong(value);
+  }
+
+  public UIO<Long> get() {
+    return UIO.task(value::get);
+  }
+
+  public UIO<Unit> set(long newValue) {
+    return UIO.exec(() -> value.set(newValue));
+  }
+
+  public UIO<Unit> lazySet(long newValue) {
+    return UIO.exec(() -> value.lazySet(newValue));
+  }
+
+  public UIO<Long> getAndSet(long newValue) {
+    return UIO.task(() -> value.getAndSet(newValue));
+  }
+
+  public UIO<Long> incrementAndGet() {
+    return UIO.task(value::incrementAndGet);
+  }
+
+  public UIO<Long> decrementAndGet() {
+    return UIO.task(value::decrementAndGet);
+  }
+
+  public UIO<Long> addAndGet(long delta) {
+    return UIO.task(() -> value.addAndGet(delta));
+  }
+
+  public UIO<Long> getAndAdd(long delta) {
+    return UIO.task(() -> value.getAndAdd(delta));
+  }
+
+  public UIO<Unit> update(LongUnaryOperator update) {
+    checkNonNull(update);
+    return UIO.exec(() -> Backoff.update(value, update, false));
+  }
+
+  public UIO<Long> updateAndGet(LongUnaryOperator update) {
+    checkNonNull(update);
+    return UIO.task(() -> Backoff.update(value, update, false));
+  }
+
+  public UIO<Long> getAndUpdate(LongUnaryOperator update) {
+    checkNonNull(update);
+    return UIO.task(() -> Backoff.update(value, update, true));
+  }
+
+  public static UIO<LongRef> make(long value) {
+    return UIO.pure(of(value));
+  }
+
+  public static LongRef of(long value) {
+    return new LongRef(value);
+  }
+
+  @Override
+  public String toString() {
+    return String.format("LongRef(%s)", value.get());
+  }
+}
@@ -14,6 +14,7 @@ import com.github.tonivade.purefun.HigherKind;
 import com.github.tonivade.purefun.Kind;
 import com.github.tonivade.purefun.core.Consumer1;
 import com.github.tonivade.purefun.core.Function1;
+import com.github.tonivade.purefun.core.Matcher1;
 import com.github.tonivade.purefun.core.Tuple;
 import com.github.tonivade.purefun.core.Tuple2;
 import com.github.tonivade.purefun.type.Either;
@@ -126,6 +127,19 @@ public final class Managed<R, E, A> implements ManagedOf<R, E, A> {
         tt -> Tuple.of(Tuple.of(tt.get1(), tt.get2().get1()), t -> tt.get2().get2().accept(t.get2()))));
   }
 
+  /**
+   * Creates a pool of items created by the factory. The pool is released with the returned {@code Managed},
+   * and every item is checked out with {@code Pool.get}.
+   */
+  public static <R, E, A> Managed<R, E, Pool<R, E, A>> pool(Managed<R, E, A> factory, int min, int max, Duration idleTimeout) {
+    return pool(factory, min, max, idleTimeout, Matcher1.always());
+  }
+
+  public static <R, E, A> Managed<R, E, Pool<R, E, A>> pool(
+      Managed<R, E, A> factory, int min, int max, Duration idleTimeout, Matcher1<? super A> validate) {
+    return from(Pool.make(factory, min, max, idleTimeout, validate), Pool::close);
+  }
+
   public static <R, E, A> Managed<R, E, A> pure(A resource) {
     return pure(PureIO.pure(resource));
   }
@@ -159,6 +173,10 @@ public final class Managed<R, E, A> implements ManagedOf<R, E, A> {
     return new Managed<>(PureIO.accessM(mapper).map(y -> Tuple.of(y, release)));
   }
 
+  PureIO<R, E, Tuple2<A, Consumer1<? super A>>> resource() {
+    return resource;
+  }
+
   private static <X, T, R> Consumer1<X> releaseAndThen(
       Tuple2<T, Consumer1<? super T>> outter, Tuple2<R, Consumer1<? super R>> inner) {
     return ignore -> {
@@ -0,0 +1,423 @@
+/*
+ * Copyright (c) 2018-2024, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.purefun.effect;
+
+import static com.github.tonivade.purefun.core.Precondition.check;
+import static com.github.tonivade.purefun.core.Precondition.checkNonNull;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.github.tonivade.purefun.Nullable;
+import com.github.tonivade.purefun.concurrent.ExecutionContext;
+import com.github.tonivade.purefun.core.Consumer1;
+import com.github.tonivade.purefun.core.Matcher1;
+import com.github.tonivade.purefun.core.Unit;
+import com.github.tonivade.purefun.type.Option;
+import com.github.tonivade.purefun.type.Try;
+
+/**
+ * <p>A pool of resources created by a {@link Managed}, it's created by {@code Managed.pool}. Every time the
+ * {@code Managed} returned by {@code get} is used, an item is checked out from the pool, and it's returned to
+ * the pool when it's released, instead of being released. If there are no idle items and the pool is full, the
+ * fiber is suspended until another one returns an item, without blocking any thread.</p>
+ *
+ * <p>The pool keeps at least {@code min} items, they are created when the pool is acquired. The items that have
+ * been idle longer than the idle timeout are released in background, and all the items are released when the
+ * pool itself is released. An item that doesn't pass the validation on checkout is released, and a new one is
+ * created instead.</p>
+ *
+ * <p>The idle items and the suspended fibers are kept in lock free queues. The most recently returned item is
+ * the first one to be checked out, so the items that are not needed become idle and are evicted.</p>
+ *
+ * @param <R> type of the environment
+ * @param <E> type of the error
+ * @param <A> type of the items
+ */
+public final class Pool<R, E, A> {
+
+  private final Managed<R, E, A> factory;
+  private final int min;
+  private final int max;
+  private final Duration idleTimeout;
+  private final Matcher1<? super A> validate;
+
+  // number of items created or being created, idle or in use
+  private final AtomicInteger size = new AtomicInteger();
+  private final AtomicInteger inUse = new AtomicInteger();
+  // number of waiters not resumed nor cancelled yet
+  private final AtomicInteger waiting = new AtomicInteger();
+  private final AtomicBoolean closed = new AtomicBoolean();
+
+  private final ConcurrentLinkedDeque<Item<A>> idle = new ConcurrentLinkedDeque<>();
+  private final ConcurrentLinkedQueue<Waiter<A>> waiters = new ConcurrentLinkedQueue<>();
+
+  private final LongAdder checkouts = new LongAdder();
+  private final LongAdder waitTime = new LongAdder();
+
+  private volatile Runnable cancelEviction = () -> {};
+
+  private Pool(Managed<R, E, A> factory, int min, int max, Duration idleTimeout, Matcher1<? super A> validate) {
+    check(() -> min >= 0, "min should not be negative");
+    check(() -> max > 0 && max >= min, "max should be positive and greater or equal than min");
+    check(() -> !idleTimeout.isNegative() && !idleTimeout.isZero(), "idle timeout should be positive");
+    this.factory = checkNonNull(factory);
+    this.min = min;
+    this.max = max;
+    this.idleTimeout = idleTimeout;
+    this.validate = checkNonNull(validate);
+  }
+
+  /**
+   * Checks out an item from the pool, it's returned to the pool when the {@code Managed} is released.
+   * If the pool has been released, it fails with {@code IllegalStateException}.
+   */
+  public Managed<R, E, A> get() {
+    return Managed.<R, E, Item<A>>from(checkout(), this::checkin).map(Item::value);
+  }
+
+  public UIO<Stats> stats() {
+    return UIO.task(() -> new Stats(size.get(), idle.size(), inUse.get(), waiting.get(), max,
+        checkouts.sum(), Duration.ofNanos(waitTime.sum())));
+  }
+
+  public int min() {
+    return min;
+  }
+
+  public int max() {
+    return max;
+  }
+
+  @Override
+  public String toString() {
+    return "Pool(" + min + ", " + max + ", " + idleTimeout + ")";
+  }
+
+  static <R, E, A> PureIO<R, E, Pool<R, E, A>> make(
+      Managed<R, E, A> factory, int min, int max, Duration idleTimeout, Matcher1<? super A> validate) {
+    return UIO.task(() -> new Pool<>(factory, min, max, idleTimeout, validate)).<R, E>toPureIO()
+        .flatMap(pool -> PureIO.bracket(PureIO.<R, E, AtomicBoolean>pure(new AtomicBoolean()),
+            filled -> pool.fill(min).map(ignore -> {
+              filled.set(true);
+              pool.schedule();
+              return pool;
+            }),
+            // if any item fails, the items already created are released
+            filled -> {
+              if (!filled.get()) {
+                pool.close();
+              }
+            }));
+  }
+
+  void close() {
+    if (closed.compareAndSet(false, true)) {
+      cancelEviction.run();
+      for (var waiter = waiters.poll(); waiter != null; waiter = waiters.poll()) {
+        waiter.resume(Try.failure(new IllegalStateException("pool closed")));
+      }
+      drain();
+    }
+  }
+
+  private PureIO<R, E, Unit> fill(int count) {
+    if (count == 0) {
+      return PureIO.unit();
+    }
+    return PureIO.<R, E>run(size::incrementAndGet)
+        .flatMap(ignore -> create())
+        .flatMap(item -> {
+          release(Option.some(item));
+          return fill(count - 1);
+        });
+  }
+
+  private PureIO<R, E, Item<A>> checkout() {
+    return UIO.task(System::nanoTime).<R, E>toPureIO()
+        .flatMap(start -> acquire().<R, E>toPureIO().flatMap(slot -> {
+          checkouts.increment();
+          waitTime.add(System.nanoTime() - start);
+          return slot.fold(this::create, this::validate);
+        }))
+        .map(item -> {
+          inUse.incrementAndGet();
+          return item;
+        });
+  }
+
+  /*
+   * returns an idle item, or none if a new item can be created
+   */
+  private UIO<Option<Item<A>>> acquire() {
+    return UIO.cancellable(callback -> {
+      if (closed.get()) {
+        callback.accept(Try.failure(new IllegalStateException("pool closed")));
+        return UIO.unit();
+      }
+      var slot = poll();
+      if (slot != null) {
+        callback.accept(Try.success(slot));
+        return UIO.unit();
+      }
+      Waiter<A> waiter = new Waiter<>(callback, waiting);
+      waiters.offer(waiter);
+      // the pool may have been closed before the waiter was registered
+      if (closed.get() && waiter.claim()) {
+        waiters.remove(waiter);
+        callback.accept(Try.failure(new IllegalStateException("pool closed")));
+        return UIO.unit();
+      }
+      recheck();
+      return UIO.exec(() -> {
+        if (waiter.claim()) {
+          waiters.remove(waiter);
+        }
+      });
+    });
+  }
+
+  private PureIO<R, E, Item<A>> validate(Item<A> item) {
+    if (Try.of(() -> validate.match(item.value())).getOrElse(false)) {
+      return PureIO.pure(item);
+    }
+    // the new item takes the place of the invalid one, even if it cannot be released
+    return PureIO.<R, E>run(() -> Try.of(() -> {
+      item.destroy();
+      return Unit.unit();
+    })).flatMap(ignore -> create());
+  }
+
+  private PureIO<R, E, Item<A>> create() {
+    AtomicBoolean created = new AtomicBoolean();
+    return PureIO.bracket(PureIO.<R, E, AtomicBoolean>pure(created),
+        flag -> factory.resource().map(tuple -> {
+          flag.set(true);
+          return new Item<>(tuple.get1(), tuple.get2());
+        }),
+        flag -> {
+          if (!flag.get()) {
+            release(Option.none());
+          }
+        });
+  }
+
+  private void checkin(Item<A> item) {
+    inUse.decrementAndGet();
+    if (closed.get()) {
+      item.destroy();
+      size.decrementAndGet();
+    } else {
+      item.touch();
+      release(Option.some(item));
+    }
+  }
+
+  @Nullable
+  private Option<Item<A>> poll() {
+    Item<A> item = idle.pollFirst();
+    if (item != null) {
+      return Option.some(item);
+    }
+    if (reserve()) {
+      return Option.none();
+    }
+    return null;
+  }
+
+  /*
+   * an item, or room for a new one, may have become available before a waiter was registered
+   */
+  private void recheck() {
+    var slot = poll();
+    if (slot != null) {
+      release(slot);
+    }
+  }
+
+  private boolean reserve() {
+    for (int current = size.get(); current < max; current = size.get()) {
+      if (size.compareAndSet(current, current + 1)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /*
+   * gives the item, or the permission to create a new one, to the first waiter that can be claimed, a cancelled
+   * waiter never receives it. If there are no waiters, the item is returned to the pool. A waiter may have been
+   * registered meanwhile, so it has to check again.
+   */
+  private void release(Option<Item<A>> slot) {
+    Option<Item<A>> current = slot;
+    while (!resumeWaiter(current)) {
+      if (current.isPresent()) {
+        idle.offerFirst(current.getOrElseThrow());
+      } else {
+        size.decrementAndGet();
+      }
+      var next = waiters.isEmpty() ? null : poll();
+      if (next == null) {
+        break;
+      }
+      current = next;
+    }
+    if (closed.get()) {
+      drain();
+    }
+  }
+
+  private boolean resumeWaiter(Option<Item<A>> slot) {
+    for (var waiter = waiters.poll(); waiter != null; waiter = waiters.poll()) {
+      if (waiter.resume(Try.success(slot))) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /*
+   * the pool never shrinks below min items
+   */
+  private boolean shrink() {
+    for (int current = size.get(); current > min; current = size.get()) {
+      if (size.compareAndSet(current, current - 1)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private void drain() {
+    for (var item = idle.pollFirst(); item != null; item = idle.pollFirst()) {
+      try {
+        item.destroy();
+      } finally {
+        size.decrementAndGet();
+      }
+    }
+  }
+
+  private void schedule() {
+    if (!closed.get()) {
+      ExecutionContext context = ExecutionContext.current();
+      cancelEviction = context.scheduler().schedule(idleTimeout, () -> context.blocking().execute(this::evict));
+    }
+  }
+
+  private void evict() {
+    try {
+      long now = System.nanoTime();
+      for (Item<A> item : idle) {
+        if (closed.get() || size.get() <= min) {
+          break;
+        }
+        if (now - item.lastUsed >= idleTimeout.toNanos() && idle.remove(item)) {
+          if (!shrink()) {
+            // other items were released meanwhile
+            release(Option.some(item));
+            break;
+          }
+          try {
+            item.destroy();
+          } finally {
+            if (!waiters.isEmpty()) {
+              recheck();
+            }
+          }
+        }
+      }
+    } finally {
+      schedule();
+    }
+  }
+
+  /**
+   * Statistics of the pool.
+   *
+   * @param size number of items in the pool, idle or in use
+   * @param idle number of idle items
+   * @param inUse number of items checked out
+   * @param waiting number of fibers waiting for an item
+   * @param max max number of items
+   * @param checkouts number of items checked out since the pool was created
+   * @param waitTime total time waited by the fibers to check out an item
+   */
+  public record Stats(int size, int idle, int inUse, int waiting, int max, long checkouts, Duration waitTime) {
+
+    public Duration averageWait() {
+      return checkouts == 0 ? Duration.ZERO : waitTime.dividedBy(checkouts);
+    }
+
+    /**
+     * Ratio of items in use, between 0 and 1.
+     */
+    public double utilization() {
+      return (double) inUse / max;
+    }
+  }
+
+  private static final class Item<A> {
+
+    private final A value;
+    private final Consumer1<? super A> release;
+
+    private volatile long lastUsed = System.nanoTime();
+
+    private Item(A value, Consumer1<? super A> release) {
+      this.value = checkNonNull(value);
+      this.release = checkNonNull(release);
+    }
+
+    private A value() {
+      return value;
+    }
+
+    private void touch() {
+      lastUsed = System.nanoTime();
+    }
+
+    private void destroy() {
+      release.accept(value);
+    }
+  }
+
+  private static final class Waiter<A> {
+
+    private final Consumer1<? super Try<? extends Option<Item<A>>>> callback;
+    private final AtomicInteger waiting;
+    private final AtomicBoolean done = new AtomicBoolean();
+
+    private Waiter(Consumer1<? super Try<? extends Option<Item<A>>>> callback, AtomicInteger waiting) {
+      this.callback = callback;
+      this.waiting = waiting;
+      waiting.incrementAndGet();
+    }
+
+    private boolean resume(Try<? extends Option<Item<A>>> result) {
+      if (claim()) {
+        callback.accept(result);
+        return true;
+      }
+      return false;
+    }
+
+    /*
+     * only one of resume or cancel can claim the waiter
+     */
+    private boolean claim() {
+      if (done.compareAndSet(false, true)) {
+        waiting.decrementAndGet();
+        return true;
+      }
+      return false;
+    }
+  }
+}
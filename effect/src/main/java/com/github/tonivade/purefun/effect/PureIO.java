@@ -12,8 +12,7 @@ import static com.github.tonivade.purefun.core.Precondition.checkNonNull;
 import static com.github.tonivade.purefun.core.Producer.cons;
 
 import java.time.Duration;
-import java.util.ArrayDeque;
-import java.util.Deque;
+import java.util.NoSuchElementException;
 import java.util.concurrent.Executor;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicReference;
@@ -21,7 +20,10 @@ import java.util.concurrent.atomic.AtomicReference;
 import com.github.tonivade.purefun.HigherKind;
 import com.github.tonivade.purefun.Kind;
 import com.github.tonivade.purefun.Nullable;
+import com.github.tonivade.purefun.concurrent.BracketRelease;
+import com.github.tonivade.purefun.concurrent.CallStack;
 import com.github.tonivade.purefun.concurrent.Future;
+import com.github.tonivade.purefun.concurrent.Gather;
 import com.github.tonivade.purefun.concurrent.Promise;
 import com.github.tonivade.purefun.core.CheckedRunnable;
 import com.github.tonivade.purefun.core.Consumer1;
@@ -29,13 +31,16 @@ import com.github.tonivade.purefun.core.Consumer2;
 import com.github.tonivade.purefun.core.Effect;
 import com.github.tonivade.purefun.core.Function1;
 import com.github.tonivade.purefun.core.Function2;
+import com.github.tonivade.purefun.core.Function3;
+import com.github.tonivade.purefun.core.Function4;
+import com.github.tonivade.purefun.core.Function5;
 import com.github.tonivade.purefun.core.Operator1;
 import com.github.tonivade.purefun.core.PartialFunction1;
 import com.github.tonivade.purefun.core.Producer;
-import com.github.tonivade.purefun.core.Recoverable;
 import com.github.tonivade.purefun.core.Tuple;
 import com.github.tonivade.purefun.core.Tuple2;
 import com.github.tonivade.purefun.core.Unit;
+import com.github.tonivade.purefun.data.ImmutableArray;
 import com.github.tonivade.purefun.data.ImmutableList;
 import com.github.tonivade.purefun.data.Sequence;
 import com.github.tonivade.purefun.type.Either;
@@ -43,12 +48,13 @@ import com.github.tonivade.purefun.type.EitherOf;
 import com.github.tonivade.purefun.type.Option;
 import com.github.tonivade.purefun.type.Try;
 import com.github.tonivade.purefun.typeclasses.Fiber;
+import com.github.tonivade.purefun.typeclasses.FunctionK;
 
 @HigherKind
 public sealed interface PureIO<R, E, A> extends PureIOOf<R, E, A>, Effect<PureIO<R, E, ?>, A> {
 
   default Either<E, A> provide(@Nullable R env) {
-    return runAsync(env).getOrElseThrow();
+    return runSync(env, this).getOrElseThrow();
   }
 
   default Future<Either<E, A>> runAsync(@Nullable R env) {
@@ -56,7 +62,7 @@ public sealed interface PureIO<R, E, A> extends PureIOOf<R, E, A>, Effect<PureIO
   }
 
   default Future<Either<E, A>> runAsync(@Nullable R env, Executor executor) {
-    return PureIO.<R, E>forked(executor).andThen(this).runAsync(env);
+    return Future.from(runAsync(env, PureIO.<R, E>forked(executor).andThen(this), PureIOConnection.UNCANCELLABLE, executor));
   }
 
   default void provideAsync(@Nullable R env, Consumer1<? super Try<? extends Either<E, A>>> callback) {
@@ -96,7 +102,7 @@ public sealed interface PureIO<R, E, A> extends PureIOOf<R, E, A>, Effect<PureIO
   default <F, B> PureIO<R, F, B> foldM(
       Function1<? super E, ? extends Kind<PureIO<R, F, ?>, ? extends B>> left,
       Function1<? super A, ? extends Kind<PureIO<R, F, ?>, ? extends B>> right) {
-    return new FlatMapped<>(this, left, right);
+    return new FlatMapped<>(this, left, right, FunctionK.identity());
   }
 
   @Override
@@ -255,6 +261,15 @@ public sealed interface PureIO<R, E, A> extends PureIOOf<R, E, A>, Effect<PureIO
     return access(identity());
   }
 
+  /**
+   * Reschedules the rest of the program in the default executor, giving other fibers the opportunity
+   * to run. If the system property {@code purefun.cede.threshold} is greater than 0, the run loop does
+   * the same automatically after that number of steps, in the executor where the program was started.
+   */
+  static <R, E> PureIO<R, E, Unit> cede() {
+    return forked(Future.DEFAULT_EXECUTOR);
+  }
+
   static <R, E> PureIO<R, E, Unit> forked(Executor executor) {
     return async((env, callback) -> executor.execute(() -> callback.accept(Try.success(Either.right(Unit.unit())))));
   }
@@ -271,8 +286,8 @@ public sealed interface PureIO<R, E, A> extends PureIOOf<R, E, A>, Effect<PureIO
       PureIOConnection connection1 = PureIOConnection.cancellable();
       PureIOConnection connection2 = PureIOConnection.cancellable();
 
-      Promise<Either<E, A>> promiseA = runAsync(env, PureIO.<R, E>forked(executor).andThen(za), connection1);
-      Promise<Either<E, B>> promiseB = runAsync(env, PureIO.<R, E>forked(executor).andThen(zb), connection2);
+      Promise<Either<E, A>> promiseA = runAsync(env, PureIO.<R, E>forked(executor).andThen(za), connection1, executor);
+      Promise<Either<E, B>> promiseB = runAsync(env, PureIO.<R, E>forked(executor).andThen(zb), connection2, executor);
 
       promiseA.onComplete(a -> promiseB.onComplete(
         b -> callback.accept(Try.map2(a, b, (e1, e2) -> EitherOf.toEither(Either.map2(e1, e2, mapper))))));
@@ -287,6 +302,74 @@ public sealed interface PureIO<R, E, A> extends PureIOOf<R, E, A>, Effect<PureIO
     });
   }
 
+  static <R, E, A, B, C, D> PureIO<R, E, D> parMap3(Kind<PureIO<R, E, ?>, ? extends A> za, Kind<PureIO<R, E, ?>, ? extends B> zb,
+      Kind<PureIO<R, E, ?>, ? extends C> zc, Function3<? super A, ? super B, ? super C, ? extends D> mapper) {
+    return parMap3(Future.DEFAULT_EXECUTOR, za, zb, zc, mapper);
+  }
+
+  @SuppressWarnings("unchecked")
+  static <R, E, A, B, C, D> PureIO<R, E, D> parMap3(Executor executor, Kind<PureIO<R, E, ?>, ? extends A> za, Kind<PureIO<R, E, ?>, ? extends B> zb,
+      Kind<PureIO<R, E, ?>, ? extends C> zc, Function3<? super A, ? super B, ? super C, ? extends D> mapper) {
+    checkNonNull(mapper);
+    return PureIO.<R, E>parAll(executor, za, zb, zc).map(
+        values -> mapper.apply((A) values.get(0), (B) values.get(1), (C) values.get(2)));
+  }
+
+  static <R, E, A, B, C, D, F> PureIO<R, E, F> parMap4(Kind<PureIO<R, E, ?>, ? extends A> za, Kind<PureIO<R, E, ?>, ? extends B> zb,
+      Kind<PureIO<R, E, ?>, ? extends C> zc, Kind<PureIO<R, E, ?>, ? extends D> zd,
+      Function4<? super A, ? super B, ? super C, ? super D, ? extends F> mapper) {
+    return parMap4(Future.DEFAULT_EXECUTOR, za, zb, zc, zd, mapper);
+  }
+
+  @SuppressWarnings("unchecked")
+  static <R, E, A, B, C, D, F> PureIO<R, E, F> parMap4(Executor executor, Kind<PureIO<R, E, ?>, ? extends A> za, Kind<PureIO<R, E, ?>, ? extends B> zb,
+      Kind<PureIO<R, E, ?>, ? extends C> zc, Kind<PureIO<R, E, ?>, ? extends D> zd,
+      Function4<? super A, ? super B, ? super C, ? super D, ? extends F> mapper) {
+    checkNonNull(mapper);
+    return PureIO.<R, E>parAll(executor, za, zb, zc, zd).map(
+        values -> mapper.apply((A) values.get(0), (B) values.get(1), (C) values.get(2), (D) values.get(3)));
+  }
+
+  static <R, E, A, B, C, D, F, G> PureIO<R, E, G> parMap5(Kind<PureIO<R, E, ?>, ? extends A> za, Kind<PureIO<R, E, ?>, ? extends B> zb,
+      Kind<PureIO<R, E, ?>, ? extends C> zc, Kind<PureIO<R, E, ?>, ? extends D> zd, Kind<PureIO<R, E, ?>, ? extends F> zf,
+      Function5<? super A, ? super B, ? super C, ? super D, ? super F, ? extends G> mapper) {
+    return parMap5(Future.DEFAULT_EXECUTOR, za, zb, zc, zd, zf, mapper);
+  }
+
+  @SuppressWarnings("unchecked")
+  static <R, E, A, B, C, D, F, G> PureIO<R, E, G> parMap5(Executor executor, Kind<PureIO<R, E, ?>, ? extends A> za, Kind<PureIO<R, E, ?>, ? extends B> zb,
+      Kind<PureIO<R, E, ?>, ? extends C> zc, Kind<PureIO<R, E, ?>, ? extends D> zd, Kind<PureIO<R, E, ?>, ? extends F> zf,
+      Function5<? super A, ? super B, ? super C, ? super D, ? super F, ? extends G> mapper) {
+    checkNonNull(mapper);
+    return PureIO.<R, E>parAll(executor, za, zb, zc, zd, zf).map(
+        values -> mapper.apply((A) values.get(0), (B) values.get(1), (C) values.get(2), (D) values.get(3), (F) values.get(4)));
+  }
+
+  static <R, E, A> PureIO<R, E, A> raceAll(Sequence<? extends Kind<PureIO<R, E, ?>, ? extends A>> sequence) {
+    return raceAll(Future.DEFAULT_EXECUTOR, sequence);
+  }
+
+  /**
+   * Runs all the given effects in parallel, and returns the result of the first one to complete,
+   * successfully or not. All the other effects are cancelled as soon as the first one completes.
+   */
+  @SuppressWarnings("unchecked")
+  static <R, E, A> PureIO<R, E, A> raceAll(Executor executor, Sequence<? extends Kind<PureIO<R, E, ?>, ? extends A>> sequence) {
+    checkNonNull(executor);
+    checkNonNull(sequence);
+    if (sequence.isEmpty()) {
+      return throwError(new NoSuchElementException("raceAll of an empty sequence"));
+    }
+    return cancellable((env, callback) -> {
+      Object[] values = sequence.stream().toArray();
+
+      Runnable cancel = Gather.<Either<E, A>>race(values.length,
+          (index, result) -> runForked(env, executor, (Kind<PureIO<R, E, ?>, ? extends A>) values[index], result), callback);
+
+      return PureIO.exec(cancel::run);
+    });
+  }
+
   static <R, E, A, B> PureIO<R, E, Either<A, B>> race(Kind<PureIO<R, E, ?>, ? extends A> fa, Kind<PureIO<R, E, ?>, ? extends B> fb) {
     return race(Future.DEFAULT_EXECUTOR, fa, fb);
   }
@@ -304,8 +387,8 @@ public sealed interface PureIO<R, E, A> extends PureIOOf<R, E, A>, Effect<PureIO
       PureIOConnection connection1 = PureIOConnection.cancellable();
       PureIOConnection connection2 = PureIOConnection.cancellable();
 
-      Promise<Either<E, A>> promiseA = runAsync(env, PureIO.<R, E>forked(executor).andThen(fa), connection1);
-      Promise<Either<E, B>> promiseB = runAsync(env, PureIO.<R, E>forked(executor).andThen(fb), connection2);
+      Promise<Either<E, A>> promiseA = runAsync(env, PureIO.<R, E>forked(executor).andThen(fa), connection1, executor);
+      Promise<Either<E, B>> promiseB = runAsync(env, PureIO.<R, E>forked(executor).andThen(fb), connection2, executor);
 
       promiseA.onComplete(result -> {
         PureIO<R, E, B> fromPromiseB = PureIO.fromPromise(promiseB);
@@ -318,7 +401,7 @@ public sealed interface PureIO<R, E, A> extends PureIOOf<R, E, A>, Effect<PureIO
 
       promiseB.onComplete(result -> {
         PureIO<R, E, A> fromPromiseA = PureIO.fromPromise(promiseA);
-        PureIO<R, E, Unit> cancelA = PureIO.run(connection2::cancel);
+        PureIO<R, E, Unit> cancelA = PureIO.run(connection1::cancel);
         Fiber<PureIO<R, E, ?>, A> fiberA = Fiber.of(fromPromiseA, cancelA);
         callback.accept(result.map(
           either -> either.map(
@@ -404,6 +487,21 @@ public sealed interface PureIO<R, E, A> extends PureIOOf<R, E, A>, Effect<PureIO
     return new Attempt<>(task);
   }
 
+  /**
+   * Runs the given blocking computation in {@link Future#BLOCKING_EXECUTOR}, and then returns to the
+   * default executor, so the threads used to run the rest of the program are never blocked.
+   */
+  static <R, A> PureIO<R, Throwable, A> blocking(Producer<? extends A> task) {
+    return blocking(Future.DEFAULT_EXECUTOR, task);
+  }
+
+  static <R, A> PureIO<R, Throwable, A> blocking(Executor executor, Producer<? extends A> task) {
+    return async((env, callback) -> Future.BLOCKING_EXECUTOR.execute(() -> {
+      Either<Throwable, ? extends A> result = task.liftEither().get();
+      executor.execute(() -> callback.accept(Try.success(result)));
+    }));
+  }
+
   static <R, E, A> PureIO<R, E, A> later(Producer<? extends A> task) {
     return fromEither(task.andThen(Either::right));
   }
@@ -467,11 +565,14 @@ public sealed interface PureIO<R, E, A> extends PureIOOf<R, E, A>, Effect<PureIO
   static <R, E, A, B> PureIO<R, E, B> bracket(Kind<PureIO<R, E, ?>, ? extends A> acquire,
                                            Function1<? super A, ? extends Kind<PureIO<R, E, ?>, ? extends B>> use,
                                            Function1<? super A, ? extends Kind<PureIO<R, E, ?>, Unit>> release) {
-    // TODO: cancel
     return cancellable((env, callback) -> {
 
       PureIOConnection cancellable = PureIOConnection.cancellable();
 
+      BracketRelease<A, Either<E, Unit>> bracket = new BracketRelease<>(
+          resource -> runAsync(env, release.apply(resource).fix(PureIOOf::toPureIO), PureIOConnection.UNCANCELLABLE),
+          Either.right(Unit.unit()));
+
       Promise<Either<E, A>> promise = runAsync(env, acquire.fix(PureIOOf::toPureIO), cancellable);
 
       promise
@@ -480,26 +581,18 @@ public sealed interface PureIO<R, E, A> extends PureIOOf<R, E, A>, Effect<PureIO
           callback.accept(Try.success(Either.left(error)));
           return Unit.unit();
         }, resource -> {
-          Promise<Either<E, B>> runAsync = runAsync(env, use.apply(resource).fix(PureIOOf::toPureIO), cancellable);
-
-          runAsync
-            .onFailure(e -> callback.accept(Try.failure(e)))
-            .onSuccess(result -> {
+          bracket.acquired(resource);
 
-              Promise<Either<E, Unit>> run = runAsync(env, release.apply(resource).fix(PureIOOf::toPureIO), cancellable);
+          Promise<Either<E, B>> runAsync = runAsync(env, use.apply(resource).fix(PureIOOf::toPureIO), cancellable);
 
-              run.onComplete(ignore -> result.fold(error -> {
-                callback.accept(Try.success(Either.left(error)));
-                return Unit.unit();
-              }, b -> {
-                callback.accept(Try.success(Either.right(b)));
-                return Unit.unit();
-              }));
-          });
+          runAsync.onComplete(result -> bracket.release().onComplete(ignore -> callback.accept(result)));
           return Unit.unit();
         }));
 
-      return PureIO.run(cancellable::cancel);
+      return PureIO.exec(() -> {
+        cancellable.cancel();
+        bracket.cancel();
+      });
     });
   }
 
@@ -510,109 +603,194 @@ public sealed interface PureIO<R, E, A> extends PureIOOf<R, E, A>, Effect<PureIO
 
   PureIO<?, ?, Unit> UNIT = PureIO.pure(Unit.unit());
 
+  /**
+   * Forks every effect only once, and fails as soon as one of them fails, cancelling all the others.
+   */
+  @SafeVarargs
+  private static <R, E> PureIO<R, E, ImmutableArray<Object>> parAll(Executor executor, Kind<PureIO<R, E, ?>, ?>... values) {
+    checkNonNull(executor);
+    return cancellable((env, callback) -> {
+      Runnable cancel = Gather.<Either<E, Object>>all(values.length, values.length,
+          (index, result) -> runForked(env, executor, values[index], result), Either::isLeft,
+          result -> callback.accept(result.map(either -> either.fold(
+              error -> Either.left(error.getLeft()), all -> Either.right(all.map(Either::getRight))))));
+
+      return PureIO.exec(cancel::run);
+    });
+  }
+
+  /*
+   * runs the effect in the given executor, with its own connection, used to start every computation of a Gather
+   */
+  private static <R, E, A> Runnable runForked(@Nullable R env, Executor executor,
+      Kind<PureIO<R, E, ?>, ? extends A> effect, Consumer1<? super Try<? extends Either<E, A>>> callback) {
+    PureIOConnection connection = PureIOConnection.cancellable();
+    runAsync(env, PureIO.<R, E>forked(executor).<A>andThen(effect), connection, executor).onComplete(callback);
+    return connection::cancel;
+  }
+
   private static <R, E, A> Promise<Either<E, A>> runAsync(@Nullable R env, PureIO<R, E, A> current, PureIOConnection connection) {
-    return runAsync(env, current, connection, new CallStack<>(), Promise.make());
+    return runAsync(env, current, connection, Future.DEFAULT_EXECUTOR);
+  }
+
+  private static <R, E, A> Promise<Either<E, A>> runAsync(
+      @Nullable R env, PureIO<R, E, A> current, PureIOConnection connection, Executor executor) {
+    return runAsync(env, current, connection, new CallStack(executor), Promise.make());
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <R, E, A> Try<Either<E, A>> runSync(@Nullable R env, PureIO<R, E, A> current) {
+    CallStack stack = new CallStack();
+    // the calling thread is going to be blocked anyway, so there is no need to cede it
+    PureIO<R, ?, ?> result = runLoop(env, current, stack, 0);
+
+    if (result instanceof Pure<R, ?, ?> pure) {
+      return Try.success(Either.right((A) pure.value));
+    }
+    if (result instanceof Failure<R, ?, ?> failure) {
+      return Try.success(Either.left((E) failure.error));
+    }
+    if (result instanceof Throw<R, ?, ?> throwError) {
+      return Try.failure(throwError.error);
+    }
+    // an async boundary has been reached, from here the program continues in other thread
+    Promise<Either<E, A>> promise = Promise.make();
+    return resumeAsync(env, (Async<R, ?, ?>) result, PureIOConnection.UNCANCELLABLE, stack, promise).await();
   }
 
   @SuppressWarnings("unchecked")
-  private static <R, E, F, G, A, B, C> Promise<Either<E, A>> runAsync(
-      @Nullable R env, Kind<PureIO<R, E, ?>, A> current, PureIOConnection connection, CallStack<R, E, A> stack, Promise<Either<E, A>> promise) {
+  private static <R, E, A> Promise<Either<E, A>> runAsync(
+      @Nullable R env, PureIO<R, ?, ?> current, PureIOConnection connection, CallStack stack, Promise<Either<E, A>> promise) {
+    PureIO<R, ?, ?> result = runLoop(env, current, stack, CallStack.CEDE_THRESHOLD);
+
+    if (result instanceof Pure<R, ?, ?> pure) {
+      return promise.succeeded(Either.right((A) pure.value));
+    }
+    if (result instanceof Failure<R, ?, ?> failure) {
+      return promise.succeeded(Either.left((E) failure.error));
+    }
+    if (result instanceof Throw<R, ?, ?> throwError) {
+      return promise.failed(throwError.error);
+    }
+    return resumeAsync(env, (Async<R, ?, ?>) result, connection, stack, promise);
+  }
+
+  /*
+   * Evaluates the program in the current thread until it ends or an async boundary is reached.
+   * The result of each step is kept as a value and a flag telling if it is a typed error, so
+   * no Either and no intermediate node is created until the program ends.
+   *
+   * Returns a Pure with the final value, a Failure with an unhandled typed error, a Throw
+   * with an unhandled exception, or the Async node where the program has been suspended.
+   * If maxSteps is greater than zero, the thread is ceded after that number of steps, and the
+   * program is resumed in the executor of the stack.
+   */
+  @SuppressWarnings("unchecked")
+  private static <R> PureIO<R, ?, ?> runLoop(@Nullable R env, PureIO<R, ?, ?> current, CallStack stack, int maxSteps) {
+    int steps = 0;
     while (true) {
-      try {
-        current = unwrap(env, current, stack, identity());
+      if (maxSteps > 0 && ++steps > maxSteps) {
+        stack.push(CallStack.RESUME, current);
+        return forked(stack.executor());
+      }
 
-        if (current instanceof Pure<R, E, A> pure) {
-          return promise.succeeded(Either.right(pure.value));
+      try {
+        if (current instanceof FlatMapped<R, ?, ?, ?, ?, ?> flatMapped) {
+          stack.push(CallStack.FOLD, flatMapped);
+          current = flatMapped.current.fix(PureIOOf::toPureIO);
+          continue;
         }
 
-        if (current instanceof Failure<R, E, A> failure) {
-          return promise.succeeded(Either.left(failure.error));
+        if (current instanceof Recover<R, ?, ?> recover) {
+          stack.push(CallStack.RECOVER, recover.mapper);
+          current = recover.current;
+          continue;
         }
 
-        if (current instanceof Async<R, E, A> async) {
-          return executeAsync(env, async, connection, promise);
+        if (current instanceof Suspend<R, ?, ?> suspend) {
+          current = suspend.lazy.get().fix(PureIOOf::toPureIO);
+          continue;
         }
 
-        if (current instanceof FlatMapped) {
-          stack.push();
-
-          var flatMapped = (FlatMapped<R, F, B, E, A>) current;
-          Kind<PureIO<R, F, ?>, B> source = unwrap(env, flatMapped.current, stack,
-              b -> b.fix(PureIOOf::toPureIO).foldM(flatMapped.nextError, flatMapped.next));
-
-          if (source instanceof Async<R, F, B> async) {
-            Promise<Either<F, B>> nextPromise = Promise.make();
-
-            nextPromise.then(either -> {
-              PureIO<R, E, A> fold = either.fold(
-                  error -> flatMapped.nextError.apply(error).fix(PureIOOf::toPureIO),
-                  value -> flatMapped.next.apply(value).fix(PureIOOf::toPureIO));
-              runAsync(env, fold, connection, stack, promise);
-            });
-
-            executeAsync(env, async, connection, nextPromise);
+        if (current instanceof AccessM<R, ?, ?> accessM) {
+          current = accessM(env, accessM).fix(PureIOOf::toPureIO);
+          continue;
+        }
 
-            return promise;
+        if (current instanceof Throw<R, ?, ?> throwError) {
+          var handler = stack.findHandler(throwError.error);
+          if (handler == null) {
+            return throwError;
           }
+          current = (PureIO<R, ?, ?>) handler.apply(throwError.error);
+          continue;
+        }
 
-          if (source instanceof Pure<R, F, B> pure) {
-            current = flatMapped.next.apply(pure.value).fix(PureIOOf::toPureIO);
-          } else if (source instanceof Failure<R, F, B> failure) {
-            current = flatMapped.nextError.apply(failure.error).fix(PureIOOf::toPureIO);
-          } else if (source instanceof FlatMapped) {
-            FlatMapped<R, G, C, F, B> flatMapped2 = (FlatMapped<R, G, C, F, B>) source;
+        if (current instanceof Async<R, ?, ?>) {
+          return current;
+        }
 
-            current = flatMapped2.current.fix(PureIOOf::toPureIO).foldM(
-                e -> flatMapped2.nextError.apply(e).fix(PureIOOf::toPureIO).foldM(flatMapped.nextError, flatMapped.next),
-                a -> flatMapped2.next.apply(a).fix(PureIOOf::toPureIO).foldM(flatMapped.nextError, flatMapped.next));
+        Object value;
+        boolean failed;
+        if (current instanceof Pure<R, ?, ?> pure) {
+          value = pure.value;
+          failed = false;
+        } else if (current instanceof Failure<R, ?, ?> failure) {
+          value = failure.error;
+          failed = true;
+        } else if (current instanceof Delay<R, ?, ?> delay) {
+          Either<?, ?> either = delay.task.get();
+          failed = either.isLeft();
+          value = failed ? either.getLeft() : either.getRight();
+        } else if (current instanceof Attempt<R, ?, ?> attempt) {
+          // exceptions thrown by the task are typed errors
+          try {
+            value = checkNonNull(attempt.current.get());
+            failed = false;
+          } catch (Throwable error) {
+            value = error;
+            failed = true;
           }
         } else {
-          stack.pop();
+          throw new IllegalStateException("not supported: " + current);
         }
-      } catch (Throwable error) {
-        Option<PureIO<R, E, A>> result = stack.tryHandle(error);
 
-        if (result.isPresent()) {
-          current = result.getOrElseThrow();
-        } else {
-          return promise.failed(error);
+        PureIO<R, ?, ?> next = null;
+        while (next == null && !stack.isEmpty()) {
+          byte tag = stack.tag();
+          Object continuation = stack.pop();
+          if (tag == CallStack.FOLD) {
+            var flatMapped = (FlatMapped<R, ?, ?, ?, ?, ?>) continuation;
+            next = flatMapped.unwrap(failed, value);
+          } else if (tag == CallStack.RESUME) {
+            next = (PureIO<R, ?, ?>) continuation;
+          }
+          // recover handlers are discarded if no exception has been thrown
+        }
+
+        if (next == null) {
+          return failed ? new Failure<>(value) : new Pure<>(value);
         }
+        current = next;
+      } catch (Throwable error) {
+        current = new Throw<>(error);
       }
     }
   }
 
   @SuppressWarnings("unchecked")
-  private static <R, E, F, A, B> Kind<PureIO<R, E, ?>, A> unwrap(
-      @Nullable R env, Kind<PureIO<R, E, ?>, A> current, CallStack<R, F, B> stack,
-      Function1<Kind<PureIO<R, E, ?>, ? extends A>, Kind<PureIO<R, F, ?>, ? extends B>> next) {
-    while (true) {
-      if (current instanceof Failure) {
-        return current;
-      } else if (current instanceof Pure) {
-        return current;
-      } else if (current instanceof FlatMapped) {
-        return current;
-      } else if (current instanceof Async) {
-        return current;
-      } else if (current instanceof Throw<R, E, A> throwError) {
-        return stack.sneakyThrow(throwError.error);
-      } else if (current instanceof Recover<R, E, A> recover) {
-        stack.add(recover.mapper.andThen(next));
-        current = (PureIO<R, E, A>) recover.current;
-      } else if (current instanceof AccessM<R, E, A> accessM) {
-        current = accessM(env, accessM);
-      } else if (current instanceof Suspend<R, E, A> suspend) {
-        current = suspend.lazy.get().fix(PureIOOf::toPureIO);
-      } else if (current instanceof Delay<R, E, A> delay) {
-        Either<E, ? extends A> value = delay.task.get();
-        return value.fold(PureIO::raiseError, PureIO::pure);
-      } else if (current instanceof Attempt<R, E, A> attempt) {
-        Either<E, ? extends A> either = (Either<E, ? extends A>) attempt.current.liftEither().get();
-        return either.fold(PureIO::raiseError, PureIO::pure);
-      } else {
-        throw new IllegalStateException("not supported: " + current);
-      }
-    }
+  private static <R, E, A> Promise<Either<E, A>> resumeAsync(
+      @Nullable R env, Async<R, ?, ?> async, PureIOConnection connection, CallStack stack, Promise<Either<E, A>> promise) {
+    Promise<Either<Object, Object>> nextPromise = Promise.make();
+
+    executeAsync(env, (Async<R, Object, Object>) async, connection, nextPromise);
+
+    // the continuation is registered after the cancel token is set, so the next
+    // async computation cannot set its own token before this one
+    nextPromise.onComplete(result -> runAsync(env,
+        result.fold(PureIO::throwError, either -> either.fold(PureIO::raiseError, PureIO::pure)), connection, stack, promise));
+
+    return promise;
   }
 
   @SuppressWarnings("NullAway")
@@ -625,9 +803,9 @@ public sealed interface PureIO<R, E, A> extends PureIOOf<R, E, A>, Effect<PureIO
       return promise.cancel();
     }
 
-    setCancelToken(env, current, connection, promise);
+    PureIO<R, ?, Unit> cancelToken = setCancelToken(env, current, connection, promise);
 
-    promise.thenRun(() -> connection.setCancelToken(UNIT));
+    promise.thenRun(() -> connection.updateCancelToken(cancelToken, UNIT));
 
     if (connection.isCancellable() && connection.updateState(StateIO::notStartingNow).isCancellingNow()) {
       connection.cancelNow();
@@ -637,9 +815,11 @@ public sealed interface PureIO<R, E, A> extends PureIOOf<R, E, A>, Effect<PureIO
   }
 
   @SuppressWarnings("NullAway")
-  private static <R, E, A> void setCancelToken(
+  private static <R, E, A> PureIO<R, ?, Unit> setCancelToken(
       @Nullable R env, Async<R, E, A> current, PureIOConnection connection, Promise<Either<E, A>> promise) {
-    connection.setCancelToken(current.callback.apply(env, result -> promise.tryComplete(result.map(EitherOf::toEither))));
+    PureIO<R, ?, Unit> cancelToken = current.callback.apply(env, result -> promise.tryComplete(result.map(EitherOf::toEither)));
+    connection.setCancelToken(cancelToken);
+    return cancelToken;
   }
 
   final class Pure<R, E, A> implements PureIO<R, E, A> {
@@ -684,18 +864,31 @@ public sealed interface PureIO<R, E, A> extends PureIOOf<R, E, A>, Effect<PureIO
     }
   }
 
-  final class FlatMapped<R, E, A, F, B> implements PureIO<R, F, B> {
+  /**
+   * The continuations can return any effect of kind {@code K}, like {@code UIO} or {@code Task}, that are views of
+   * a {@code PureIO}, and the run loop unwraps the result, so they don't need to unwrap it at every step.
+   */
+  final class FlatMapped<R, E, A, F, K, B> implements PureIO<R, F, B> {
 
     private final Kind<PureIO<R, E, ?>, A> current;
-    private final Function1<? super E, ? extends Kind<PureIO<R, F, ?>, ? extends B>> nextError;
-    private final Function1<? super A, ? extends Kind<PureIO<R, F, ?>, ? extends B>> next;
-
-    private FlatMapped(PureIO<R, E, A> current,
-                         Function1<? super E, ? extends Kind<PureIO<R, F, ?>, ? extends B>> nextError,
-                         Function1<? super A, ? extends Kind<PureIO<R, F, ?>, ? extends B>> next) {
+    private final Function1<? super E, ? extends Kind<K, ? extends B>> nextError;
+    private final Function1<? super A, ? extends Kind<K, ? extends B>> next;
+    private final FunctionK<K, PureIO<R, F, ?>> unwrap;
+
+    FlatMapped(PureIO<R, E, A> current,
+               Function1<? super E, ? extends Kind<K, ? extends B>> nextError,
+               Function1<? super A, ? extends Kind<K, ? extends B>> next,
+               FunctionK<K, PureIO<R, F, ?>> unwrap) {
       this.current = checkNonNull(current);
       this.nextError = checkNonNull(nextError);
       this.next = checkNonNull(next);
+      this.unwrap = checkNonNull(unwrap);
+    }
+
+    private PureIO<R, F, B> unwrap(boolean failed, Object value) {
+      @SuppressWarnings("unchecked")
+      Kind<K, ? extends B> result = failed ? nextError.apply((E) value) : next.apply((A) value);
+      return unwrap.apply(result).fix(PureIOOf::toPureIO);
     }
 
     @Override
@@ -817,6 +1010,8 @@ sealed interface PureIOConnection {
 
   void setCancelToken(PureIO<?, ?, Unit> cancel);
 
+  void updateCancelToken(PureIO<?, ?, Unit> expected, PureIO<?, ?, Unit> cancel);
+
   void cancelNow();
 
   void cancel();
@@ -841,6 +1036,11 @@ sealed interface PureIOConnection {
       /* nothing to do */
     }
 
+    @Override
+    public void updateCancelToken(PureIO<?, ?, Unit> expected, PureIO<?, ?, Unit> cancel) {
+      /* nothing to do */
+    }
+
     @Override
     public void cancelNow() {
       /* nothing to do */
@@ -859,7 +1059,7 @@ sealed interface PureIOConnection {
 
   final class Cancellable implements PureIOConnection {
 
-    private PureIO<?, ?, Unit> cancelToken = PureIO.UNIT;
+    private final AtomicReference<PureIO<?, ?, Unit>> cancelToken = new AtomicReference<>(PureIO.UNIT);
     private final AtomicReference<StateIO> state = new AtomicReference<>(StateIO.INITIAL);
 
     private Cancellable() { }
@@ -871,12 +1071,18 @@ sealed interface PureIOConnection {
 
     @Override
     public void setCancelToken(PureIO<?, ?, Unit> cancel) {
-      this.cancelToken = checkNonNull(cancel);
+      cancelToken.set(checkNonNull(cancel));
     }
 
     @Override
+    public void updateCancelToken(PureIO<?, ?, Unit> expected, PureIO<?, ?, Unit> cancel) {
+      cancelToken.compareAndSet(expected, checkNonNull(cancel));
+    }
+
+    @Override
+    @SuppressWarnings("NullAway")
     public void cancelNow() {
-      cancelToken.runAsync(null);
+      cancelToken.get().runAsync(null);
     }
 
     @Override
@@ -895,6 +1101,10 @@ sealed interface PureIOConnection {
   }
 }
 
+/*
+ * releases the resource only once, when the use of the resource ends, even if it fails,
+ * or when the bracket is cancelled, even if the resource is acquired after the cancellation
+ */
 record StateIO(boolean isCancelled, boolean isCancellingNow, boolean isStartingNow) {
 
   static final StateIO INITIAL = new StateIO(false, false, false);
@@ -920,103 +1130,3 @@ record StateIO(boolean isCancelled, boolean isCancellingNow, boolean isStartingN
     return !isCancelled && !isCancellingNow;
   }
 }
-
-final class CallStack<R, E, A> implements Recoverable {
-
-  @Nullable
-  private StackItem<R, E, A> top = new StackItem<>();
-
-  public void push() {
-    if (top != null) {
-      top.push();
-    }
-  }
-
-  public void pop() {
-    if (top == null) {
-      return;
-    }
-    if (top.count() > 0) {
-      top.pop();
-    } else {
-      top = top.prev();
-    }
-  }
-
-  public void add(PartialFunction1<? super Throwable, ? extends Kind<PureIO<R, E, ?>, ? extends A>> mapError) {
-    if (top == null) {
-      return;
-    }
-    if (top.count() > 0) {
-      top.pop();
-      top = new StackItem<>(top);
-    }
-    top.add(mapError);
-  }
-
-  public Option<PureIO<R, E, A>> tryHandle(Throwable error) {
-    while (top != null) {
-      top.reset();
-      Option<PureIO<R, E, A>> result = top.tryHandle(error);
-
-      if (result.isPresent()) {
-        return result;
-      } else {
-        top = top.prev();
-      }
-    }
-    return Option.none();
-  }
-}
-
-final class StackItem<R, E, A> {
-
-  private int count = 0;
-  private final Deque<PartialFunction1<? super Throwable, ? extends Kind<PureIO<R, E, ?>, ? extends A>>> recover = new ArrayDeque<>();
-
-  @Nullable
-  private final StackItem<R, E, A> prev;
-
-  public StackItem() {
-    this(null);
-  }
-
-  public StackItem(@Nullable StackItem<R, E, A> prev) {
-    this.prev = prev;
-  }
-
-  @Nullable
-  public StackItem<R, E, A> prev() {
-    return prev;
-  }
-
-  public int count() {
-    return count;
-  }
-
-  public void push() {
-    count++;
-  }
-
-  public void pop() {
-    count--;
-  }
-
-  public void reset() {
-    count = 0;
-  }
-
-  public void add(PartialFunction1<? super Throwable, ? extends Kind<PureIO<R, E, ?>, ? extends A>> mapError) {
-    recover.addFirst(mapError);
-  }
-
-  public Option<PureIO<R, E, A>> tryHandle(Throwable error) {
-    while (!recover.isEmpty()) {
-      var mapError = recover.removeFirst();
-      if (mapError.isDefinedAt(error)) {
-        return Option.some(mapError.andThen(PureIOOf::<R, E, A>toPureIO).apply(error));
-      }
-    }
-    return Option.none();
-  }
-}
\ No newline at end of file
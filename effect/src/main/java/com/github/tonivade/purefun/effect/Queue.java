@@ -0,0 +1,439 @@
+/*
+ * Copyright (c) 2018-2024, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.purefun.effect;
+
+import static com.github.tonivade.purefun.core.Precondition.checkNonNull;
+import static com.github.tonivade.purefun.core.Precondition.checkPositive;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import com.github.tonivade.purefun.Nullable;
+import com.github.tonivade.purefun.core.Consumer1;
+import com.github.tonivade.purefun.data.ImmutableArray;
+import com.github.tonivade.purefun.data.Sequence;
+import com.github.tonivade.purefun.type.Option;
+import com.github.tonivade.purefun.type.Try;
+
+/**
+ * <p>Asynchronous queue to communicate fibers. When the queue is empty, {@code take} suspends the fiber until
+ * a new element is available, without blocking any thread. What happens when the queue is full depends on the
+ * strategy used to create it:</p>
+ * <ul>
+ *   <li>{@code bounded}: {@code offer} suspends the fiber until there is space in the queue (backpressure).</li>
+ *   <li>{@code dropping}: the new element is discarded and {@code offer} returns false.</li>
+ *   <li>{@code sliding}: the oldest element is discarded to make space for the new one.</li>
+ *   <li>{@code unbounded}: the queue is never full.</li>
+ * </ul>
+ *
+ * <p>Bounded queues are backed by a lock-free ring buffer.</p>
+ *
+ * @param <A> type of the elements
+ */
+public final class Queue<A> {
+
+  private enum Strategy { BACKPRESSURE, DROPPING, SLIDING }
+
+  private final QueueBuffer<A> buffer;
+  private final Strategy strategy;
+
+  private final ConcurrentLinkedDeque<Taker<A>> takers = new ConcurrentLinkedDeque<>();
+  private final ConcurrentLinkedDeque<Putter<A>> putters = new ConcurrentLinkedDeque<>();
+  // elements taken for a taker that has been cancelled meanwhile, they go before the ones in the buffer
+  private final ConcurrentLinkedDeque<A> returned = new ConcurrentLinkedDeque<>();
+
+  private Queue(QueueBuffer<A> buffer, Strategy strategy) {
+    this.buffer = checkNonNull(buffer);
+    this.strategy = checkNonNull(strategy);
+  }
+
+  public UIO<Boolean> offer(A value) {
+    checkNonNull(value);
+    return offerAll(ImmutableArray.of(value));
+  }
+
+  /**
+   * Offers all the elements. In a bounded queue the fiber is suspended until all the elements are in the queue.
+   *
+   * @return true if all the elements have been enqueued, false if any of them has been dropped
+   */
+  public UIO<Boolean> offerAll(Sequence<? extends A> values) {
+    checkNonNull(values);
+    return UIO.cancellable(callback -> {
+      Object[] array = values.stream().toArray();
+      int index = 0;
+      boolean accepted = true;
+      // while there are suspended putters the elements go behind them, to keep the order of the offers
+      while (index < array.length && putters.isEmpty()) {
+        @SuppressWarnings("unchecked")
+        A value = (A) checkNonNull(array[index]);
+        if (offerValue(value)) {
+          index++;
+        } else if (strategy == Strategy.SLIDING) {
+          slide();
+        } else if (strategy == Strategy.DROPPING) {
+          accepted = false;
+          index++;
+        } else {
+          break;
+        }
+      }
+      if (index < array.length) {
+        Putter<A> putter = new Putter<>(array, index, callback);
+        putters.offer(putter);
+        drain();
+        return UIO.exec(putter::cancel);
+      }
+      drain();
+      callback.accept(Try.success(accepted));
+      return UIO.unit();
+    });
+  }
+
+  public UIO<A> take() {
+    return UIO.cancellable(callback -> {
+      A value = pollValue();
+      if (value != null) {
+        drain();
+        callback.accept(Try.success(value));
+        return UIO.unit();
+      }
+      Taker<A> taker = new Taker<>(callback);
+      takers.offer(taker);
+      drain();
+      return UIO.exec(taker::cancel);
+    });
+  }
+
+  /**
+   * Takes at most {@code max} elements that are already in the queue, it never suspends the fiber.
+   */
+  public UIO<Sequence<A>> takeUpTo(int max) {
+    checkPositive(max);
+    return UIO.task(() -> {
+      List<A> result = new ArrayList<>(Math.min(max, currentSize()));
+      while (result.size() < max) {
+        A value = pollValue();
+        if (value == null) {
+          break;
+        }
+        result.add(value);
+      }
+      drain();
+      return ImmutableArray.from(result);
+    });
+  }
+
+  public UIO<Option<A>> poll() {
+    return UIO.task(() -> {
+      Option<A> result = Option.of(pollValue());
+      drain();
+      return result;
+    });
+  }
+
+  public UIO<Integer> size() {
+    return UIO.task(this::currentSize);
+  }
+
+  public int capacity() {
+    return buffer.capacity();
+  }
+
+  @Override
+  public String toString() {
+    return "Queue(" + strategy + ", " + currentSize() + "/" + buffer.capacity() + ")";
+  }
+
+  public static <A> UIO<Queue<A>> bounded(int capacity) {
+    return UIO.task(() -> new Queue<>(new RingBuffer<>(capacity), Strategy.BACKPRESSURE));
+  }
+
+  public static <A> UIO<Queue<A>> dropping(int capacity) {
+    return UIO.task(() -> new Queue<>(new RingBuffer<>(capacity), Strategy.DROPPING));
+  }
+
+  public static <A> UIO<Queue<A>> sliding(int capacity) {
+    return UIO.task(() -> new Queue<>(new RingBuffer<>(capacity), Strategy.SLIDING));
+  }
+
+  public static <A> UIO<Queue<A>> unbounded() {
+    return UIO.task(() -> new Queue<>(new LinkedBuffer<>(), Strategy.BACKPRESSURE));
+  }
+
+  @Nullable
+  private A pollValue() {
+    A value = returned.pollFirst();
+    return value != null ? value : buffer.poll();
+  }
+
+  private boolean hasValues() {
+    return !returned.isEmpty() || !buffer.isEmpty();
+  }
+
+  private int currentSize() {
+    return buffer.size() + returned.size();
+  }
+
+  /*
+   * the elements returned by cancelled takers are counted against the capacity too, so the size
+   * of the queue never exceeds it
+   */
+  private boolean offerValue(A value) {
+    return (returned.isEmpty() || currentSize() < buffer.capacity()) && buffer.offer(value);
+  }
+
+  private boolean isFull() {
+    return buffer.isFull() || (!returned.isEmpty() && currentSize() >= buffer.capacity());
+  }
+
+  // discards the oldest element, the returned elements go before the ones in the buffer
+  private void slide() {
+    if (returned.pollFirst() == null) {
+      buffer.poll();
+    }
+  }
+
+  /*
+   * moves the elements of the suspended putters to the buffer, and the elements of the buffer
+   * to the suspended takers. Every side publishes itself before calling this method, so
+   * a waiter is never forgotten, at least one of the threads will see both.
+   */
+  private void drain() {
+    boolean progress = true;
+    while (progress) {
+      boolean moved = drainPutters();
+      boolean taken = drainTakers();
+      progress = moved || taken;
+    }
+  }
+
+  private boolean drainPutters() {
+    boolean progress = false;
+    while (!putters.isEmpty() && !isFull()) {
+      Putter<A> putter = putters.pollFirst();
+      if (putter == null) {
+        break;
+      }
+      if (putter.done.get()) {
+        continue;
+      }
+      while (putter.index < putter.values.length && !putter.done.get() && offerValue(putter.value())) {
+        putter.index++;
+        progress = true;
+      }
+      if (putter.index < putter.values.length) {
+        if (!putter.done.get()) {
+          putters.offerFirst(putter);
+        }
+      } else if (putter.done.compareAndSet(false, true)) {
+        putter.callback.accept(Try.success(true));
+      }
+    }
+    return progress;
+  }
+
+  private boolean drainTakers() {
+    boolean progress = false;
+    while (!takers.isEmpty() && hasValues()) {
+      Taker<A> taker = takers.pollFirst();
+      if (taker == null) {
+        break;
+      }
+      if (taker.done.get()) {
+        continue;
+      }
+      A value = pollValue();
+      if (value == null) {
+        takers.offerFirst(taker);
+      } else if (taker.done.compareAndSet(false, true)) {
+        taker.callback.accept(Try.success(value));
+        progress = true;
+      } else {
+        // cancelled meanwhile, the element goes back to the head for the next taker
+        returned.offerFirst(value);
+      }
+    }
+    return progress;
+  }
+
+  private static final class Taker<A> {
+
+    private final Consumer1<? super Try<? extends A>> callback;
+    private final AtomicBoolean done = new AtomicBoolean();
+
+    private Taker(Consumer1<? super Try<? extends A>> callback) {
+      this.callback = callback;
+    }
+
+    private void cancel() {
+      done.set(true);
+    }
+  }
+
+  private static final class Putter<A> {
+
+    private final Object[] values;
+    private final Consumer1<? super Try<? extends Boolean>> callback;
+    private final AtomicBoolean done = new AtomicBoolean();
+
+    // only modified by the thread that has polled the putter from the queue
+    private int index;
+
+    private Putter(Object[] values, int index, Consumer1<? super Try<? extends Boolean>> callback) {
+      this.values = values;
+      this.index = index;
+      this.callback = callback;
+    }
+
+    @SuppressWarnings("unchecked")
+    private A value() {
+      return (A) values[index];
+    }
+
+    private void cancel() {
+      done.set(true);
+    }
+  }
+}
+
+interface QueueBuffer<A> {
+
+  boolean offer(A value);
+
+  @Nullable
+  A poll();
+
+  int size();
+
+  int capacity();
+
+  default boolean isEmpty() {
+    return size() == 0;
+  }
+
+  default boolean isFull() {
+    return size() >= capacity();
+  }
+}
+
+/**
+ * Bounded lock-free ring buffer. Every slot has a sequence number that tells producers and consumers if the
+ * slot is ready to be written or read, so the only contention is between producers, or between consumers, to
+ * claim the next position. With a single producer and a single consumer, there is no contention at all.
+ * The sequence numbers need at least two slots, so a buffer with capacity 1 also checks the size.
+ */
+final class RingBuffer<A> implements QueueBuffer<A> {
+
+  private final AtomicReferenceArray<A> slots;
+  private final AtomicLongArray sequences;
+  private final int capacity;
+  private final int length;
+
+  private final AtomicLong head = new AtomicLong();
+  private final AtomicLong tail = new AtomicLong();
+
+  RingBuffer(int capacity) {
+    this.capacity = checkPositive(capacity);
+    this.length = Math.max(capacity, 2);
+    this.slots = new AtomicReferenceArray<>(length);
+    this.sequences = new AtomicLongArray(length);
+    for (int i = 0; i < length; i++) {
+      sequences.set(i, i);
+    }
+  }
+
+  @Override
+  public boolean offer(A value) {
+    while (true) {
+      long position = tail.get();
+      if (length > capacity && position - head.get() >= capacity) {
+        return false;
+      }
+      int index = (int) (position % length);
+      long diff = sequences.get(index) - position;
+      if (diff == 0) {
+        if (tail.compareAndSet(position, position + 1)) {
+          slots.set(index, value);
+          sequences.set(index, position + 1);
+          return true;
+        }
+      } else if (diff < 0) {
+        return false;
+      }
+    }
+  }
+
+  @Override
+  @Nullable
+  public A poll() {
+    while (true) {
+      long position = head.get();
+      int index = (int) (position % length);
+      long diff = sequences.get(index) - (position + 1);
+      if (diff == 0) {
+        if (head.compareAndSet(position, position + 1)) {
+          A value = slots.getAndSet(index, null);
+          sequences.set(index, position + length);
+          return value;
+        }
+      } else if (diff < 0) {
+        return null;
+      }
+    }
+  }
+
+  @Override
+  public int size() {
+    return Math.clamp(tail.get() - head.get(), 0, capacity);
+  }
+
+  @Override
+  public int capacity() {
+    return capacity;
+  }
+}
+
+final class LinkedBuffer<A> implements QueueBuffer<A> {
+
+  private final ConcurrentLinkedQueue<A> queue = new ConcurrentLinkedQueue<>();
+
+  @Override
+  public boolean offer(A value) {
+    return queue.offer(value);
+  }
+
+  @Override
+  @Nullable
+  public A poll() {
+    return queue.poll();
+  }
+
+  @Override
+  public int size() {
+    return queue.size();
+  }
+
+  @Override
+  public int capacity() {
+    return Integer.MAX_VALUE;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return queue.isEmpty();
+  }
+
+  @Override
+  public boolean isFull() {
+    return false;
+  }
+}
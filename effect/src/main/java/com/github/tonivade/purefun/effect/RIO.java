@@ -41,6 +41,20 @@ public final class RIO<R, A> implements RIOOf<R, A>, Effect<RIO<R, ?>, A>, Recov
 
   private static final RIO<?, Unit> UNIT = new RIO<>(PureIO.unit());
 
+  private static final FunctionK<?, ?> FROM_PURE_IO = new FunctionK<PureIO<Object, Throwable, ?>, RIO<Object, ?>>() {
+    @Override
+    public <T> RIO<Object, T> apply(Kind<PureIO<Object, Throwable, ?>, ? extends T> from) {
+      return new RIO<>(from.fix(PureIOOf::toPureIO));
+    }
+  };
+
+  private static final FunctionK<?, ?> TO_PURE_IO = new FunctionK<RIO<Object, ?>, PureIO<Object, Throwable, ?>>() {
+    @Override
+    public <T> PureIO<Object, Throwable, T> apply(Kind<RIO<Object, ?>, ? extends T> from) {
+      return RIOOf.<Object, T>toRIO(from).instance;
+    }
+  };
+
   private final PureIO<R, Throwable, A> instance;
 
   RIO(PureIO<R, Throwable, A> value) {
@@ -83,10 +97,7 @@ public final class RIO<R, A> implements RIOOf<R, A>, Effect<RIO<R, ?>, A>, Recov
 
   @Override
   public <B> RIO<R, B> flatMap(Function1<? super A, ? extends Kind<RIO<R, ?>, ? extends B>> map) {
-    return new RIO<>(instance.flatMap(x -> {
-      RIO<R, ? extends B> apply = map.andThen(RIOOf::toRIO).apply(x);
-      return apply.instance;
-    }));
+    return new RIO<>(new PureIO.FlatMapped<>(instance, RIO::raiseError, map, RIO.<R>unwrap()));
   }
 
   @Override
@@ -121,9 +132,7 @@ public final class RIO<R, A> implements RIOOf<R, A>, Effect<RIO<R, ?>, A>, Recov
   public <B> RIO<R, B> foldM(
       Function1<? super Throwable, ? extends Kind<RIO<R, ?>, ? extends B>> mapError,
       Function1<? super A, ? extends Kind<RIO<R, ?>, ? extends B>> map) {
-    return new RIO<>(instance.foldM(
-        error -> mapError.andThen(RIOOf::toRIO).apply(error).instance,
-        value -> map.andThen(RIOOf::toRIO).apply(value).instance));
+    return new RIO<>(new PureIO.FlatMapped<>(instance, mapError, map, RIO.<R>unwrap()));
   }
 
   public RIO<R, A> orElse(Kind<RIO<R, ?>, ? extends A> other) {
@@ -152,12 +161,7 @@ public final class RIO<R, A> implements RIOOf<R, A>, Effect<RIO<R, ?>, A>, Recov
   }
 
   public RIO<R, Fiber<RIO<R, ?>, A>> fork() {
-    return new RIO<>(instance.fork().map(f -> f.mapK(new FunctionK<>() {
-      @Override
-      public <T> RIO<R, T> apply(Kind<PureIO<R, Throwable, ?>, ? extends T> from) {
-        return new RIO<>(from.fix(PureIOOf::toPureIO));
-      }
-    })));
+    return new RIO<>(instance.fork().map(f -> f.mapK(fromPureIO())));
   }
 
   @Override
@@ -261,17 +265,7 @@ public final class RIO<R, A> implements RIOOf<R, A>, Effect<RIO<R, ?>, A>, Recov
     PureIO<R, Throwable, A> instance1 = fa.fix(RIOOf::toRIO).instance.fix(PureIOOf::toPureIO);
     PureIO<R, Throwable, B> instance2 = fb.fix(RIOOf::toRIO).instance.fix(PureIOOf::toPureIO);
     return new RIO<>(PureIO.racePair(executor, instance1, instance2).map(
-      either -> either.bimap(a -> a.map2(f -> f.mapK(new FunctionK<>() {
-        @Override
-        public <T> RIO<R, T> apply(Kind<PureIO<R, Throwable, ?>, ? extends T> from) {
-          return new RIO<>(from.fix(PureIOOf::toPureIO));
-        }
-      })), b -> b.map1(f -> f.mapK(new FunctionK<>() {
-        @Override
-        public <T> RIO<R, T> apply(Kind<PureIO<R, Throwable, ?>, ? extends T> from) {
-          return new RIO<>(from.fix(PureIOOf::toPureIO));
-        }
-      })))));
+      either -> either.bimap(a -> a.map2(f -> f.mapK(fromPureIO())), b -> b.map1(f -> f.mapK(fromPureIO())))));
   }
 
   public static <R> RIO<R, Unit> sleep(Duration delay) {
@@ -387,4 +381,14 @@ public final class RIO<R, A> implements RIOOf<R, A>, Effect<RIO<R, ?>, A>, Recov
   public static <R> RIO<R, Unit> unit() {
     return (RIO<R, Unit>) UNIT;
   }
+
+  @SuppressWarnings("unchecked")
+  private static <R> FunctionK<RIO<R, ?>, PureIO<R, Throwable, ?>> unwrap() {
+    return (FunctionK<RIO<R, ?>, PureIO<R, Throwable, ?>>) TO_PURE_IO;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <R> FunctionK<PureIO<R, Throwable, ?>, RIO<R, ?>> fromPureIO() {
+    return (FunctionK<PureIO<R, Throwable, ?>, RIO<R, ?>>) FROM_PURE_IO;
+  }
 }
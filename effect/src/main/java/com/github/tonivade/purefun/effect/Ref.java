@@ -9,11 +9,12 @@ import static com.github.tonivade.purefun.core.Unit.unit;
 
 import java.util.concurrent.atomic.AtomicReference;
 
+import com.github.tonivade.purefun.concurrent.Backoff;
 import com.github.tonivade.purefun.core.Function1;
+import com.github.tonivade.purefun.core.Function2;
 import com.github.tonivade.purefun.core.Operator1;
 import com.github.tonivade.purefun.core.Tuple2;
 import com.github.tonivade.purefun.core.Unit;
-import com.github.tonivade.purefun.type.Option;
 
 public final class Ref<A> {
 
@@ -32,17 +33,19 @@ public final class Ref<A> {
   }
 
   public <B> UIO<B> modify(Function1<A, Tuple2<B, A>> change) {
-    return UIO.task(() -> {
-      var loop = true;
-      B result = null;
-      while (loop) {
-        A current = safeGet();
-        var tuple = change.apply(current);
-        result = tuple.get1();
-        loop = !value.compareAndSet(current, tuple.get2());
-      }
-      return Option.of(result).getOrElseThrow();
-    });
+    return UIO.task(() -> Backoff.modify(value, change));
+  }
+
+  /**
+   * Like {@code modify}, but the new value and the result are calculated by different functions, so it doesn't
+   * need to allocate a tuple on every attempt. The result is calculated once, from the previous and the new value.
+   */
+  public <B> UIO<B> modify(Operator1<A> update, Function2<? super A, ? super A, ? extends B> result) {
+    return UIO.task(() -> Backoff.modify(value, update, result));
+  }
+
+  public UIO<Unit> update(Operator1<A> update) {
+    return UIO.exec(() -> Backoff.update(value, update, false));
   }
 
   public UIO<Unit> lazySet(A newValue) {
@@ -54,11 +57,11 @@ public final class Ref<A> {
   }
 
   public UIO<A> updateAndGet(Operator1<A> update) {
-    return UIO.task(() -> value.updateAndGet(update::apply));
+    return UIO.task(() -> Backoff.update(value, update, false));
   }
 
   public UIO<A> getAndUpdate(Operator1<A> update) {
-    return UIO.task(() -> value.getAndUpdate(update::apply));
+    return UIO.task(() -> Backoff.update(value, update, true));
   }
 
   public static <A> UIO<Ref<A>> make(A value) {
@@ -69,6 +72,13 @@ public final class Ref<A> {
     return new Ref<>(value);
   }
 
+  /**
+   * Creates a {@link Counter}, a reference specialized for counters updated by many fibers at the same time.
+   */
+  public static UIO<Counter> counter() {
+    return Counter.make();
+  }
+
   @Override
   public String toString() {
     return String.format("Ref(%s)", value.get());
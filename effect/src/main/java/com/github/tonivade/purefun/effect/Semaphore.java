@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2018-2024, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.purefun.effect;
+
+import static com.github.tonivade.purefun.core.Precondition.checkNonNull;
+import static com.github.tonivade.purefun.core.Precondition.checkPositive;
+
+import com.github.tonivade.purefun.concurrent.Permits;
+import com.github.tonivade.purefun.core.Function1;
+import com.github.tonivade.purefun.core.Unit;
+
+/**
+ * <p>Asynchronous semaphore, used to limit the number of effects that run at the same time. When there are not
+ * enough permits, {@code acquire} suspends the fiber until other fiber releases them, without blocking any thread.
+ * If a waiting fiber is cancelled, it is removed from the queue and doesn't get any permit.</p>
+ *
+ * <p>In a fair semaphore the permits are granted in the same order they were requested. In a non fair semaphore
+ * a new request can take the available permits even if other fibers are waiting.</p>
+ *
+ * <p>When there are enough permits and nobody is waiting, acquiring and releasing permits is just a CAS.
+ * The permits are managed by {@link Permits}, the same implementation used by the semaphore of the type
+ * classes.</p>
+ */
+public final class Semaphore {
+
+  private final Permits permits;
+
+  private Semaphore(int permits, boolean fair) {
+    this.permits = new Permits(permits, fair);
+  }
+
+  public UIO<Integer> available() {
+    return UIO.task(permits::available);
+  }
+
+  public UIO<Unit> acquire() {
+    return acquireN(1);
+  }
+
+  public UIO<Unit> acquireN(int n) {
+    checkPositive(n);
+    return UIO.cancellable(callback -> {
+      Runnable cancel = permits.acquire(n, callback);
+      return UIO.exec(cancel::run);
+    });
+  }
+
+  public UIO<Boolean> tryAcquire() {
+    return tryAcquireN(1);
+  }
+
+  public UIO<Boolean> tryAcquireN(int n) {
+    checkPositive(n);
+    return UIO.task(() -> permits.tryAcquire(n));
+  }
+
+  public UIO<Unit> release() {
+    return releaseN(1);
+  }
+
+  public UIO<Unit> releaseN(int n) {
+    checkPositive(n);
+    return UIO.exec(() -> permits.release(n));
+  }
+
+  public <R, E, A> PureIO<R, E, A> withPermit(PureIO<R, E, ? extends A> effect) {
+    return withPermits(1, effect);
+  }
+
+  /**
+   * Runs the effect after acquiring the permits, and releases them when the effect ends,
+   * even if it fails or is cancelled.
+   */
+  public <R, E, A> PureIO<R, E, A> withPermits(int n, PureIO<R, E, ? extends A> effect) {
+    checkNonNull(effect);
+    Function1<Unit, PureIO<R, E, Unit>> release = ignore -> releaseN(n).toPureIO();
+    return PureIO.bracket(acquireN(n).<R, E>toPureIO(), ignore -> effect, release);
+  }
+
+  public <A> UIO<A> withPermit(UIO<? extends A> effect) {
+    return withPermits(1, effect);
+  }
+
+  public <A> UIO<A> withPermits(int n, UIO<? extends A> effect) {
+    return new UIO<>(withPermits(n, effect.<Void, Void>toPureIO()));
+  }
+
+  public <A> Task<A> withPermit(Task<? extends A> effect) {
+    return withPermits(1, effect);
+  }
+
+  public <A> Task<A> withPermits(int n, Task<? extends A> effect) {
+    return new Task<>(withPermits(n, effect.<Void>toPureIO()));
+  }
+
+  @Override
+  public String toString() {
+    return "Semaphore(" + permits.available() + ")";
+  }
+
+  public static UIO<Semaphore> make(int permits) {
+    return make(permits, true);
+  }
+
+  public static UIO<Semaphore> make(int permits, boolean fair) {
+    return UIO.task(() -> of(permits, fair));
+  }
+
+  public static Semaphore of(int permits) {
+    return of(permits, true);
+  }
+
+  public static Semaphore of(int permits, boolean fair) {
+    return new Semaphore(permits, fair);
+  }
+}
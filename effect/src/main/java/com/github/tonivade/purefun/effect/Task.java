@@ -21,6 +21,9 @@ import com.github.tonivade.purefun.core.Consumer1;
 import com.github.tonivade.purefun.core.Effect;
 import com.github.tonivade.purefun.core.Function1;
 import com.github.tonivade.purefun.core.Function2;
+import com.github.tonivade.purefun.core.Function3;
+import com.github.tonivade.purefun.core.Function4;
+import com.github.tonivade.purefun.core.Function5;
 import com.github.tonivade.purefun.core.Producer;
 import com.github.tonivade.purefun.core.Recoverable;
 import com.github.tonivade.purefun.core.Tuple;
@@ -39,6 +42,20 @@ public final class Task<A> implements TaskOf<A>, Effect<Task<?>, A>, Recoverable
 
   private static final Task<Unit> UNIT = new Task<>(PureIO.unit());
 
+  private static final FunctionK<PureIO<Void, Throwable, ?>, Task<?>> FROM_PURE_IO = new FunctionK<>() {
+    @Override
+    public <T> Task<T> apply(Kind<PureIO<Void, Throwable, ?>, ? extends T> from) {
+      return new Task<>(from.fix(PureIOOf::toPureIO));
+    }
+  };
+
+  private static final FunctionK<Task<?>, PureIO<Void, Throwable, ?>> TO_PURE_IO = new FunctionK<>() {
+    @Override
+    public <T> PureIO<Void, Throwable, T> apply(Kind<Task<?>, ? extends T> from) {
+      return TaskOf.<T>toTask(from).instance;
+    }
+  };
+
   private final PureIO<Void, Throwable, A> instance;
 
   Task(PureIO<Void, Throwable, A> value) {
@@ -81,15 +98,12 @@ public final class Task<A> implements TaskOf<A>, Effect<Task<?>, A>, Recoverable
 
   @Override
   public <B> Task<B> map(Function1<? super A, ? extends B> map) {
-    return flatMap(lift(map));
+    return new Task<>(instance.map(map));
   }
 
   @Override
   public <B> Task<B> flatMap(Function1<? super A, ? extends Kind<Task<?>, ? extends B>> map) {
-    return new Task<>(instance.flatMap(value -> {
-      Task<? extends B> apply = map.andThen(TaskOf::toTask).apply(value);
-      return apply.instance;
-    }));
+    return new Task<>(new PureIO.FlatMapped<>(instance, Task::raiseError, map, TO_PURE_IO));
   }
 
   @Override
@@ -105,9 +119,7 @@ public final class Task<A> implements TaskOf<A>, Effect<Task<?>, A>, Recoverable
   public <B> Task<B> foldM(
       Function1<? super Throwable, ? extends Kind<Task<?>, ? extends B>> mapError,
       Function1<? super A, ? extends Kind<Task<?>, ? extends B>> map) {
-    return new Task<>(instance.foldM(
-        error -> mapError.andThen(TaskOf::toTask).apply(error).instance,
-        value -> map.andThen(TaskOf::toTask).apply(value).instance));
+    return new Task<>(new PureIO.FlatMapped<>(instance, mapError, map, TO_PURE_IO));
   }
 
   public <B> UIO<B> fold(
@@ -155,12 +167,7 @@ public final class Task<A> implements TaskOf<A>, Effect<Task<?>, A>, Recoverable
   }
 
   public Task<Fiber<Task<?>, A>> fork() {
-    return new Task<>(instance.fork().map(f -> f.mapK(new FunctionK<>() {
-      @Override
-      public <T> Task<T> apply(Kind<PureIO<Void, Throwable, ?>, ? extends T> from) {
-        return new Task<>(from.fix(PureIOOf::toPureIO));
-      }
-    })));
+    return new Task<>(instance.fork().map(f -> f.mapK(FROM_PURE_IO)));
   }
 
   @Override
@@ -233,6 +240,52 @@ public final class Task<A> implements TaskOf<A>, Effect<Task<?>, A>, Recoverable
     return new Task<>(PureIO.parMap2(executor, za.fix(TaskOf::toTask).instance, zb.fix(TaskOf::toTask).instance, mapper));
   }
 
+  public static <A, B, C, D> Task<D> parMap3(Kind<Task<?>, ? extends A> za, Kind<Task<?>, ? extends B> zb,
+      Kind<Task<?>, ? extends C> zc, Function3<? super A, ? super B, ? super C, ? extends D> mapper) {
+    return parMap3(Future.DEFAULT_EXECUTOR, za, zb, zc, mapper);
+  }
+
+  public static <A, B, C, D> Task<D> parMap3(Executor executor, Kind<Task<?>, ? extends A> za, Kind<Task<?>, ? extends B> zb,
+      Kind<Task<?>, ? extends C> zc, Function3<? super A, ? super B, ? super C, ? extends D> mapper) {
+    return new Task<>(PureIO.parMap3(executor, za.fix(TaskOf::toTask).instance, zb.fix(TaskOf::toTask).instance,
+        zc.fix(TaskOf::toTask).instance, mapper));
+  }
+
+  public static <A, B, C, D, E> Task<E> parMap4(Kind<Task<?>, ? extends A> za, Kind<Task<?>, ? extends B> zb,
+      Kind<Task<?>, ? extends C> zc, Kind<Task<?>, ? extends D> zd,
+      Function4<? super A, ? super B, ? super C, ? super D, ? extends E> mapper) {
+    return parMap4(Future.DEFAULT_EXECUTOR, za, zb, zc, zd, mapper);
+  }
+
+  public static <A, B, C, D, E> Task<E> parMap4(Executor executor, Kind<Task<?>, ? extends A> za, Kind<Task<?>, ? extends B> zb,
+      Kind<Task<?>, ? extends C> zc, Kind<Task<?>, ? extends D> zd,
+      Function4<? super A, ? super B, ? super C, ? super D, ? extends E> mapper) {
+    return new Task<>(PureIO.parMap4(executor, za.fix(TaskOf::toTask).instance, zb.fix(TaskOf::toTask).instance,
+        zc.fix(TaskOf::toTask).instance, zd.fix(TaskOf::toTask).instance, mapper));
+  }
+
+  public static <A, B, C, D, E, F> Task<F> parMap5(Kind<Task<?>, ? extends A> za, Kind<Task<?>, ? extends B> zb,
+      Kind<Task<?>, ? extends C> zc, Kind<Task<?>, ? extends D> zd, Kind<Task<?>, ? extends E> ze,
+      Function5<? super A, ? super B, ? super C, ? super D, ? super E, ? extends F> mapper) {
+    return parMap5(Future.DEFAULT_EXECUTOR, za, zb, zc, zd, ze, mapper);
+  }
+
+  public static <A, B, C, D, E, F> Task<F> parMap5(Executor executor, Kind<Task<?>, ? extends A> za, Kind<Task<?>, ? extends B> zb,
+      Kind<Task<?>, ? extends C> zc, Kind<Task<?>, ? extends D> zd, Kind<Task<?>, ? extends E> ze,
+      Function5<? super A, ? super B, ? super C, ? super D, ? super E, ? extends F> mapper) {
+    return new Task<>(PureIO.parMap5(executor, za.fix(TaskOf::toTask).instance, zb.fix(TaskOf::toTask).instance,
+        zc.fix(TaskOf::toTask).instance, zd.fix(TaskOf::toTask).instance, ze.fix(TaskOf::toTask).instance, mapper));
+  }
+
+  public static <A> Task<A> raceAll(Sequence<? extends Kind<Task<?>, ? extends A>> sequence) {
+    return raceAll(Future.DEFAULT_EXECUTOR, sequence);
+  }
+
+  public static <A> Task<A> raceAll(Executor executor, Sequence<? extends Kind<Task<?>, ? extends A>> sequence) {
+    Sequence<PureIO<Void, Throwable, ? extends A>> instances = sequence.map(task -> task.fix(TaskOf::toTask).instance);
+    return new Task<>(PureIO.raceAll(executor, instances));
+  }
+
   public static <A, B> Task<Either<A, B>> race(Kind<Task<?>, ? extends A> fa, Kind<Task<?>, ? extends B> fb) {
     return race(Future.DEFAULT_EXECUTOR, fa, fb);
   }
@@ -248,17 +301,7 @@ public final class Task<A> implements TaskOf<A>, Effect<Task<?>, A>, Recoverable
     PureIO<Void, Throwable, A> instance1 = fa.fix(TaskOf::toTask).instance.fix(PureIOOf::toPureIO);
     PureIO<Void, Throwable, B> instance2 = fb.fix(TaskOf::toTask).instance.fix(PureIOOf::toPureIO);
     return new Task<>(PureIO.racePair(executor, instance1, instance2).map(
-      either -> either.bimap(a -> a.map2(f -> f.mapK(new FunctionK<>() {
-        @Override
-        public <T> Task<T> apply(Kind<PureIO<Void, Throwable, ?>, ? extends T> from) {
-          return new Task<>(from.fix(PureIOOf::toPureIO));
-        }
-      })), b -> b.map1(f -> f.mapK(new FunctionK<>() {
-        @Override
-        public <T> Task<T> apply(Kind<PureIO<Void, Throwable, ?>, ? extends T> from) {
-          return new Task<>(from.fix(PureIOOf::toPureIO));
-        }
-      })))));
+      either -> either.bimap(a -> a.map2(f -> f.mapK(FROM_PURE_IO)), b -> b.map1(f -> f.mapK(FROM_PURE_IO)))));
   }
 
   public static <A> Task<A> absorb(Task<Either<Throwable, A>> value) {
@@ -329,6 +372,14 @@ public final class Task<A> implements TaskOf<A>, Effect<Task<?>, A>, Recoverable
     return new Task<>(PureIO.task(task));
   }
 
+  public static <A> Task<A> blocking(Producer<? extends A> task) {
+    return new Task<>(PureIO.blocking(task));
+  }
+
+  public static <A> Task<A> blocking(Executor executor, Producer<? extends A> task) {
+    return new Task<>(PureIO.blocking(executor, task));
+  }
+
   public static <A> Task<A> never() {
     return async(cb -> {});
   }
@@ -41,6 +41,20 @@ public final class UIO<A> implements UIOOf<A>, Effect<UIO<?>, A>, Recoverable {
 
   private static final UIO<Unit> UNIT = new UIO<>(PureIO.unit());
 
+  private static final FunctionK<PureIO<Void, Void, ?>, UIO<?>> FROM_PURE_IO = new FunctionK<>() {
+    @Override
+    public <T> UIO<T> apply(Kind<PureIO<Void, Void, ?>, ? extends T> from) {
+      return new UIO<>(from.fix(PureIOOf::toPureIO));
+    }
+  };
+
+  private static final FunctionK<UIO<?>, PureIO<Void, Void, ?>> TO_PURE_IO = new FunctionK<>() {
+    @Override
+    public <T> PureIO<Void, Void, T> apply(Kind<UIO<?>, ? extends T> from) {
+      return UIOOf.<T>toUIO(from).instance;
+    }
+  };
+
   private final PureIO<Void, Void, A> instance;
 
   UIO(PureIO<Void, Void, A> value) {
@@ -102,10 +116,7 @@ public final class UIO<A> implements UIOOf<A>, Effect<UIO<?>, A>, Recoverable {
 
   @Override
   public <B> UIO<B> flatMap(Function1<? super A, ? extends Kind<UIO<?>, ? extends B>> map) {
-    return new UIO<>(instance.flatMap(x -> {
-      UIO<? extends B> apply = map.andThen(UIOOf::toUIO).apply(x);
-      return apply.instance;
-    }));
+    return new UIO<>(new PureIO.FlatMapped<>(instance, UIO::reraise, map, TO_PURE_IO));
   }
 
   @Override
@@ -140,9 +151,7 @@ public final class UIO<A> implements UIOOf<A>, Effect<UIO<?>, A>, Recoverable {
   public <B> UIO<B> redeemWith(
       Function1<? super Throwable, ? extends Kind<UIO<?>, ? extends B>> mapError,
       Function1<? super A, ? extends Kind<UIO<?>, ? extends B>> map) {
-    return new UIO<>(PureIO.redeem(instance).foldM(
-        error -> mapError.andThen(UIOOf::toUIO).apply(error).instance,
-        value -> map.andThen(UIOOf::toUIO).apply(value).instance));
+    return new UIO<>(new PureIO.FlatMapped<>(PureIO.redeem(instance), mapError, map, TO_PURE_IO));
   }
 
   @Override
@@ -167,12 +176,7 @@ public final class UIO<A> implements UIOOf<A>, Effect<UIO<?>, A>, Recoverable {
   }
 
   public UIO<Fiber<UIO<?>, A>> fork() {
-    return new UIO<>(instance.fork().map(f -> f.mapK(new FunctionK<>() {
-      @Override
-      public <T> UIO<T> apply(Kind<PureIO<Void, Void, ?>, ? extends T> from) {
-        return new UIO<>(from.fix(PureIOOf::toPureIO));
-      }
-    })));
+    return new UIO<>(instance.fork().map(f -> f.mapK(FROM_PURE_IO)));
   }
 
   @Override
@@ -260,17 +264,7 @@ public final class UIO<A> implements UIOOf<A>, Effect<UIO<?>, A>, Recoverable {
     PureIO<Void, Void, A> instance1 = fa.fix(UIOOf::toUIO).instance.fix(PureIOOf::toPureIO);
     PureIO<Void, Void, B> instance2 = fb.fix(UIOOf::toUIO).instance.fix(PureIOOf::toPureIO);
     return new UIO<>(PureIO.racePair(executor, instance1, instance2).map(
-      either -> either.bimap(a -> a.map2(f -> f.mapK(new FunctionK<>() {
-        @Override
-        public <T> UIO<T> apply(Kind<PureIO<Void, Void, ?>, ? extends T> from) {
-          return new UIO<>(from.fix(PureIOOf::toPureIO));
-        }
-      })), b -> b.map1(f -> f.mapK(new FunctionK<>() {
-        @Override
-        public <T> UIO<T> apply(Kind<PureIO<Void, Void, ?>, ? extends T> from) {
-          return new UIO<>(from.fix(PureIOOf::toPureIO));
-        }
-      })))));
+      either -> either.bimap(a -> a.map2(f -> f.mapK(FROM_PURE_IO)), b -> b.map1(f -> f.mapK(FROM_PURE_IO)))));
   }
 
   public static <A, B> Function1<A, UIO<B>> lift(Function1<? super A, ? extends B> function) {
@@ -301,6 +295,12 @@ public final class UIO<A> implements UIOOf<A>, Effect<UIO<?>, A>, Recoverable {
     return fold(PureIO.exec(task));
   }
 
+  // an UIO never fails with a typed error, the error continuation of flatMap only keeps the types
+  @SuppressWarnings("VoidUsed")
+  private static <A> UIO<A> reraise(Void error) {
+    return new UIO<>(PureIO.raiseError(error));
+  }
+
   public static <A> UIO<A> pure(A value) {
     return new UIO<>(PureIO.pure(value));
   }
@@ -317,6 +317,14 @@ public final class UIO<A> implements UIOOf<A>, Effect<UIO<?>, A>, Recoverable {
     return fold(PureIO.task(task));
   }
 
+  public static <A> UIO<A> blocking(Producer<? extends A> task) {
+    return fold(PureIO.blocking(task));
+  }
+
+  public static <A> UIO<A> blocking(Executor executor, Producer<? extends A> task) {
+    return fold(PureIO.blocking(executor, task));
+  }
+
   public static <T> UIO<T> fromOption(Option<? extends T> task) {
     return fromEither(task.toEither());
   }
@@ -40,6 +40,20 @@ public final class URIO<R, A> implements URIOOf<R, A>, Effect<URIO<R, ?>, A>, Re
 
   private static final URIO<?, Unit> UNIT = new URIO<>(PureIO.unit());
 
+  private static final FunctionK<?, ?> FROM_PURE_IO = new FunctionK<PureIO<Object, Void, ?>, URIO<Object, ?>>() {
+    @Override
+    public <T> URIO<Object, T> apply(Kind<PureIO<Object, Void, ?>, ? extends T> from) {
+      return new URIO<>(from.fix(PureIOOf::toPureIO));
+    }
+  };
+
+  private static final FunctionK<?, ?> TO_PURE_IO = new FunctionK<URIO<Object, ?>, PureIO<Object, Void, ?>>() {
+    @Override
+    public <T> PureIO<Object, Void, T> apply(Kind<URIO<Object, ?>, ? extends T> from) {
+      return URIOOf.<Object, T>toURIO(from).instance;
+    }
+  };
+
   private final PureIO<R, Void, A> instance;
 
   URIO(PureIO<R, Void, A> value) {
@@ -87,10 +101,7 @@ public final class URIO<R, A> implements URIOOf<R, A>, Effect<URIO<R, ?>, A>, Re
 
   @Override
   public <B> URIO<R, B> flatMap(Function1<? super A, ? extends Kind<URIO<R, ?>, ? extends B>> map) {
-    return new URIO<>(instance.flatMap(x -> {
-      URIO<R, ? extends B> apply = map.andThen(URIOOf::toURIO).apply(x);
-      return apply.instance;
-    }));
+    return new URIO<>(new PureIO.FlatMapped<>(instance, URIO::reraise, map, URIO.<R>unwrap()));
   }
 
   @Override
@@ -126,9 +137,7 @@ public final class URIO<R, A> implements URIOOf<R, A>, Effect<URIO<R, ?>, A>, Re
   public <B> URIO<R, B> redeemWith(
       Function1<? super Throwable, ? extends Kind<URIO<R, ?>, ? extends B>> mapError,
       Function1<? super A, ? extends Kind<URIO<R, ?>, ? extends B>> map) {
-    return new URIO<>(PureIO.redeem(instance).foldM(
-        error -> mapError.andThen(URIOOf::toURIO).apply(error).instance,
-        value -> map.andThen(URIOOf::toURIO).apply(value).instance));
+    return new URIO<>(new PureIO.FlatMapped<>(PureIO.redeem(instance), mapError, map, URIO.<R>unwrap()));
   }
 
   @Override
@@ -153,12 +162,7 @@ public final class URIO<R, A> implements URIOOf<R, A>, Effect<URIO<R, ?>, A>, Re
   }
 
   public URIO<R, Fiber<URIO<R, ?>, A>> fork() {
-    return new URIO<>(instance.fork().map(f -> f.mapK(new FunctionK<>() {
-      @Override
-      public <T> URIO<R, T> apply(Kind<PureIO<R, Void, ?>, ? extends T> from) {
-        return new URIO<>(from.fix(PureIOOf::toPureIO));
-      }
-    })));
+    return new URIO<>(instance.fork().map(f -> f.mapK(fromPureIO())));
   }
 
   @Override
@@ -258,17 +262,7 @@ public final class URIO<R, A> implements URIOOf<R, A>, Effect<URIO<R, ?>, A>, Re
     PureIO<R, Void, A> instance1 = fa.fix(URIOOf::toURIO).instance.fix(PureIOOf::toPureIO);
     PureIO<R, Void, B> instance2 = fb.fix(URIOOf::toURIO).instance.fix(PureIOOf::toPureIO);
     return new URIO<>(PureIO.racePair(executor, instance1, instance2).map(
-      either -> either.bimap(a -> a.map2(f -> f.mapK(new FunctionK<>() {
-        @Override
-        public <T> URIO<R, T> apply(Kind<PureIO<R, Void, ?>, ? extends T> from) {
-          return new URIO<>(from.fix(PureIOOf::toPureIO));
-        }
-      })), b -> b.map1(f -> f.mapK(new FunctionK<>() {
-        @Override
-        public <T> URIO<R, T> apply(Kind<PureIO<R, Void, ?>, ? extends T> from) {
-          return new URIO<>(from.fix(PureIOOf::toPureIO));
-        }
-      })))));
+      either -> either.bimap(a -> a.map2(f -> f.mapK(fromPureIO())), b -> b.map1(f -> f.mapK(fromPureIO())))));
   }
 
   public static <R, A, B> Function1<A, URIO<R, B>> lift(Function1<? super A, ? extends B> function) {
@@ -299,6 +293,12 @@ public final class URIO<R, A> implements URIOOf<R, A>, Effect<URIO<R, ?>, A>, Re
     return fold(PureIO.exec(task));
   }
 
+  // an URIO never fails with a typed error, the error continuation of flatMap only keeps the types
+  @SuppressWarnings("VoidUsed")
+  private static <R, A> URIO<R, A> reraise(Void error) {
+    return new URIO<>(PureIO.raiseError(error));
+  }
+
   public static <R, A> URIO<R, A> pure(A value) {
     return new URIO<>(PureIO.pure(value));
   }
@@ -373,6 +373,16 @@ public final class URIO<R, A> implements URIOOf<R, A>, Effect<URIO<R, ?>, A>, Re
     return (URIO<R, Unit>) UNIT;
   }
 
+  @SuppressWarnings("unchecked")
+  private static <R> FunctionK<URIO<R, ?>, PureIO<R, Void, ?>> unwrap() {
+    return (FunctionK<URIO<R, ?>, PureIO<R, Void, ?>>) TO_PURE_IO;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <R> FunctionK<PureIO<R, Void, ?>, URIO<R, ?>> fromPureIO() {
+    return (FunctionK<PureIO<R, Void, ?>, URIO<R, ?>>) FROM_PURE_IO;
+  }
+
   private static <R, A> URIO<R, A> fold(PureIO<R, Throwable, A> zio) {
     return new URIO<>(zio.foldM(error -> URIO.<R, A>raiseError(error).instance, value -> URIO.<R, A>pure(value).instance));
   }
@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2018-2024, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.purefun.effect;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.tonivade.purefun.concurrent.Future;
+import com.github.tonivade.purefun.core.Unit;
+
+public class CountDownLatchTest {
+
+  @Test
+  public void awaitUntilZero() {
+    CountDownLatch latch = CountDownLatch.of(2);
+
+    Future<Unit> await = latch.await().runAsync();
+
+    latch.countDown().unsafeRunSync();
+    UIO.sleep(Duration.ofMillis(50)).unsafeRunSync();
+
+    assertFalse(await.isCompleted());
+    assertEquals(1, latch.count().unsafeRunSync());
+
+    latch.countDown().unsafeRunSync();
+
+    assertEquals(Unit.unit(), await.getOrElseThrow());
+    assertEquals(0, latch.count().unsafeRunSync());
+  }
+
+  @Test
+  public void countDownAfterZero() {
+    UIO<Integer> result = CountDownLatch.make(1).flatMap(
+        latch -> latch.countDown().andThen(latch.countDown()).andThen(latch.await()).andThen(latch.count()));
+
+    assertEquals(0, result.unsafeRunSync());
+  }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2018-2024, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.purefun.effect;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.tonivade.purefun.concurrent.Future;
+import com.github.tonivade.purefun.data.ImmutableArray;
+
+public class CounterTest {
+
+  @Test
+  public void increment() {
+    Counter counter = Counter.make().unsafeRunSync();
+
+    UIO<Long> result = counter.increment().andThen(counter.increment()).andThen(counter.decrement()).andThen(counter.sum());
+
+    assertEquals(1L, result.unsafeRunSync());
+  }
+
+  @Test
+  public void add() {
+    Counter counter = Counter.make().unsafeRunSync();
+
+    UIO<Long> result = counter.add(10).andThen(counter.add(-3)).andThen(counter.sum());
+
+    assertEquals(7L, result.unsafeRunSync());
+  }
+
+  @Test
+  public void sumThenReset() {
+    Counter counter = Counter.make().unsafeRunSync();
+
+    UIO<Long> result = counter.add(10).andThen(counter.sumThenReset());
+
+    assertEquals(10L, result.unsafeRunSync());
+    assertEquals(0L, counter.sum().unsafeRunSync());
+  }
+
+  @Test
+  public void incrementConcurrently() {
+    Counter counter = Counter.make().unsafeRunSync();
+
+    Future.allOf(ImmutableArray.from(IntStream.range(0, 64)
+        .mapToObj(i -> UIO.traverse(ImmutableArray.from(IntStream.range(0, 100).mapToObj(j -> counter.increment()))).runAsync())))
+      .getOrElseThrow();
+
+    assertEquals(6400L, counter.sum().unsafeRunSync());
+  }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2018-2024, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.purefun.effect;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.tonivade.purefun.concurrent.Future;
+import com.github.tonivade.purefun.type.Option;
+
+public class DeferredTest {
+
+  @Test
+  public void completeAndGet() {
+    UIO<String> result = Deferred.<String>make()
+        .flatMap(deferred -> deferred.complete("hola").andThen(deferred.get()));
+
+    assertEquals("hola", result.unsafeRunSync());
+  }
+
+  @Test
+  public void getSuspendsUntilComplete() {
+    Deferred<String> deferred = Deferred.of();
+
+    Future<String> first = deferred.get().runAsync();
+    Future<String> second = deferred.get().toTask().runAsync();
+    UIO.sleep(Duration.ofMillis(50)).unsafeRunSync();
+
+    assertFalse(first.isCompleted());
+    assertFalse(second.isCompleted());
+
+    deferred.complete("hola").unsafeRunSync();
+
+    assertEquals("hola", first.getOrElseThrow());
+    assertEquals("hola", second.getOrElseThrow());
+  }
+
+  @Test
+  public void completeOnlyOnce() {
+    Deferred<String> deferred = Deferred.of();
+
+    assertAll(
+        () -> assertEquals(Option.none(), deferred.tryGet().unsafeRunSync()),
+        () -> assertTrue(deferred.complete("hola").unsafeRunSync()),
+        () -> assertFalse(deferred.complete("adios").unsafeRunSync()),
+        () -> assertEquals(Option.some("hola"), deferred.tryGet().unsafeRunSync()));
+  }
+
+  @Test
+  public void cancelledWaiterIsRemoved() {
+    Deferred<String> deferred = Deferred.of();
+
+    UIO<String> get = deferred.get().timeout(Duration.ofMillis(50)).recover(error -> "timeout");
+
+    assertEquals("timeout", get.unsafeRunSync());
+    // cancellation is asynchronous
+    UIO.sleep(Duration.ofMillis(50)).unsafeRunSync();
+    assertEquals(0, deferred.waiting());
+  }
+}
@@ -171,8 +171,6 @@ public class EIOTest {
   @Test
   public void retry(@Mock Producer<String> computation) {
     when(computation.get()).thenThrow(UnsupportedOperationException.class);
-    when(computation.liftTry()).thenCallRealMethod();
-    when(computation.liftEither()).thenCallRealMethod();
 
     Either<Throwable, String> retry = task(computation).retry().safeRunSync();
 
@@ -183,8 +181,6 @@ public class EIOTest {
   @Test
   public void repeat(@Mock Producer<String> computation) {
     when(computation.get()).thenReturn("hola");
-    when(computation.liftTry()).thenCallRealMethod();
-    when(computation.liftEither()).thenCallRealMethod();
 
     Either<Throwable, String> repeat = task(computation).repeat().safeRunSync();
 
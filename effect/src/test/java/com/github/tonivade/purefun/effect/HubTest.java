@@ -0,0 +1,213 @@
+/*
+ * Copyright (c) 2018-2024, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.purefun.effect;
+
+import static com.github.tonivade.purefun.data.Sequence.arrayOf;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.tonivade.purefun.concurrent.Future;
+import com.github.tonivade.purefun.data.ImmutableArray;
+import com.github.tonivade.purefun.data.Sequence;
+import com.github.tonivade.purefun.type.Option;
+import com.github.tonivade.purefun.typeclasses.Fiber;
+
+public class HubTest {
+
+  @Test
+  public void publishAndTake() {
+    UIO<String> result = Hub.<String>bounded(10).flatMap(hub -> new UIO<>(
+        hub.<Void, Void>subscribe().use(subscription ->
+            hub.publish("hola").andThen(subscription.take()).toPureIO())));
+
+    assertEquals("hola", result.unsafeRunSync());
+  }
+
+  @Test
+  public void everySubscriberReceivesAllTheMessages() {
+    Hub<Integer> hub = Hub.<Integer>bounded(4).unsafeRunSync();
+
+    ImmutableArray<Future<ImmutableArray<Integer>>> subscribers = ImmutableArray.from(IntStream.range(0, 10)
+        .mapToObj(i -> new UIO<>(hub.<Void, Void>subscribe().use(subscription ->
+            subscription.take().flatMap(a -> subscription.take().flatMap(b -> subscription.take().map(c -> arrayOf(a, b, c))))
+              .toPureIO())).runAsync()));
+
+    UIO.sleep(Duration.ofMillis(100)).unsafeRunSync();
+
+    assertEquals(10, hub.subscribers().unsafeRunSync());
+    assertTrue(hub.publishAll(arrayOf(1, 2, 3)).unsafeRunSync());
+
+    for (Future<ImmutableArray<Integer>> subscriber : subscribers) {
+      assertEquals(arrayOf(1, 2, 3), subscriber.getOrElseThrow());
+    }
+    assertEquals(0, hub.subscribers().unsafeRunSync());
+    assertEquals(0, hub.size().unsafeRunSync());
+  }
+
+  @Test
+  public void backpressureWithManySubscribers() {
+    Hub<Integer> hub = Hub.<Integer>bounded(4).unsafeRunSync();
+
+    ImmutableArray<Future<Integer>> subscribers = ImmutableArray.from(IntStream.range(0, 5)
+        .mapToObj(i -> new UIO<>(hub.<Void, Void>subscribe().use(subscription ->
+            sum(subscription, 1000, 0).toPureIO())).runAsync()));
+
+    UIO.sleep(Duration.ofMillis(100)).unsafeRunSync();
+
+    Future.allOf(ImmutableArray.from(IntStream.range(0, 10)
+        .mapToObj(i -> hub.publishAll(ImmutableArray.from(IntStream.range(0, 100).boxed())).runAsync())))
+      .getOrElseThrow();
+
+    for (Future<Integer> subscriber : subscribers) {
+      assertEquals(49500, subscriber.getOrElseThrow());
+    }
+  }
+
+  @Test
+  public void takeSuspendsUntilPublish() {
+    Hub<String> hub = Hub.<String>bounded(10).unsafeRunSync();
+
+    Future<String> take = new UIO<>(hub.<Void, Void>subscribe().use(subscription -> subscription.take().toPureIO())).runAsync();
+    UIO.sleep(Duration.ofMillis(50)).unsafeRunSync();
+
+    assertFalse(take.isCompleted());
+
+    hub.publish("hola").unsafeRunSync();
+
+    assertEquals("hola", take.getOrElseThrow());
+  }
+
+  @Test
+  public void withoutSubscribersMessagesAreDiscarded() {
+    Hub<String> hub = Hub.<String>bounded(1).unsafeRunSync();
+
+    assertAll(
+        () -> assertTrue(hub.publishAll(arrayOf("a", "b", "c")).unsafeRunSync()),
+        () -> assertEquals(0, hub.size().unsafeRunSync()));
+  }
+
+  @Test
+  public void bounded() {
+    Hub<Integer> hub = Hub.<Integer>bounded(2).unsafeRunSync();
+
+    UIO<Sequence<Integer>> program = new UIO<>(hub.<Void, Void>subscribe().use(subscription -> {
+      Future<Boolean> publish = hub.publishAll(arrayOf(1, 2, 3)).runAsync();
+      return UIO.sleep(Duration.ofMillis(50))
+          .flatMap(ignore -> {
+            assertFalse(publish.isCompleted());
+            return subscription.take();
+          })
+          .flatMap(first -> UIO.fromTry(publish.await()).andThen(subscription.takeUpTo(10))
+              .map(rest -> arrayOf(first).appendAll(rest)))
+          .toPureIO();
+    }));
+
+    assertEquals(arrayOf(1, 2, 3), program.unsafeRunSync());
+  }
+
+  @Test
+  public void dropping() {
+    Hub<Integer> hub = Hub.<Integer>dropping(2).unsafeRunSync();
+
+    UIO<Sequence<Integer>> program = new UIO<>(hub.<Void, Void>subscribe().use(subscription ->
+        hub.publishAll(arrayOf(1, 2)).flatMap(accepted -> {
+          assertTrue(accepted);
+          return hub.publish(3);
+        }).flatMap(accepted -> {
+          assertFalse(accepted);
+          return subscription.takeUpTo(10);
+        }).toPureIO()));
+
+    assertEquals(arrayOf(1, 2), program.unsafeRunSync());
+  }
+
+  @Test
+  public void sliding() {
+    Hub<Integer> hub = Hub.<Integer>sliding(2).unsafeRunSync();
+
+    UIO<Sequence<Integer>> program = new UIO<>(hub.<Void, Void>subscribe().use(subscription ->
+        hub.publishAll(arrayOf(1, 2, 3)).andThen(subscription.takeUpTo(10)).toPureIO()));
+
+    assertEquals(arrayOf(2, 3), program.unsafeRunSync());
+  }
+
+  @Test
+  public void slowSubscriberDoesNotLoseMessages() {
+    Hub<Integer> hub = Hub.<Integer>bounded(2).unsafeRunSync();
+
+    UIO<Option<Integer>> program = new UIO<>(hub.<Void, Void>subscribe().use(fast ->
+        hub.<Void, Void>subscribe().use(slow ->
+          hub.publishAll(arrayOf(1, 2)).andThen(fast.takeUpTo(10)).andThen(slow.poll()).toPureIO())));
+
+    assertEquals(Option.some(1), program.unsafeRunSync());
+  }
+
+  @Test
+  public void cancelTake() {
+    Hub<String> hub = Hub.<String>bounded(10).unsafeRunSync();
+
+    UIO<Sequence<String>> program = new UIO<>(hub.<Void, Void>subscribe().use(subscription ->
+        subscription.take().timeout(Duration.ofMillis(50)).recover(error -> "timeout")
+          .andThen(UIO.sleep(Duration.ofMillis(50)))
+          .andThen(hub.publish("hola"))
+          .andThen(subscription.takeUpTo(10)).toPureIO()));
+
+    assertEquals(arrayOf("hola"), program.unsafeRunSync());
+  }
+
+  @Test
+  public void cancelTakeDoesNotLoseMessages() {
+    int rounds = 1_000;
+    Hub<Integer> hub = Hub.<Integer>bounded(rounds).unsafeRunSync();
+    Set<Integer> received = ConcurrentHashMap.newKeySet();
+
+    UIO<Integer> program = new UIO<>(hub.<Void, Void>subscribe().use(subscription -> UIO.task(() -> {
+      for (int i = 0; i < rounds; i++) {
+        Fiber<UIO<?>, Integer> fiber =
+            subscription.take().map(value -> { received.add(value); return value; }).fork().unsafeRunSync();
+        Future<Boolean> publish = hub.publish(i).runAsync();
+        fiber.cancel().fix(UIOOf::toUIO).unsafeRunSync();
+        publish.getOrElseThrow();
+      }
+      int remaining = subscription.takeUpTo(rounds).unsafeRunSync().size();
+
+      // the takers that won the race complete asynchronously
+      for (int i = 0; i < 100 && received.size() + remaining < rounds; i++) {
+        Thread.sleep(10);
+      }
+      return received.size() + remaining;
+    }).toPureIO()));
+
+    assertEquals(rounds, program.unsafeRunSync());
+  }
+
+  @Test
+  public void unsubscribeReleasesMessages() {
+    Hub<Integer> hub = Hub.<Integer>bounded(1).unsafeRunSync();
+
+    Integer size = new UIO<>(hub.<Void, Void>subscribe().use(subscription -> hub.publish(1).andThen(hub.size()).toPureIO()))
+        .unsafeRunSync();
+
+    assertEquals(1, size);
+    assertEquals(0, hub.size().unsafeRunSync());
+    assertEquals(0, hub.subscribers().unsafeRunSync());
+  }
+
+  private static UIO<Integer> sum(Hub.Subscription<Integer> subscription, int n, int sum) {
+    if (n == 0) {
+      return UIO.pure(sum);
+    }
+    return subscription.take().flatMap(value -> sum(subscription, n - 1, sum + value));
+  }
+}
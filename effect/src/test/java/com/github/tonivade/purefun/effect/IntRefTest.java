@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2018-2024, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.purefun.effect;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.tonivade.purefun.concurrent.Future;
+import com.github.tonivade.purefun.core.Unit;
+import com.github.tonivade.purefun.data.ImmutableArray;
+
+public class IntRefTest {
+
+  @Test
+  public void get() {
+    IntRef ref = IntRef.of(10);
+
+    assertEquals(10, ref.get().unsafeRunSync());
+  }
+
+  @Test
+  public void set() {
+    IntRef ref = IntRef.of(10);
+
+    UIO<Unit> set = ref.set(20);
+    UIO<Integer> result = set.andThen(ref.get());
+
+    assertEquals(20, result.unsafeRunSync());
+  }
+
+  @Test
+  public void getAndSet() {
+    IntRef ref = IntRef.of(10);
+
+    UIO<Integer> result = ref.getAndSet(20);
+    UIO<Integer> afterUpdate = result.andThen(ref.get());
+
+    assertEquals(10, result.unsafeRunSync());
+    assertEquals(20, afterUpdate.unsafeRunSync());
+  }
+
+  @Test
+  public void add() {
+    IntRef ref = IntRef.of(10);
+
+    assertEquals(11, ref.incrementAndGet().unsafeRunSync());
+    assertEquals(10, ref.decrementAndGet().unsafeRunSync());
+    assertEquals(15, ref.addAndGet(5).unsafeRunSync());
+    assertEquals(15, ref.getAndAdd(5).unsafeRunSync());
+    assertEquals(20, ref.get().unsafeRunSync());
+  }
+
+  @Test
+  public void getAndUpdate() {
+    IntRef ref = IntRef.of(10);
+
+    UIO<Integer> result = ref.getAndUpdate(x -> x * 2);
+    UIO<Integer> afterUpdate = result.andThen(ref.get());
+
+    assertEquals(10, result.unsafeRunSync());
+    assertEquals(40, afterUpdate.unsafeRunSync());
+  }
+
+  @Test
+  public void updateAndGet() {
+    IntRef ref = IntRef.of(10);
+
+    UIO<Integer> result = ref.updateAndGet(x -> x * 2);
+
+    assertEquals(20, result.unsafeRunSync());
+  }
+
+  @Test
+  public void updateConcurrently() {
+    IntRef ref = IntRef.of(0);
+
+    Future.allOf(ImmutableArray.from(IntStream.range(0, 64)
+        .mapToObj(i -> UIO.traverse(ImmutableArray.from(IntStream.range(0, 100).mapToObj(j -> ref.update(x -> x + 1)))).runAsync())))
+      .getOrElseThrow();
+
+    assertEquals(6400, ref.get().unsafeRunSync());
+  }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2018-2024, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.purefun.effect;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.tonivade.purefun.concurrent.Future;
+import com.github.tonivade.purefun.core.Unit;
+import com.github.tonivade.purefun.data.ImmutableArray;
+
+public class LongRefTest {
+
+  @Test
+  public void get() {
+    LongRef ref = LongRef.of(10);
+
+    assertEquals(10L, ref.get().unsafeRunSync());
+  }
+
+  @Test
+  public void set() {
+    LongRef ref = LongRef.of(10);
+
+    UIO<Unit> set = ref.set(20);
+    UIO<Long> result = set.andThen(ref.get());
+
+    assertEquals(20L, result.unsafeRunSync());
+  }
+
+  @Test
+  public void getAndSet() {
+    LongRef ref = LongRef.of(10);
+
+    UIO<Long> result = ref.getAndSet(20);
+    UIO<Long> afterUpdate = result.andThen(ref.get());
+
+    assertEquals(10L, result.unsafeRunSync());
+    assertEquals(20L, afterUpdate.unsafeRunSync());
+  }
+
+  @Test
+  public void add() {
+    LongRef ref = LongRef.of(10);
+
+    assertEquals(11L, ref.incrementAndGet().unsafeRunSync());
+    assertEquals(10L, ref.decrementAndGet().unsafeRunSync());
+    assertEquals(15L, ref.addAndGet(5).unsafeRunSync());
+    assertEquals(15L, ref.getAndAdd(5).unsafeRunSync());
+    assertEquals(20L, ref.get().unsafeRunSync());
+  }
+
+  @Test
+  public void getAndUpdate() {
+    LongRef ref = LongRef.of(10);
+
+    UIO<Long> result = ref.getAndUpdate(x -> x * 2);
+    UIO<Long> afterUpdate = result.andThen(ref.get());
+
+    assertEquals(10L, result.unsafeRunSync());
+    assertEquals(40L, afterUpdate.unsafeRunSync());
+  }
+
+  @Test
+  public void updateAndGet() {
+    LongRef ref = LongRef.of(10);
+
+    UIO<Long> result = ref.updateAndGet(x -> x * 2);
+
+    assertEquals(20L, result.unsafeRunSync());
+  }
+
+  @Test
+  public void updateConcurrently() {
+    LongRef ref = LongRef.of(0);
+
+    Future.allOf(ImmutableArray.from(IntStream.range(0, 64)
+        .mapToObj(i -> UIO.traverse(ImmutableArray.from(IntStream.range(0, 100).mapToObj(j -> ref.update(x -> x + 1)))).runAsync())))
+      .getOrElseThrow();
+
+    assertEquals(6400L, ref.get().unsafeRunSync());
+  }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2018-2024, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.purefun.effect;
+
+import static com.github.tonivade.purefun.type.Either.right;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.tonivade.purefun.data.ImmutableArray;
+
+public class PoolTest {
+
+  private final AtomicInteger created = new AtomicInteger();
+  private final Queue<Integer> released = new ConcurrentLinkedQueue<>();
+
+  private final Managed<Void, Throwable, Integer> factory =
+      Managed.from(PureIO.task(created::incrementAndGet), released::add);
+
+  @Test
+  public void reuse() {
+    PureIO<Void, Throwable, Integer> program = Managed.pool(factory, 0, 2, Duration.ofMinutes(1))
+        .use(pool -> pool.get().use(PureIO::pure).andThen(pool.get().use(PureIO::pure)));
+
+    assertAll(
+        () -> assertEquals(right(1), program.provide(null)),
+        () -> assertEquals(1, created.get()),
+        () -> assertEquals(List.of(1), List.copyOf(released)));
+  }
+
+  @Test
+  public void min() {
+    PureIO<Void, Throwable, Pool.Stats> program = Managed.pool(factory, 3, 5, Duration.ofMinutes(1))
+        .use(pool -> pool.stats().toPureIO());
+
+    Pool.Stats stats = program.provide(null).getRight();
+
+    assertAll(
+        () -> assertEquals(3, stats.size()),
+        () -> assertEquals(3, stats.idle()),
+        () -> assertEquals(0, stats.inUse()),
+        () -> assertEquals(3, released.size()));
+  }
+
+  @Test
+  public void exhausted() {
+    PureIO<Void, Throwable, Pool.Stats> program = Managed.pool(factory, 0, 1, Duration.ofMinutes(1))
+        .use(pool -> PureIO.parMap2(
+            pool.get().use(item -> PureIO.<Void, Throwable>sleep(Duration.ofMillis(100)).map(ignore -> item)),
+            pool.get().use(item -> PureIO.<Void, Throwable>sleep(Duration.ofMillis(100)).map(ignore -> item)),
+            (a, b) -> a + b)
+          .andThen(pool.stats().<Void, Throwable>toPureIO()));
+
+    Pool.Stats stats = program.provide(null).getRight();
+
+    assertAll(
+        () -> assertEquals(1, created.get()),
+        () -> assertEquals(2, stats.checkouts()),
+        () -> assertTrue(stats.waitTime().toMillis() >= 50, stats::toString),
+        () -> assertEquals(0, stats.waiting()));
+  }
+
+  @Test
+  public void concurrent() {
+    PureIO<Void, Throwable, Pool.Stats> program = Managed.pool(factory, 0, 4, Duration.ofMinutes(1))
+        .use(pool -> PureIO.traverse(ImmutableArray.from(IntStream.range(0, 100)
+              .mapToObj(i -> pool.get().use(item -> PureIO.<Void, Throwable>sleep(Duration.ofMillis(5)).map(ignore -> item)))))
+          .andThen(pool.stats().<Void, Throwable>toPureIO()));
+
+    Pool.Stats stats = program.provide(null).getRight();
+
+    assertAll(
+        () -> assertTrue(created.get() <= 4, () -> "created " + created.get()),
+        () -> assertEquals(100, stats.checkouts()),
+        () -> assertEquals(0, stats.inUse()),
+        () -> assertEquals(created.get(), released.size()));
+  }
+
+  @Test
+  public void validate() {
+    PureIO<Void, Throwable, Integer> program = Managed.pool(factory, 1, 1, Duration.ofMinutes(1), item -> item > 1)
+        .use(pool -> pool.get().use(PureIO::pure));
+
+    assertAll(
+        () -> assertEquals(right(2), program.provide(null)),
+        () -> assertEquals(List.of(1, 2), List.copyOf(released)));
+  }
+
+  @Test
+  public void idleTimeout() {
+    PureIO<Void, Throwable, Pool.Stats> program = Managed.pool(factory, 1, 2, Duration.ofMillis(50))
+        .use(pool -> PureIO.parMap2(
+            pool.get().use(item -> PureIO.<Void, Throwable>sleep(Duration.ofMillis(50)).map(ignore -> item)),
+            pool.get().use(item -> PureIO.<Void, Throwable>sleep(Duration.ofMillis(50)).map(ignore -> item)),
+            (a, b) -> a + b)
+          .andThen(PureIO.sleep(Duration.ofMillis(300)))
+          .andThen(pool.stats().<Void, Throwable>toPureIO()));
+
+    Pool.Stats stats = program.provide(null).getRight();
+
+    assertAll(
+        () -> assertEquals(2, created.get()),
+        () -> assertEquals(1, stats.size()),
+        () -> assertEquals(2, released.size()));
+  }
+
+  @Test
+  public void cancelledWaiter() {
+    PureIO<Void, Throwable, Pool.Stats> program = Managed.pool(factory, 0, 1, Duration.ofMinutes(1))
+        .use(pool -> pool.get().use(item -> pool.get().use(PureIO::pure).fork()
+              .flatMap(fiber -> PureIO.<Void, Throwable>sleep(Duration.ofMillis(50))
+                  .andThen(fiber.cancel().fix(PureIOOf::toPureIO)))
+              .andThen(pool.stats().<Void, Throwable>toPureIO()))
+          // the item is not given to the cancelled waiter
+          .flatMap(stats -> pool.get().use(PureIO::pure).map(ignore -> stats)));
+
+    Pool.Stats stats = program.provide(null).getRight();
+
+    assertAll(
+        () -> assertEquals(0, stats.waiting()),
+        () -> assertEquals(1, stats.inUse()),
+        () -> assertEquals(1, created.get()));
+  }
+
+  @Test
+  public void closed() {
+    Pool<Void, Throwable, Integer> pool = Managed.pool(factory, 0, 1, Duration.ofMinutes(1))
+        .use(PureIO::pure).provide(null).getRight();
+
+    PureIO<Void, Throwable, Integer> program = pool.get().use(PureIO::pure);
+
+    assertThrows(IllegalStateException.class, () -> program.provide(null));
+  }
+}
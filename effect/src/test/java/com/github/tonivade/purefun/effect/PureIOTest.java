@@ -7,6 +7,7 @@ package com.github.tonivade.purefun.effect;
 import static com.github.tonivade.purefun.core.Function1.identity;
 import static com.github.tonivade.purefun.data.Sequence.listOf;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.times;
@@ -363,6 +364,56 @@ public class PureIOTest {
     assertEquals(Try.success(705082704), futureSum.await());
   }
 
+  @Test
+  public void stackSafetyTypedErrors() {
+    PureIO<Void, Integer, Integer> program = PureIO.raiseError(0);
+    for (int i = 0; i < 100000; i++) {
+      program = program.flatMapError(error -> PureIO.raiseError(error + 1));
+    }
+
+    Future<Either<Integer, Integer>> future = program.runAsync(null);
+
+    assertEquals(Either.left(100000), program.provide(null));
+    assertEquals(Try.success(Either.left(100000)), future.await());
+  }
+
+  @Test
+  public void taskExceptionIsTypedError() {
+    IllegalStateException error = new IllegalStateException();
+    PureIO<Void, Throwable, String> program = PureIO.<Void, String>task(() -> { throw error; })
+        .map(String::toUpperCase)
+        .flatMapError(e -> PureIO.fromEither(() -> Either.left(e)));
+
+    assertEquals(Either.left(error), program.provide(null));
+    assertEquals(Try.success(Either.left(error)), program.runAsync(null).await());
+  }
+
+  @Test
+  public void cede() {
+    PureIO<Void, Throwable, String> io =
+        PureIO.<Void, Throwable, String>pure("hola").flatMap(value -> PureIO.<Void, Throwable>cede().map(ignore -> value + " mundo"));
+
+    assertEquals(Either.right("hola mundo"), io.provide(null));
+  }
+
+  @Test
+  public void blocking() {
+    PureIO<Void, Throwable, String> io = PureIO.<Void, String>blocking(() -> Thread.currentThread().getName())
+        .flatMap(name -> PureIO.task(() -> name + " " + Thread.currentThread().getName()));
+
+    String[] result = io.provide(null).get().split(" ", -1);
+
+    assertTrue(result[0].startsWith("purefun-blocking-"));
+    assertFalse(result[1].startsWith("purefun-blocking-"));
+  }
+
+  @Test
+  public void blockingFailure() {
+    PureIO<Void, Throwable, String> io = PureIO.blocking(() -> { throw new UnsupportedOperationException(); });
+
+    assertTrue(io.provide(null).getLeft() instanceof UnsupportedOperationException);
+  }
+
   @Test
   public void refineOrDie() {
     PureIO<Void, Throwable, String> error = PureIO.raiseError(new IOException());
@@ -407,6 +458,36 @@ public class PureIOTest {
     assertEquals(Either.right(listOf("left", "right")), traverse.provide(null));
   }
 
+  @Test
+  public void parMapN() {
+    PureIO<Void, String, String> parMap3 = PureIO.parMap3(
+        PureIO.pure("a"), PureIO.pure("b"), PureIO.pure("c"), (a, b, c) -> a + b + c);
+    PureIO<Void, String, String> parMap5 = PureIO.parMap5(
+        PureIO.pure("a"), PureIO.pure("b"), PureIO.pure("c"), PureIO.pure("d"), PureIO.pure("e"),
+        (a, b, c, d, e) -> a + b + c + d + e);
+
+    assertEquals(Either.right("abc"), parMap3.provide(null));
+    assertEquals(Either.right("abcde"), parMap5.provide(null));
+  }
+
+  @Test
+  public void parMapNFailFast() {
+    PureIO<Void, String, String> parMap4 = PureIO.parMap4(
+        PureIO.never(), PureIO.raiseError("error"), PureIO.pure("c"), PureIO.pure("d"), (a, b, c, d) -> "" + a + b + c + d);
+
+    assertEquals(Either.left("error"), parMap4.provide(null));
+  }
+
+  @Test
+  public void raceAll() {
+    PureIO<Void, Void, Integer> race = PureIO.raceAll(listOf(
+        PureIO.<Void, Void>sleep(Duration.ofMillis(300)).map(x -> 1),
+        PureIO.<Void, Void>sleep(Duration.ofMillis(10)).map(x -> 2),
+        PureIO.never()));
+
+    assertEquals(Either.right(2), race.provide(null));
+  }
+
   @Test
   public void raceA() {
     PureIO<Void, Void, Either<Integer, String>> race = PureIO.race(
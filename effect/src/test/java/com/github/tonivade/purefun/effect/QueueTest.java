@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) 2018-2024, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.purefun.effect;
+
+import static com.github.tonivade.purefun.data.Sequence.arrayOf;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.tonivade.purefun.concurrent.Future;
+import com.github.tonivade.purefun.data.ImmutableArray;
+import com.github.tonivade.purefun.data.Sequence;
+import com.github.tonivade.purefun.type.Option;
+import com.github.tonivade.purefun.typeclasses.Fiber;
+
+public class QueueTest {
+
+  @Test
+  public void offerAndTake() {
+    UIO<String> result = Queue.<String>bounded(10)
+        .flatMap(queue -> queue.offer("hola").andThen(queue.take()));
+
+    assertEquals("hola", result.unsafeRunSync());
+  }
+
+  @Test
+  public void takeSuspendsUntilOffer() {
+    Queue<String> queue = Queue.<String>bounded(10).unsafeRunSync();
+
+    Future<String> take = queue.take().runAsync();
+    UIO.sleep(Duration.ofMillis(50)).andThen(queue.offer("hola")).unsafeRunSync();
+
+    assertEquals("hola", take.getOrElseThrow());
+  }
+
+  @Test
+  public void offerSuspendsWhenFull() {
+    Queue<String> queue = Queue.<String>bounded(1).unsafeRunSync();
+    AtomicBoolean offered = new AtomicBoolean();
+
+    queue.offer("a").unsafeRunSync();
+    Future<Boolean> offer = queue.offer("b").map(b -> { offered.set(true); return b; }).runAsync();
+    UIO.sleep(Duration.ofMillis(50)).unsafeRunSync();
+
+    assertFalse(offered.get());
+    assertEquals("a", queue.take().unsafeRunSync());
+    assertTrue(offer.getOrElseThrow());
+    assertEquals("b", queue.take().unsafeRunSync());
+  }
+
+  @Test
+  public void dropping() {
+    Queue<Integer> queue = Queue.<Integer>dropping(2).unsafeRunSync();
+
+    assertAll(
+        () -> assertTrue(queue.offer(1).unsafeRunSync()),
+        () -> assertTrue(queue.offer(2).unsafeRunSync()),
+        () -> assertFalse(queue.offer(3).unsafeRunSync()),
+        () -> assertEquals(arrayOf(1, 2), queue.takeUpTo(10).unsafeRunSync()));
+  }
+
+  @Test
+  public void sliding() {
+    Queue<Integer> queue = Queue.<Integer>sliding(2).unsafeRunSync();
+
+    assertAll(
+        () -> assertTrue(queue.offerAll(arrayOf(1, 2, 3)).unsafeRunSync()),
+        () -> assertEquals(arrayOf(2, 3), queue.takeUpTo(10).unsafeRunSync()));
+  }
+
+  @Test
+  public void unbounded() {
+    Queue<Integer> queue = Queue.<Integer>unbounded().unsafeRunSync();
+
+    queue.offerAll(ImmutableArray.from(IntStream.range(0, 1000).boxed())).unsafeRunSync();
+
+    assertAll(
+        () -> assertEquals(1000, queue.size().unsafeRunSync()),
+        () -> assertEquals(Integer.MAX_VALUE, queue.capacity()),
+        () -> assertEquals(100, queue.takeUpTo(100).unsafeRunSync().size()),
+        () -> assertEquals(900, queue.size().unsafeRunSync()));
+  }
+
+  @Test
+  public void offerAllSuspendsUntilAllEnqueued() {
+    Queue<Integer> queue = Queue.<Integer>bounded(2).unsafeRunSync();
+
+    Future<Boolean> offer = queue.offerAll(arrayOf(1, 2, 3, 4, 5)).runAsync();
+
+    Sequence<Integer> result = takeN(queue, 5, ImmutableArray.empty()).unsafeRunSync();
+
+    assertEquals(arrayOf(1, 2, 3, 4, 5), result);
+    assertTrue(offer.getOrElseThrow());
+  }
+
+  @Test
+  public void poll() {
+    Queue<String> queue = Queue.<String>bounded(2).unsafeRunSync();
+
+    assertAll(
+        () -> assertEquals(Option.none(), queue.poll().unsafeRunSync()),
+        () -> assertEquals(Option.some("hola"), queue.offer("hola").andThen(queue.poll()).unsafeRunSync()));
+  }
+
+  @Test
+  public void producerConsumer() {
+    int items = 10_000;
+    Queue<Integer> queue = Queue.<Integer>bounded(16).unsafeRunSync();
+
+    Future<Integer> consumer = consume(queue, items, 0).runAsync();
+    produce(queue, 0, items).runAsync();
+
+    assertEquals(IntStream.range(0, items).sum(), consumer.getOrElseThrow());
+  }
+
+  @Test
+  public void cancelTake() {
+    Queue<String> queue = Queue.<String>bounded(2).unsafeRunSync();
+
+    UIO<String> take = queue.take().timeout(Duration.ofMillis(50)).recover(error -> "timeout");
+
+    assertEquals("timeout", take.unsafeRunSync());
+    // cancellation is asynchronous
+    UIO<String> next = UIO.sleep(Duration.ofMillis(50)).andThen(queue.offer("hola")).andThen(queue.take());
+    assertEquals("hola", next.unsafeRunSync());
+  }
+
+  @Test
+  public void cancelTakeDoesNotLoseElements() throws InterruptedException {
+    int rounds = 1_000;
+    Queue<Integer> queue = Queue.<Integer>unbounded().unsafeRunSync();
+    Set<Integer> received = ConcurrentHashMap.newKeySet();
+
+    for (int i = 0; i < rounds; i++) {
+      Fiber<UIO<?>, Integer> fiber =
+          queue.take().map(value -> { received.add(value); return value; }).fork().unsafeRunSync();
+      Future<Boolean> offer = queue.offer(i).runAsync();
+      fiber.cancel().fix(UIOOf::toUIO).unsafeRunSync();
+      offer.getOrElseThrow();
+    }
+    int remaining = queue.takeUpTo(rounds).unsafeRunSync().size();
+
+    // the takers that won the race complete asynchronously
+    for (int i = 0; i < 100 && received.size() + remaining < rounds; i++) {
+      Thread.sleep(10);
+    }
+    assertEquals(rounds, received.size() + remaining);
+  }
+
+  private UIO<Sequence<Integer>> takeN(Queue<Integer> queue, int remaining, Sequence<Integer> acc) {
+    if (remaining == 0) {
+      return UIO.pure(acc);
+    }
+    return queue.take().flatMap(value -> takeN(queue, remaining - 1, acc.append(value)));
+  }
+
+  private UIO<Integer> consume(Queue<Integer> queue, int remaining, int acc) {
+    if (remaining == 0) {
+      return UIO.pure(acc);
+    }
+    return queue.take().flatMap(value -> consume(queue, remaining - 1, acc + value));
+  }
+
+  private UIO<Boolean> produce(Queue<Integer> queue, int from, int to) {
+    if (from == to) {
+      return UIO.pure(true);
+    }
+    return queue.offer(from).flatMap(ignore -> produce(queue, from + 1, to));
+  }
+}
@@ -6,9 +6,14 @@ package com.github.tonivade.purefun.effect;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
+import java.util.stream.IntStream;
+
 import org.junit.jupiter.api.Test;
 
+import com.github.tonivade.purefun.concurrent.Future;
+import com.github.tonivade.purefun.core.Tuple;
 import com.github.tonivade.purefun.core.Unit;
+import com.github.tonivade.purefun.data.ImmutableArray;
 
 public class RefTest {
 
@@ -71,4 +76,43 @@ public class RefTest {
 
     assertEquals("HELLO WORLD!", result.unsafeRunSync());
   }
+
+  @Test
+  public void modifyConcurrently() {
+    Ref<Integer> ref = Ref.of(0);
+
+    Future.allOf(ImmutableArray.from(IntStream.range(0, 64)
+        .mapToObj(i -> UIO.traverse(ImmutableArray.from(IntStream.range(0, 100)
+            .mapToObj(j -> ref.modify(x -> Tuple.of(x, x + 1))))).runAsync())))
+      .getOrElseThrow();
+
+    assertEquals(6400, ref.get().unsafeRunSync());
+  }
+
+  @Test
+  public void update() {
+    Ref<String> ref = Ref.of("Hello World!");
+
+    UIO<String> result = ref.update(String::toUpperCase).andThen(ref.get());
+
+    assertEquals("HELLO WORLD!", result.unsafeRunSync());
+  }
+
+  @Test
+  public void modifyWithoutTuple() {
+    Ref<Integer> ref = Ref.of(10);
+
+    UIO<String> result = ref.modify(x -> x * 2, (before, after) -> before + "->" + after);
+    UIO<Integer> afterUpdate = result.andThen(ref.get());
+
+    assertEquals("10->20", result.unsafeRunSync());
+    assertEquals(40, afterUpdate.unsafeRunSync());
+  }
+
+  @Test
+  public void counter() {
+    UIO<Long> result = Ref.counter().flatMap(counter -> counter.increment().andThen(counter.add(5)).andThen(counter.sum()));
+
+    assertEquals(6L, result.unsafeRunSync());
+  }
 }
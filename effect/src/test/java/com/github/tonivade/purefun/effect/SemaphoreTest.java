@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2018-2024, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.purefun.effect;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.tonivade.purefun.concurrent.Future;
+import com.github.tonivade.purefun.core.Unit;
+import com.github.tonivade.purefun.data.ImmutableArray;
+
+public class SemaphoreTest {
+
+  @Test
+  public void tryAcquire() {
+    Semaphore semaphore = Semaphore.of(1);
+
+    assertAll(
+        () -> assertTrue(semaphore.tryAcquire().unsafeRunSync()),
+        () -> assertFalse(semaphore.tryAcquire().unsafeRunSync()),
+        () -> assertEquals(0, semaphore.available().unsafeRunSync()),
+        () -> assertEquals(1, semaphore.release().andThen(semaphore.available()).unsafeRunSync()));
+  }
+
+  @Test
+  public void acquireSuspendsUntilRelease() {
+    Semaphore semaphore = Semaphore.of(0);
+
+    Future<Unit> acquire = semaphore.acquire().runAsync();
+    UIO.sleep(Duration.ofMillis(50)).unsafeRunSync();
+
+    assertFalse(acquire.isCompleted());
+
+    semaphore.release().unsafeRunSync();
+
+    assertEquals(Unit.unit(), acquire.getOrElseThrow());
+    assertEquals(0, semaphore.available().unsafeRunSync());
+  }
+
+  @Test
+  public void fair() {
+    Semaphore semaphore = Semaphore.of(0, true);
+
+    Future<Unit> first = semaphore.acquireN(2).runAsync();
+    UIO.sleep(Duration.ofMillis(50)).unsafeRunSync();
+    Future<Unit> second = semaphore.acquire().runAsync();
+    UIO.sleep(Duration.ofMillis(50)).unsafeRunSync();
+
+    semaphore.release().andThen(UIO.sleep(Duration.ofMillis(50))).unsafeRunSync();
+
+    assertFalse(first.isCompleted());
+    assertFalse(second.isCompleted());
+
+    semaphore.releaseN(2).unsafeRunSync();
+
+    assertEquals(Unit.unit(), first.getOrElseThrow());
+    assertEquals(Unit.unit(), second.getOrElseThrow());
+  }
+
+  @Test
+  public void nonFair() {
+    Semaphore semaphore = Semaphore.of(0, false);
+
+    Future<Unit> first = semaphore.acquireN(2).runAsync();
+    UIO.sleep(Duration.ofMillis(50)).unsafeRunSync();
+    Future<Unit> second = semaphore.acquire().runAsync();
+    UIO.sleep(Duration.ofMillis(50)).unsafeRunSync();
+
+    semaphore.release().unsafeRunSync();
+
+    assertEquals(Unit.unit(), second.getOrElseThrow());
+    assertFalse(first.isCompleted());
+
+    semaphore.releaseN(2).unsafeRunSync();
+
+    assertEquals(Unit.unit(), first.getOrElseThrow());
+  }
+
+  @Test
+  public void withPermitLimitsConcurrency() {
+    Semaphore semaphore = Semaphore.of(2);
+    AtomicInteger running = new AtomicInteger();
+    AtomicInteger max = new AtomicInteger();
+
+    UIO<Unit> task = semaphore.withPermit(
+        UIO.exec(() -> max.accumulateAndGet(running.incrementAndGet(), Math::max))
+          .andThen(UIO.sleep(Duration.ofMillis(10)))
+          .andThen(UIO.exec(running::decrementAndGet)));
+
+    Future.allOf(ImmutableArray.from(IntStream.range(0, 10).mapToObj(i -> task.runAsync()))).getOrElseThrow();
+
+    assertEquals(2, max.get());
+    assertEquals(2, semaphore.available().unsafeRunSync());
+  }
+
+  @Test
+  public void withPermitReleasesOnError() {
+    Semaphore semaphore = Semaphore.of(1);
+
+    Task<String> task = semaphore.withPermit(Task.<String>raiseError(new IllegalStateException()));
+
+    assertTrue(task.safeRunSync().isFailure());
+    assertEquals(1, semaphore.available().unsafeRunSync());
+  }
+
+  @Test
+  public void withPermitReleasesOnCancel() {
+    Semaphore semaphore = Semaphore.of(1);
+
+    UIO<String> task = semaphore.withPermit(UIO.sleep(Duration.ofSeconds(5)).andThen(UIO.pure("done")))
+        .timeout(Duration.ofMillis(50)).recover(error -> "timeout");
+
+    assertEquals("timeout", task.unsafeRunSync());
+    // cancellation is asynchronous
+    assertEquals(1, UIO.sleep(Duration.ofMillis(50)).andThen(semaphore.available()).unsafeRunSync());
+  }
+
+  @Test
+  public void cancelAcquire() {
+    Semaphore semaphore = Semaphore.of(0);
+
+    UIO<Unit> acquire = semaphore.acquire().timeout(Duration.ofMillis(50)).recover(error -> Unit.unit());
+
+    acquire.unsafeRunSync();
+    // cancellation is asynchronous
+    UIO.sleep(Duration.ofMillis(50)).andThen(semaphore.release()).unsafeRunSync();
+
+    assertEquals(1, semaphore.available().unsafeRunSync());
+  }
+}
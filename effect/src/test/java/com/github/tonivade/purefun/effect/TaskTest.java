@@ -73,6 +73,17 @@ class TaskTest {
     assertEquals(NumberFormatException.class, result.getCause().getClass());
   }
 
+  @Test
+  void flatMapStackSafe() {
+    Task<Integer> result = pure(0);
+    for (int i = 0; i < 100000; i++) {
+      result = result.map(x -> x + 1).flatMap(x -> x % 2 == 0 ? pure(x) : UIO.pure(x).toTask());
+    }
+
+    assertEquals(Try.success(100000), result.safeRunSync());
+    assertEquals(Try.success(100000), result.runAsync().await());
+  }
+
   @Test
   void foldRight() {
     Integer result = parseInt("1").recover(e -> -1).unsafeRunSync();
@@ -141,8 +152,6 @@ class TaskTest {
   @Test
   void retry(@Mock Producer<String> computation) {
     when(computation.get()).thenThrow(UnsupportedOperationException.class);
-    when(computation.liftTry()).thenCallRealMethod();
-    when(computation.liftEither()).thenCallRealMethod();
 
     Try<String> retry = task(computation).retry().safeRunSync();
 
@@ -153,8 +162,6 @@ class TaskTest {
   @Test
   void repeat(@Mock Producer<String> computation) {
     when(computation.get()).thenReturn("hola");
-    when(computation.liftTry()).thenCallRealMethod();
-    when(computation.liftEither()).thenCallRealMethod();
 
     Try<String> repeat = task(computation).repeat().safeRunSync();
 
@@ -182,6 +189,23 @@ class TaskTest {
     assertEquals(Try.success(listOf("left", "right")), traverse.safeRunSync());
   }
 
+  @Test
+  void parMap3() {
+    Task<String> parMap3 = Task.parMap3(task(() -> "a"), task(() -> "b"), task(() -> "c"), (a, b, c) -> a + b + c);
+
+    assertEquals(Try.success("abc"), parMap3.safeRunSync());
+  }
+
+  @Test
+  void raceAll() {
+    Task<Integer> race = Task.raceAll(listOf(
+        Task.sleep(Duration.ofMillis(300)).map(x -> 1),
+        Task.sleep(Duration.ofMillis(10)).map(x -> 2),
+        Task.never()));
+
+    assertEquals(Try.success(2), race.safeRunSync());
+  }
+
   @Test
   void raceA() {
     Task<Either<Integer, String>> race = Task.race(
@@ -232,6 +256,13 @@ class TaskTest {
     assertEquals(Try.success(1), Task.pure(1).timeout(Duration.ofSeconds(1)).safeRunSync());
   }
 
+  @Test
+  void blocking() {
+    Task<String> task = Task.blocking(() -> Thread.currentThread().getName());
+
+    assertTrue(task.safeRunSync().getOrElseThrow().startsWith("purefun-blocking-"));
+  }
+
   @Test
   void liftTry() {
     Task<String> flatMap = Task.pure("Toni").flatMap(Task.liftTry(this::helloWorld));
@@ -24,7 +24,10 @@ import static org.mockito.Mockito.when;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.LockSupport;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -111,6 +114,26 @@ public class UIOTest {
     assertThrows(SQLException.class, bracket::unsafeRunSync);
   }
 
+  @Test
+  public void bracketReleasesOnFailure() throws SQLException {
+    ResultSet resultSet = mock(ResultSet.class);
+
+    UIO<String> bracket = UIO.bracket(open(resultSet), rs -> UIO.<String>raiseError(new SQLException()));
+
+    assertThrows(SQLException.class, bracket::unsafeRunSync);
+    verify(resultSet).close();
+  }
+
+  @Test
+  public void bracketReleasesOnCancel() throws SQLException {
+    ResultSet resultSet = mock(ResultSet.class);
+
+    UIO<String> bracket = UIO.bracket(open(resultSet), rs -> UIO.<String>never());
+
+    assertThrows(TimeoutException.class, () -> bracket.timeout(Duration.ofMillis(50)).unsafeRunSync());
+    verify(resultSet, timeout(1000)).close();
+  }
+
   @Test
   public void asyncRight(@Mock Consumer1<? super Try<? extends Integer>> callback) {
     parseInt("1").safeRunAsync(callback);
@@ -130,8 +153,6 @@ public class UIOTest {
   @Test
   public void retry(@Mock Producer<String> computation) {
     when(computation.get()).thenThrow(UnsupportedOperationException.class);
-    when(computation.liftTry()).thenCallRealMethod();
-    when(computation.liftEither()).thenCallRealMethod();
 
     Try<String> retry = task(computation).retry().safeRunSync();
 
@@ -142,8 +163,6 @@ public class UIOTest {
   @Test
   public void repeat(@Mock Producer<String> computation) {
     when(computation.get()).thenReturn("hola");
-    when(computation.liftTry()).thenCallRealMethod();
-    when(computation.liftEither()).thenCallRealMethod();
 
     Try<String> repeat = task(computation).repeat().safeRunSync();
 
@@ -228,6 +247,28 @@ public class UIOTest {
     assertEquals(1, UIO.pure(1).timeout(Duration.ofSeconds(1)).unsafeRunSync());
   }
 
+  @Test
+  public void timeoutCancelsAfterSyncAsync() throws InterruptedException {
+    CountDownLatch cancelled = new CountDownLatch(1);
+    // the callback returns after the next step has started in other thread
+    UIO<Unit> program = UIO.<Unit>cancellable(callback -> {
+          callback.accept(Try.success(Unit.unit()));
+          LockSupport.parkNanos(Duration.ofMillis(50).toNanos());
+          return UIO.unit();
+        })
+        .andThen(UIO.cancellable(callback -> UIO.exec(cancelled::countDown)));
+
+    assertThrows(TimeoutException.class, () -> program.timeout(Duration.ofMillis(200)).unsafeRunSync());
+    assertTrue(cancelled.await(1, TimeUnit.SECONDS));
+  }
+
+  @Test
+  public void blocking() {
+    UIO<String> task = UIO.blocking(() -> Thread.currentThread().getName());
+
+    assertTrue(task.unsafeRunSync().startsWith("purefun-blocking-"));
+  }
+
   @Test
   public void memoize(@Mock Function1<String, String> toUpperCase) {
     when(toUpperCase.apply(any()))
@@ -126,8 +126,6 @@ public class URIOTest {
   @Test
   public void retry(@Mock Producer<String> computation) {
     when(computation.get()).thenThrow(UnsupportedOperationException.class);
-    when(computation.liftTry()).thenCallRealMethod();
-    when(computation.liftEither()).thenCallRealMethod();
 
     Try<String> retry = task(computation).retry().safeRunSync(null);
 
@@ -138,8 +136,6 @@ public class URIOTest {
   @Test
   public void repeat(@Mock Producer<String> computation) {
     when(computation.get()).thenReturn("hola");
-    when(computation.liftTry()).thenCallRealMethod();
-    when(computation.liftEither()).thenCallRealMethod();
 
     Try<String> repeat = task(computation).repeat().safeRunSync(null);
 
@@ -213,6 +213,12 @@ interface IOConcurrent extends Concurrent<IO<?>>, IOAsync {
     IO<A> fix = value.fix(IOOf::toIO);
     return fix.fork();
   }
+
+  @Override
+  default <A, B> IO<Sequence<B>> parTraverseN(int parallelism, Sequence<? extends A> values,
+      Function1<? super A, ? extends Kind<IO<?>, ? extends B>> mapper) {
+    return IO.parTraverseN(executor(), parallelism, values, mapper);
+  }
 }
 
 final class IOConsole implements Console<IO<?>> {
@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2018-2024, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.purefun.monad;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import com.github.tonivade.purefun.core.Unit;
+
+/**
+ * <p>A counter to be updated by many fibers at the same time, like the number of requests received. It's backed
+ * by a {@link LongAdder}, that keeps many cells and spreads the threads over them when there is contention,
+ * so updates don't retry on the same value like in a {@link LongRef}.</p>
+ *
+ * <p>The sum is not an atomic snapshot, updates made while it's being calculated may not be included.</p>
+ */
+public final class Counter {
+
+  private final LongAdder value = new LongAdder();
+
+  private Counter() {}
+
+  public IO<Unit> increment() {
+    return IO.exec(value::increment);
+  }
+
+  public IO<Unit> decrement() {
+    return IO.exec(value::decrement);
+  }
+
+  public IO<Unit> add(long delta) {
+    return IO.exec(() -> value.add(delta));
+  }
+
+  public IO<Long> sum() {
+    return IO.task(value::sum);
+  }
+
+  public IO<Long> sumThenReset() {
+    return IO.task(value::sumThenReset);
+  }
+
+  public IO<Unit> reset() {
+    return IO.exec(value::reset);
+  }
+
+  public static IO<Counter> make() {
+    return IO.task(Counter::new);
+  }
+
+  @Override
+  public String toString() {
+    return String.format("Counter(%s)", value.sum());
+  }
+}
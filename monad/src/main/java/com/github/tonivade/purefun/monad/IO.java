@@ -7,10 +7,10 @@ package com.github.tonivade.purefun.monad;
 import static com.github.tonivade.purefun.core.Function1.identity;
 import static com.github.tonivade.purefun.core.Matcher1.always;
 import static com.github.tonivade.purefun.core.Precondition.checkNonNull;
+import static com.github.tonivade.purefun.core.Precondition.checkPositive;
 
 import java.time.Duration;
-import java.util.ArrayDeque;
-import java.util.Deque;
+import java.util.NoSuchElementException;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
 import java.util.concurrent.TimeoutException;
@@ -19,13 +19,20 @@ import java.util.concurrent.atomic.AtomicReference;
 import com.github.tonivade.purefun.HigherKind;
 import com.github.tonivade.purefun.Kind;
 import com.github.tonivade.purefun.Nullable;
+import com.github.tonivade.purefun.concurrent.BracketRelease;
+import com.github.tonivade.purefun.concurrent.CallStack;
 import com.github.tonivade.purefun.concurrent.Future;
+import com.github.tonivade.purefun.concurrent.Gather;
 import com.github.tonivade.purefun.concurrent.Promise;
 import com.github.tonivade.purefun.core.CheckedRunnable;
 import com.github.tonivade.purefun.core.Consumer1;
 import com.github.tonivade.purefun.core.Effect;
 import com.github.tonivade.purefun.core.Function1;
 import com.github.tonivade.purefun.core.Function2;
+import com.github.tonivade.purefun.core.Function3;
+import com.github.tonivade.purefun.core.Function4;
+import com.github.tonivade.purefun.core.Function5;
+import com.github.tonivade.purefun.core.Matcher1;
 import com.github.tonivade.purefun.core.Operator1;
 import com.github.tonivade.purefun.core.PartialFunction1;
 import com.github.tonivade.purefun.core.Producer;
@@ -33,6 +40,7 @@ import com.github.tonivade.purefun.core.Recoverable;
 import com.github.tonivade.purefun.core.Tuple;
 import com.github.tonivade.purefun.core.Tuple2;
 import com.github.tonivade.purefun.core.Unit;
+import com.github.tonivade.purefun.data.ImmutableArray;
 import com.github.tonivade.purefun.data.ImmutableList;
 import com.github.tonivade.purefun.data.ImmutableMap;
 import com.github.tonivade.purefun.data.Sequence;
@@ -51,7 +59,7 @@ public sealed interface IO<T> extends IOOf<T>, Effect<IO<?>, T>, Recoverable {
   }
 
   default Future<T> runAsync(Executor executor) {
-    return forked(executor).andThen(this).runAsync();
+    return Future.from(runAsync(forked(executor).andThen(this), IOConnection.UNCANCELLABLE, executor));
   }
 
   default T unsafeRunSync() {
@@ -59,7 +67,7 @@ public sealed interface IO<T> extends IOOf<T>, Effect<IO<?>, T>, Recoverable {
   }
 
   default Try<T> safeRunSync() {
-    return runAsync().await();
+    return runSync(this);
   }
 
   default void safeRunAsync(Consumer1<? super Try<? extends T>> callback) {
@@ -72,7 +80,7 @@ public sealed interface IO<T> extends IOOf<T>, Effect<IO<?>, T>, Recoverable {
 
   @Override
   default <R> IO<R> map(Function1<? super T, ? extends R> map) {
-    return flatMap(map.andThen(IO::pure));
+    return new Map<>(this, map);
   }
 
   @Override
@@ -215,13 +223,13 @@ public sealed interface IO<T> extends IOOf<T>, Effect<IO<?>, T>, Recoverable {
       IOConnection connection1 = IOConnection.cancellable();
       IOConnection connection2 = IOConnection.cancellable();
 
-      Promise<A> promiseA = runAsync(IO.forked(executor).andThen(fa), connection1);
-      Promise<B> promiseB = runAsync(IO.forked(executor).andThen(fb), connection2);
+      Promise<A> promiseA = runAsync(IO.forked(executor).andThen(fa), connection1, executor);
+      Promise<B> promiseB = runAsync(IO.forked(executor).andThen(fb), connection2, executor);
 
       promiseA.onComplete(result -> callback.accept(
           result.map(a -> Either.left(Tuple.of(a, Fiber.of(IO.fromPromise(promiseB), IO.exec(connection2::cancel)))))));
       promiseB .onComplete(result -> callback.accept(
-          result.map(b -> Either.right(Tuple.of(Fiber.of(IO.fromPromise(promiseA), IO.exec(connection2::cancel)), b)))));
+          result.map(b -> Either.right(Tuple.of(Fiber.of(IO.fromPromise(promiseA), IO.exec(connection1::cancel)), b)))));
 
       return IO.exec(() -> {
         try {
@@ -233,6 +241,31 @@ public sealed interface IO<T> extends IOOf<T>, Effect<IO<?>, T>, Recoverable {
     });
   }
 
+  static <A> IO<A> raceAll(Sequence<? extends Kind<IO<?>, ? extends A>> sequence) {
+    return raceAll(Future.DEFAULT_EXECUTOR, sequence);
+  }
+
+  /**
+   * Runs all the given effects in parallel, and returns the result of the first one to complete,
+   * successfully or not. All the other effects are cancelled as soon as the first one completes.
+   */
+  @SuppressWarnings("unchecked")
+  static <A> IO<A> raceAll(Executor executor, Sequence<? extends Kind<IO<?>, ? extends A>> sequence) {
+    checkNonNull(executor);
+    checkNonNull(sequence);
+    if (sequence.isEmpty()) {
+      return raiseError(new NoSuchElementException("raceAll of an empty sequence"));
+    }
+    return cancellable(callback -> {
+      Object[] values = sequence.stream().toArray();
+
+      Runnable cancel = Gather.<A>race(values.length,
+          (index, result) -> runForked(executor, (Kind<IO<?>, ? extends A>) values[index], result), callback);
+
+      return IO.exec(cancel::run);
+    });
+  }
+
   static <T> IO<T> raiseError(Throwable error) {
     return new Failure<>(error);
   }
@@ -302,10 +335,34 @@ public sealed interface IO<T> extends IOOf<T>, Effect<IO<?>, T>, Recoverable {
     return new Delay<>(producer);
   }
 
+  /**
+   * Runs the given blocking computation in {@link Future#BLOCKING_EXECUTOR}, and then returns to the
+   * default executor, so the threads used to run the rest of the program are never blocked.
+   */
+  static <T> IO<T> blocking(Producer<? extends T> producer) {
+    return blocking(Future.DEFAULT_EXECUTOR, producer);
+  }
+
+  static <T> IO<T> blocking(Executor executor, Producer<? extends T> producer) {
+    return async(callback -> Future.BLOCKING_EXECUTOR.execute(() -> {
+      Try<? extends T> result = producer.liftTry().get();
+      executor.execute(() -> callback.accept(result));
+    }));
+  }
+
   static <T> IO<T> never() {
     return async(callback -> {});
   }
 
+  /**
+   * Reschedules the rest of the program in the default executor, giving other fibers the opportunity
+   * to run. If the system property {@code purefun.cede.threshold} is greater than 0, the run loop does
+   * the same automatically after that number of steps, in the executor where the program was started.
+   */
+  static IO<Unit> cede() {
+    return forked();
+  }
+
   static IO<Unit> forked() {
     return forked(Future.DEFAULT_EXECUTOR);
   }
@@ -338,6 +395,19 @@ public sealed interface IO<T> extends IOOf<T>, Effect<IO<?>, T>, Recoverable {
     });
   }
 
+  /**
+   * Returns a memoized version of the given function, bounded by the given policy. Unlike
+   * {@link #memoize(Function1)}, the entries are evicted when the maximum size is reached and
+   * failures are not cached.
+   */
+  static <A, T> IO<Memoized<A, T>> memoize(Memoized.Policy policy, Function1<A, IO<T>> function) {
+    return memoize(Future.DEFAULT_EXECUTOR, policy, function);
+  }
+
+  static <A, T> IO<Memoized<A, T>> memoize(Executor executor, Memoized.Policy policy, Function1<A, IO<T>> function) {
+    return IO.pure(new Memoized<>(executor, policy, function));
+  }
+
   static IO<Unit> unit() {
     return UNIT;
   }
@@ -348,16 +418,23 @@ public sealed interface IO<T> extends IOOf<T>, Effect<IO<?>, T>, Recoverable {
 
       IOConnection cancellable = IOConnection.cancellable();
 
+      BracketRelease<T, Unit> bracket = new BracketRelease<>(
+          resource -> runAsync(release.apply(resource).fix(IOOf::toIO), IOConnection.UNCANCELLABLE), Unit.unit());
+
       Promise<? extends T> promise = runAsync(acquire.fix(IOOf::toIO), cancellable);
 
       promise
         .onFailure(error -> callback.accept(Try.failure(error)))
-        .onSuccess(resource -> runAsync(use.apply(resource).fix(IOOf::toIO), cancellable)
-          .onComplete(result -> runAsync(release.apply(resource).fix(IOOf::toIO), cancellable)
-            .onComplete(ignore -> callback.accept(result))
-        ));
+        .onSuccess(resource -> {
+          bracket.acquired(resource);
+          runAsync(use.apply(resource).fix(IOOf::toIO), cancellable)
+            .onComplete(result -> bracket.release().onComplete(ignore -> callback.accept(result)));
+        });
 
-      return IO.exec(cancellable::cancel);
+      return IO.exec(() -> {
+        cancellable.cancel();
+        bracket.cancel();
+      });
     });
   }
 
@@ -386,6 +463,36 @@ public sealed interface IO<T> extends IOOf<T>, Effect<IO<?>, T>, Recoverable {
         (Kind<IO<?>, Sequence<A>> xs, Kind<IO<?>, A> a) -> parMap2(executor, xs, a, Sequence::append));
   }
 
+  static <A> IO<Sequence<A>> parSequenceN(int parallelism, Sequence<? extends Kind<IO<?>, ? extends A>> sequence) {
+    return parSequenceN(Future.DEFAULT_EXECUTOR, parallelism, sequence);
+  }
+
+  static <A> IO<Sequence<A>> parSequenceN(Executor executor, int parallelism, Sequence<? extends Kind<IO<?>, ? extends A>> sequence) {
+    return parTraverseN(executor, parallelism, sequence, identity());
+  }
+
+  static <A, B> IO<Sequence<B>> parTraverseN(int parallelism, Sequence<? extends A> sequence,
+      Function1<? super A, ? extends Kind<IO<?>, ? extends B>> mapper) {
+    return parTraverseN(Future.DEFAULT_EXECUTOR, parallelism, sequence, mapper);
+  }
+
+  @SuppressWarnings("unchecked")
+  static <A, B> IO<Sequence<B>> parTraverseN(Executor executor, int parallelism, Sequence<? extends A> sequence,
+      Function1<? super A, ? extends Kind<IO<?>, ? extends B>> mapper) {
+    checkPositive(parallelism);
+    checkNonNull(sequence);
+    checkNonNull(mapper);
+    return cancellable(callback -> {
+      Object[] values = sequence.stream().toArray();
+
+      Runnable cancel = Gather.<B>all(values.length, parallelism,
+          (index, result) -> runForked(executor, IO.suspend(() -> mapper.apply((A) values[index])), result),
+          Matcher1.never(), result -> callback.accept(result.map(Either::getRight)));
+
+      return IO.exec(cancel::run);
+    });
+  }
+
   static <A, B, C> IO<C> parMap2(Kind<IO<?>, ? extends A> fa, Kind<IO<?>, ? extends B> fb,
                               Function2<? super A, ? super B, ? extends C> mapper) {
     return parMap2(Future.DEFAULT_EXECUTOR, fa, fb, mapper);
@@ -398,8 +505,8 @@ public sealed interface IO<T> extends IOOf<T>, Effect<IO<?>, T>, Recoverable {
       IOConnection connection1 = IOConnection.cancellable();
       IOConnection connection2 = IOConnection.cancellable();
 
-      Promise<A> promiseA = runAsync(IO.forked(executor).andThen(fa), connection1);
-      Promise<B> promiseB = runAsync(IO.forked(executor).andThen(fb), connection2);
+      Promise<A> promiseA = runAsync(IO.forked(executor).andThen(fa), connection1, executor);
+      Promise<B> promiseB = runAsync(IO.forked(executor).andThen(fb), connection2, executor);
 
       promiseA.onComplete(a -> promiseB.onComplete(b -> callback.accept(Try.map2(a, b, mapper))));
 
@@ -413,6 +520,45 @@ public sealed interface IO<T> extends IOOf<T>, Effect<IO<?>, T>, Recoverable {
     });
   }
 
+  static <A, B, C, D> IO<D> parMap3(Kind<IO<?>, ? extends A> fa, Kind<IO<?>, ? extends B> fb, Kind<IO<?>, ? extends C> fc,
+      Function3<? super A, ? super B, ? super C, ? extends D> mapper) {
+    return parMap3(Future.DEFAULT_EXECUTOR, fa, fb, fc, mapper);
+  }
+
+  @SuppressWarnings("unchecked")
+  static <A, B, C, D> IO<D> parMap3(Executor executor, Kind<IO<?>, ? extends A> fa, Kind<IO<?>, ? extends B> fb, Kind<IO<?>, ? extends C> fc,
+      Function3<? super A, ? super B, ? super C, ? extends D> mapper) {
+    checkNonNull(mapper);
+    return parAll(executor, fa, fb, fc).map(
+        values -> mapper.apply((A) values.get(0), (B) values.get(1), (C) values.get(2)));
+  }
+
+  static <A, B, C, D, E> IO<E> parMap4(Kind<IO<?>, ? extends A> fa, Kind<IO<?>, ? extends B> fb, Kind<IO<?>, ? extends C> fc,
+      Kind<IO<?>, ? extends D> fd, Function4<? super A, ? super B, ? super C, ? super D, ? extends E> mapper) {
+    return parMap4(Future.DEFAULT_EXECUTOR, fa, fb, fc, fd, mapper);
+  }
+
+  @SuppressWarnings("unchecked")
+  static <A, B, C, D, E> IO<E> parMap4(Executor executor, Kind<IO<?>, ? extends A> fa, Kind<IO<?>, ? extends B> fb, Kind<IO<?>, ? extends C> fc,
+      Kind<IO<?>, ? extends D> fd, Function4<? super A, ? super B, ? super C, ? super D, ? extends E> mapper) {
+    checkNonNull(mapper);
+    return parAll(executor, fa, fb, fc, fd).map(
+        values -> mapper.apply((A) values.get(0), (B) values.get(1), (C) values.get(2), (D) values.get(3)));
+  }
+
+  static <A, B, C, D, E, F> IO<F> parMap5(Kind<IO<?>, ? extends A> fa, Kind<IO<?>, ? extends B> fb, Kind<IO<?>, ? extends C> fc,
+      Kind<IO<?>, ? extends D> fd, Kind<IO<?>, ? extends E> fe, Function5<? super A, ? super B, ? super C, ? super D, ? super E, ? extends F> mapper) {
+    return parMap5(Future.DEFAULT_EXECUTOR, fa, fb, fc, fd, fe, mapper);
+  }
+
+  @SuppressWarnings("unchecked")
+  static <A, B, C, D, E, F> IO<F> parMap5(Executor executor, Kind<IO<?>, ? extends A> fa, Kind<IO<?>, ? extends B> fb, Kind<IO<?>, ? extends C> fc,
+      Kind<IO<?>, ? extends D> fd, Kind<IO<?>, ? extends E> fe, Function5<? super A, ? super B, ? super C, ? super D, ? super E, ? extends F> mapper) {
+    checkNonNull(mapper);
+    return parAll(executor, fa, fb, fc, fd, fe).map(
+        values -> mapper.apply((A) values.get(0), (B) values.get(1), (C) values.get(2), (D) values.get(3), (E) values.get(4)));
+  }
+
   static <A, B> IO<Tuple2<A, B>> tuple(Kind<IO<?>, ? extends A> fa, Kind<IO<?>, ? extends B> fb) {
     return tuple(Future.DEFAULT_EXECUTOR, fa, fb);
   }
@@ -421,84 +567,163 @@ public sealed interface IO<T> extends IOOf<T>, Effect<IO<?>, T>, Recoverable {
     return parMap2(executor, fa, fb, Tuple::of);
   }
 
+  /**
+   * Forks every effect only once, and fails as soon as one of them fails, cancelling all the others.
+   */
+  @SafeVarargs
+  private static IO<ImmutableArray<Object>> parAll(Executor executor, Kind<IO<?>, ?>... values) {
+    checkNonNull(executor);
+    return cancellable(callback -> {
+      Runnable cancel = Gather.<Object>all(values.length, values.length,
+          (index, result) -> runForked(executor, values[index], result),
+          Matcher1.never(), result -> callback.accept(result.map(Either::getRight)));
+
+      return IO.exec(cancel::run);
+    });
+  }
+
+  /**
+   * Runs the effect in the given executor, with its own connection, used to start every computation of a {@link Gather}.
+   */
+  private static <T> Runnable runForked(Executor executor, Kind<IO<?>, ? extends T> effect, Consumer1<? super Try<? extends T>> callback) {
+    IOConnection connection = IOConnection.cancellable();
+    runAsync(IO.forked(executor).andThen(effect), connection, executor).onComplete(callback);
+    return connection::cancel;
+  }
+
   private static <T> Promise<T> runAsync(IO<T> current, IOConnection connection) {
-    return runAsync(current, connection, new CallStack<>(), Promise.make());
+    return runAsync(current, connection, Future.DEFAULT_EXECUTOR);
+  }
+
+  private static <T> Promise<T> runAsync(IO<T> current, IOConnection connection, Executor executor) {
+    return runAsync(current, connection, new CallStack(executor), Promise.make());
   }
 
   @SuppressWarnings("unchecked")
-  private static <T, U, V> Promise<T> runAsync(Kind<IO<?>, T> current, IOConnection connection, CallStack<T> stack, Promise<T> promise) {
+  private static <T> Try<T> runSync(IO<T> current) {
+    CallStack stack = new CallStack();
+    // the calling thread is blocked anyway, so there is no need to cede it
+    IO<?> result = runLoop(current, stack, 0);
+
+    if (result instanceof Pure<?> pure) {
+      return Try.success((T) pure.value);
+    }
+    if (result instanceof Failure<?> failure) {
+      return Try.failure(failure.error);
+    }
+    // an async boundary has been reached, so the promise machinery is only needed from here
+    return resumeAsync((Async<?>) result, IOConnection.UNCANCELLABLE, stack, Promise.<T>make()).await();
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T> Promise<T> runAsync(IO<?> current, IOConnection connection, CallStack stack, Promise<T> promise) {
+    IO<?> result = runLoop(current, stack, CallStack.CEDE_THRESHOLD);
+
+    if (result instanceof Pure<?> pure) {
+      return promise.succeeded((T) pure.value);
+    }
+    if (result instanceof Failure<?> failure) {
+      return promise.failed(failure.error);
+    }
+    return resumeAsync((Async<?>) result, connection, stack, promise);
+  }
+
+  /**
+   * Evaluates the program in the current thread until it ends or an async boundary is reached.
+   * Returns a {@code Pure} with the final value, a {@code Failure} with an unhandled error or
+   * the {@code Async} node where the program has been suspended. If {@code maxSteps} is greater
+   * than zero, the program is suspended after evaluating that number of steps, and resumed in the
+   * executor of the stack.
+   */
+  @SuppressWarnings("unchecked")
+  private static IO<?> runLoop(IO<?> current, CallStack stack, int maxSteps) {
+    int steps = 0;
     while (true) {
-      try {
-        current = unwrap(current, stack, identity());
+      if (maxSteps > 0 && ++steps > maxSteps) {
+        stack.push(CallStack.RESUME, current);
+        return forked(stack.executor());
+      }
 
-        if (current instanceof Pure<T> pure) {
-          return promise.succeeded(pure.value);
+      try {
+        if (current instanceof FlatMapped<?, ?> flatMapped) {
+          stack.push(CallStack.FLAT_MAP, flatMapped.next);
+          current = flatMapped.current.fix(IOOf::toIO);
+          continue;
         }
 
-        if (current instanceof Async<T> async) {
-          return executeAsync(async, connection, promise);
+        if (current instanceof Map<?, ?> map) {
+          stack.push(CallStack.MAP, map.mapper);
+          current = map.current.fix(IOOf::toIO);
+          continue;
         }
 
-        if (current instanceof FlatMapped) {
-          stack.push();
-
-          var flatMapped = (FlatMapped<U, T>) current;
-          IO<U> source = unwrap(flatMapped.current, stack, u -> u.fix(IOOf::toIO).flatMap(flatMapped.next)).fix(IOOf::toIO);
+        if (current instanceof Recover<?> recover) {
+          stack.push(CallStack.RECOVER, recover.mapper);
+          current = recover.current.fix(IOOf::toIO);
+          continue;
+        }
 
-          if (source instanceof Async<U> async) {
-            Promise<U> nextPromise = Promise.make();
+        if (current instanceof Suspend<?> suspend) {
+          current = suspend.lazy.get().fix(IOOf::toIO);
+          continue;
+        }
 
-            nextPromise.then(u -> runAsync(flatMapped.next.apply(u).fix(IOOf::toIO), connection, stack, promise));
+        if (current instanceof Failure<?> failure) {
+          var handler = stack.findHandler(failure.error);
+          if (handler == null) {
+            return failure;
+          }
+          current = ((Kind<IO<?>, ?>) handler.apply(failure.error)).fix(IOOf::toIO);
+          continue;
+        }
 
-            executeAsync(async, connection, nextPromise);
+        if (current instanceof Async<?>) {
+          return current;
+        }
 
-            return promise;
-          }
+        Object value;
+        if (current instanceof Pure<?> pure) {
+          value = pure.value;
+        } else if (current instanceof Delay<?> delay) {
+          value = checkNonNull(delay.task.get());
+        } else {
+          throw new IllegalStateException("not supported: " + current);
+        }
 
-          if (source instanceof Pure<U> pure) {
-            current = flatMapped.next.apply(pure.value).fix(IOOf::toIO);
-          } else if (source instanceof FlatMapped) {
-            var flatMapped2 = (FlatMapped<V, U>) source;
-            current = flatMapped2.current.fix(IOOf::toIO)
-                .flatMap(a -> flatMapped2.next.apply(a).fix(IOOf::toIO)
-                    .flatMap(flatMapped.next));
+        IO<?> next = null;
+        while (next == null && !stack.isEmpty()) {
+          byte tag = stack.tag();
+          Object continuation = stack.pop();
+          if (tag == CallStack.MAP) {
+            value = checkNonNull(((Function1<Object, ?>) continuation).apply(value));
+          } else if (tag == CallStack.FLAT_MAP) {
+            next = ((Function1<Object, ? extends Kind<IO<?>, ?>>) continuation).apply(value).fix(IOOf::toIO);
+          } else if (tag == CallStack.RESUME) {
+            next = (IO<?>) continuation;
           }
-        } else {
-          stack.pop();
+          // recover markers are discarded when the computation succeeds
         }
-      } catch (Throwable error) {
-        Option<IO<T>> result = stack.tryHandle(error);
 
-        if (result.isPresent()) {
-          current = result.getOrElseThrow();
-        } else {
-          return promise.failed(error);
+        if (next == null) {
+          return IO.pure(value);
         }
+        current = next;
+      } catch (Throwable error) {
+        current = IO.raiseError(error);
       }
     }
   }
 
-  private static <T, U> Kind<IO<?>,T> unwrap(Kind<IO<?>, T> current, CallStack<U> stack, Function1<Kind<IO<?>, ? extends T>, Kind<IO<?>, ? extends U>> next) {
-    while (true) {
-      if (current instanceof Failure<T> failure) {
-        return stack.sneakyThrow(failure.error);
-      } else if (current instanceof Recover<T> recover) {
-        stack.add(recover.mapper.andThen(next));
-        current = recover.current;
-      } else if (current instanceof Suspend<T> suspend) {
-        current = suspend.lazy.get().fix(IOOf::toIO);
-      } else if (current instanceof Delay<T> delay) {
-        return IO.pure(delay.task.get());
-      } else if (current instanceof Pure) {
-        return current;
-      } else if (current instanceof FlatMapped) {
-        return current;
-      } else if (current instanceof Async) {
-        return current;
-      } else {
-        throw new IllegalStateException();
-      }
-    }
+  private static <T, U> Promise<T> resumeAsync(Async<U> async, IOConnection connection, CallStack stack, Promise<T> promise) {
+    Promise<U> nextPromise = Promise.make();
+
+    executeAsync(async, connection, nextPromise);
+
+    // the continuation is registered after the cancel token is set, so the next
+    // async computation cannot set its own token before this one
+    nextPromise.onComplete(result -> runAsync(result.fold(IO::raiseError, IO::pure), connection, stack, promise));
+
+    return promise;
   }
 
   private static <T> Promise<T> executeAsync(Async<T> current, IOConnection connection, Promise<T> promise) {
@@ -506,9 +731,10 @@ public sealed interface IO<T> extends IOOf<T>, Effect<IO<?>, T>, Recoverable {
       return promise.cancel();
     }
 
-    connection.setCancelToken(current.callback.apply(promise::tryComplete));
+    Kind<IO<?>, Unit> cancelToken = current.callback.apply(promise::tryComplete);
+    connection.setCancelToken(cancelToken);
 
-    promise.thenRun(() -> connection.setCancelToken(UNIT));
+    promise.thenRun(() -> connection.updateCancelToken(cancelToken, UNIT));
 
     if (connection.isCancellable() && connection.updateState(StateIO::notStartingNow).isCancellingNow()) {
       connection.cancelNow();
@@ -580,6 +806,40 @@ public sealed interface IO<T> extends IOOf<T>, Effect<IO<?>, T>, Recoverable {
     }
   }
 
+  final class Map<T, R> implements IO<R> {
+
+    private static final int MAX_FUSION_DEPTH = 128;
+
+    private final Kind<IO<?>, ? extends T> current;
+    private final Function1<? super T, ? extends R> mapper;
+    private final int depth;
+
+    private Map(IO<? extends T> current, Function1<? super T, ? extends R> mapper) {
+      this(current, mapper, 1);
+    }
+
+    private Map(IO<? extends T> current, Function1<? super T, ? extends R> mapper, int depth) {
+      this.current = checkNonNull(current);
+      this.mapper = checkNonNull(mapper);
+      this.depth = depth;
+    }
+
+    @Override
+    public <S> IO<S> map(Function1<? super R, ? extends S> map) {
+      // consecutive maps are fused in a single function, but the depth is limited
+      // to avoid a stack overflow when the composed function is finally applied
+      if (depth < MAX_FUSION_DEPTH) {
+        return new Map<>(current.fix(IOOf::toIO), mapper.andThen(map), depth + 1);
+      }
+      return new Map<>(this, map);
+    }
+
+    @Override
+    public String toString() {
+      return "Map(" + current + ", ?)";
+    }
+  }
+
   final class Delay<T> implements IO<T> {
 
     private final Producer<? extends T> task;
@@ -647,6 +907,8 @@ sealed interface IOConnection {
 
   void setCancelToken(Kind<IO<?>, Unit> cancel);
 
+  void updateCancelToken(Kind<IO<?>, Unit> expected, Kind<IO<?>, Unit> cancel);
+
   void cancelNow();
 
   void cancel();
@@ -671,6 +933,11 @@ sealed interface IOConnection {
       // uncancellable
     }
 
+    @Override
+    public void updateCancelToken(Kind<IO<?>, Unit> expected, Kind<IO<?>, Unit> cancel) {
+      // uncancellable
+    }
+
     @Override
     public void cancelNow() {
       // uncancellable
@@ -689,7 +956,7 @@ sealed interface IOConnection {
 
   final class Cancellable implements IOConnection {
 
-    private Kind<IO<?>, Unit> cancelToken = IO.UNIT;
+    private final AtomicReference<Kind<IO<?>, Unit>> cancelToken = new AtomicReference<>(IO.UNIT);
     private final AtomicReference<StateIO> state = new AtomicReference<>(StateIO.INITIAL);
 
     private Cancellable() { }
@@ -701,12 +968,18 @@ sealed interface IOConnection {
 
     @Override
     public void setCancelToken(Kind<IO<?>, Unit> cancel) {
-      this.cancelToken = checkNonNull(cancel);
+      cancelToken.set(checkNonNull(cancel));
+    }
+
+    @Override
+    public void updateCancelToken(Kind<IO<?>, Unit> expected, Kind<IO<?>, Unit> cancel) {
+      cancelToken.compareAndSet(expected, checkNonNull(cancel));
     }
 
     @Override
+    @SuppressWarnings("NullAway")
     public void cancelNow() {
-      cancelToken.fix(IOOf::toIO).runAsync();
+      cancelToken.get().fix(IOOf::toIO).runAsync();
     }
 
     @Override
@@ -725,6 +998,10 @@ sealed interface IOConnection {
   }
 }
 
+/*
+ * releases the resource only once, when the use of the resource ends, even if it fails,
+ * or when the bracket is cancelled, even if the resource is acquired after the cancellation
+ */
 final class StateIO {
 
   public static final StateIO INITIAL = new StateIO(false, false, false);
@@ -772,103 +1049,3 @@ final class StateIO {
     return !isCancelled && !cancellingNow;
   }
 }
-
-final class CallStack<T> implements Recoverable {
-
-  @Nullable
-  private StackItem<T> top = new StackItem<>();
-
-  public void push() {
-    if (top != null) {
-      top.push();
-    }
-  }
-
-  public void pop() {
-    if (top == null) {
-      return;
-    }
-    if (top.count() > 0) {
-      top.pop();
-    } else {
-      top = top.prev();
-    }
-  }
-
-  public void add(PartialFunction1<? super Throwable, ? extends Kind<IO<?>, ? extends T>> mapError) {
-    if (top == null) {
-      return;
-    }
-    if (top.count() > 0) {
-      top.pop();
-      top = new StackItem<>(top);
-    }
-    top.add(mapError);
-  }
-
-  public Option<IO<T>> tryHandle(Throwable error) {
-    while (top != null) {
-      top.reset();
-      Option<IO<T>> result = top.tryHandle(error);
-
-      if (result.isPresent()) {
-        return result;
-      } else {
-        top = top.prev();
-      }
-    }
-    return Option.none();
-  }
-}
-
-final class StackItem<T> {
-
-  private int count = 0;
-  private final Deque<PartialFunction1<? super Throwable, ? extends Kind<IO<?>, ? extends T>>> recover = new ArrayDeque<>();
-
-  @Nullable
-  private final StackItem<T> prev;
-
-  public StackItem() {
-    this(null);
-  }
-
-  public StackItem(@Nullable StackItem<T> prev) {
-    this.prev = prev;
-  }
-
-  @Nullable
-  public StackItem<T> prev() {
-    return prev;
-  }
-
-  public int count() {
-    return count;
-  }
-
-  public void push() {
-    count++;
-  }
-
-  public void pop() {
-    count--;
-  }
-
-  public void reset() {
-    count = 0;
-  }
-
-  public void add(PartialFunction1<? super Throwable, ? extends Kind<IO<?>, ? extends T>> mapError) {
-    recover.addFirst(mapError);
-  }
-
-  public Option<IO<T>> tryHandle(Throwable error) {
-    while (!recover.isEmpty()) {
-      var mapError = recover.removeFirst();
-      if (mapError.isDefinedAt(error)) {
-        return Option.some(mapError.apply(error).fix(IOOf::toIO));
-      }
-    }
-    return Option.none();
-  }
-}
\ No newline at end of file
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2018-2024, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.purefun.monad;
+
+import static com.github.tonivade.purefun.core.Precondition.checkNonNull;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntUnaryOperator;
+
+import com.github.tonivade.purefun.concurrent.Backoff;
+import com.github.tonivade.purefun.core.Unit;
+
+/**
+ * A {@link Ref} specialized for {@code int} values, the value is kept in an {@link AtomicInteger} without boxing it.
+ */
+public final class IntRef {
+
+  private final AtomicInteger value;
+
+  private IntRef(int value) {
+    this.value = new AtomicInteger(value);
+  }
+
+  public IO<Integer> get() {
+    return IO.task(value::get);
+  }
+
+  public IO<Unit> set(int newValue) {
+    return IO.exec(() -> value.set(newValue));
+  }
+
+  public IO<Unit> lazySet(int newValue) {
+    return IO.exec(() -> value.lazySet(newValue));
+  }
+
+  public IO<Integer> getAndSet(int newValue) {
+    return IO.task(() -> value.getAndSet(newValue));
+  }
+
+  public IO<Integer> incrementAndGet() {
+    return IO.task(value::incrementAndGet);
+  }
+
+  public IO<Integer> decrementAndGet() {
+    return IO.task(value::decrementAndGet);
+  }
+
+  public IO<Integer> addAndGet(int delta) {
+    return IO.task(() -> value.addAndGet(delta));
+  }
+
+  public IO<Integer> getAndAdd(int delta) {
+    return IO.task(() -> value.getAndAdd(delta));
+  }
+
+  public IO<Unit> update(IntUnaryOperator update) {
+    checkNonNull(update);
+    return IO.exec(() -> Backoff.update(value, update, false));
+  }
+
+  public IO<Integer> updateAndGet(IntUnaryOperator update) {
+    checkNonNull(update);
+    return IO.task(() -> Backoff.update(value, update, false));
+  }
+
+  public IO<Integer> getAndUpdate(IntUnaryOperator update) {
+    checkNonNull(update);
+    return IO.task(() -> Backoff.update(value, update, true));
+  }
+
+  public static IO<IntRef> make(int value) {
+    return IO.pure(of(value));
+  }
+
+  public static IntRef of(int value) {
+    return new IntRef(value);
+  }
+
+  @Override
+  public String toString() {
+    return String.format("IntRef(%s)", value.get());
+  }
+}
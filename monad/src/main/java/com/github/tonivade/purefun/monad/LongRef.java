@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2018-2024, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.purefun.monad;
+
+import static com.github.tonivade.purefun.core.Precondition.checkNonNull;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongUnaryOperator;
+
+import com.github.tonivade.purefun.concurrent.Backoff;
+import com.github.tonivade.purefun.core.Unit;
+
+/**
+ * A {@link Ref} specialized for {@code long} values, the value is kept in an {@link AtomicLong} without boxing it.
+ */
+public final class LongRef {
+
+  private final AtomicLong value;
+
+  private LongRef(long value) {
+    this.value = new AtomicLong(value);
+  }
+
+  public IO<Long> get() {
+    return IO.task(value::get);
+  }
+
+  public IO<Unit> set(long newValue) {
+    return IO.exec(() -> value.set(newValue));
+  }
+
+  public IO<Unit> lazySet(long newValue) {
+    return IO.exec(() -> value.lazySet(newValue));
+  }
+
+  public IO<Long> getAndSet(long newValue) {
+    return IO.task(() -> value.getAndSet(newValue));
+  }
+
+  public IO<Long> incrementAndGet() {
+    return IO.task(value::incrementAndGet);
+  }
+
+  public IO<Long> decrementAndGet() {
+    return IO.task(value::decrementAndGet);
+  }
+
+  public IO<Long> addAndGet(long delta) {
+    return IO.task(() -> value.addAndGet(delta));
+  }
+
+  public IO<Long> getAndAdd(long delta) {
+    return IO.task(() -> value.getAndAdd(delta));
+  }
+
+  public IO<Unit> update(LongUnaryOperator update) {
+    checkNonNull(update);
+    return IO.exec(() -> Backoff.update(value, update, false));
+  }
+
+  public IO<Long> updateAndGet(LongUnaryOperator update) {
+    checkNonNull(update);
+    return IO.task(() -> Backoff.update(value, update, false));
+  }
+
+  public IO<Long> getAndUpdate(LongUnaryOperator update) {
+    checkNonNull(update);
+    return IO.task(() -> Backoff.update(value, update, true));
+  }
+
+  public static IO<LongRef> make(long value) {
+    return IO.pure(of(value));
+  }
+
+  public static LongRef of(long value) {
+    return new LongRef(value);
+  }
+
+  @Override
+  public String toString() {
+    return String.format("LongRef(%s)", value.get());
+  }
+}
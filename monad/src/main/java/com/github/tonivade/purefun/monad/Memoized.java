@@ -0,0 +1,296 @@
+/*
+ * Copyright (c) 2018-2024, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.purefun.monad;
+
+import static com.github.tonivade.purefun.core.Precondition.check;
+import static com.github.tonivade.purefun.core.Precondition.checkNonNull;
+import static com.github.tonivade.purefun.core.Precondition.checkPositive;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.github.tonivade.purefun.concurrent.Promise;
+import com.github.tonivade.purefun.core.Function1;
+import com.github.tonivade.purefun.type.Option;
+import com.github.tonivade.purefun.type.Try;
+
+/**
+ * <p>Memoized version of a function that returns an {@code IO}, created using {@code IO.memoize(policy, function)}.</p>
+ *
+ * <p>The results are stored in a fixed number of segments, every one guarded by its own lock, and bounded by
+ * the maximum size of the given {@link Policy}. When a segment is full, an entry is evicted using the
+ * {@link Eviction} strategy of the policy. Optionally, the entries can expire after a given time since they were
+ * written, and can be refreshed in background after a given time, while the previous value is still returned.</p>
+ *
+ * <p>Failures are never cached, if the computation fails, the entry is removed and the next call will try again.</p>
+ *
+ * @param <A> type of the key
+ * @param <T> type of the result
+ */
+public final class Memoized<A, T> implements Function1<A, IO<T>> {
+
+  private static final int MAX_SEGMENTS = 16;
+  private static final int MIN_SEGMENT_SIZE = 16;
+
+  public enum Eviction {
+    /** Evicts the least recently used entry */
+    LRU,
+    /** Evicts the least frequently used entry */
+    LFU
+  }
+
+  public record Policy(int maxSize, Eviction eviction, Option<Duration> expireAfterWrite, Option<Duration> refreshAfterWrite) {
+
+    public Policy {
+      checkPositive(maxSize);
+      checkNonNull(eviction);
+      checkNonNull(expireAfterWrite);
+      checkNonNull(refreshAfterWrite);
+    }
+
+    public static Policy lru(int maxSize) {
+      return new Policy(maxSize, Eviction.LRU, Option.none(), Option.none());
+    }
+
+    public static Policy lfu(int maxSize) {
+      return new Policy(maxSize, Eviction.LFU, Option.none(), Option.none());
+    }
+
+    public Policy expireAfterWrite(Duration duration) {
+      check(() -> !checkNonNull(duration).isNegative() && !duration.isZero(), "duration should be positive");
+      return new Policy(maxSize, eviction, Option.some(duration), refreshAfterWrite);
+    }
+
+    public Policy refreshAfterWrite(Duration duration) {
+      check(() -> !checkNonNull(duration).isNegative() && !duration.isZero(), "duration should be positive");
+      return new Policy(maxSize, eviction, expireAfterWrite, Option.some(duration));
+    }
+  }
+
+  private final Executor executor;
+  private final Function1<A, IO<T>> function;
+  private final Segment[] segments;
+  private final long expireAfterWrite;
+  private final long refreshAfterWrite;
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  Memoized(Executor executor, Policy policy, Function1<A, IO<T>> function) {
+    this.executor = checkNonNull(executor);
+    this.function = checkNonNull(function);
+    checkNonNull(policy);
+    this.expireAfterWrite = policy.expireAfterWrite().map(Duration::toNanos).getOrElse(0L);
+    this.refreshAfterWrite = policy.refreshAfterWrite().map(Duration::toNanos).getOrElse(0L);
+    // small caches use a single segment, so the eviction policy is applied to all the entries
+    int length = Integer.highestOneBit(Math.clamp(policy.maxSize() / MIN_SEGMENT_SIZE, 1, MAX_SEGMENTS));
+    int capacity = (policy.maxSize() + length - 1) / length;
+    this.segments = new Memoized.Segment[length];
+    for (int i = 0; i < length; i++) {
+      segments[i] = new Segment(capacity, policy.eviction());
+    }
+  }
+
+  @Override
+  public IO<T> run(A key) {
+    return IO.suspend(() -> IO.fromPromise(lookup(key)));
+  }
+
+  public long hits() {
+    return hits.sum();
+  }
+
+  public long misses() {
+    return misses.sum();
+  }
+
+  public long evictions() {
+    return evictions.sum();
+  }
+
+  public int size() {
+    int size = 0;
+    for (Segment segment : segments) {
+      size += segment.size();
+    }
+    return size;
+  }
+
+  @Override
+  public String toString() {
+    return "Memoized(hits=" + hits() + ", misses=" + misses() + ", evictions=" + evictions() + ")";
+  }
+
+  private Promise<T> lookup(A key) {
+    Segment segment = segmentFor(key);
+    long now = System.nanoTime();
+    Entry<T> entry;
+    boolean load = false;
+    boolean refresh = false;
+
+    segment.lock.lock();
+    try {
+      Entry<T> current = segment.entries.get(key);
+      if (current != null && isExpired(current, now)) {
+        segment.entries.remove(key);
+        current = null;
+      }
+      if (current == null) {
+        evictions.add(segment.evict());
+        entry = new Entry<>(Promise.make(executor), now);
+        segment.entries.put(key, entry);
+        load = true;
+      } else {
+        entry = current;
+        entry.frequency++;
+        if (!entry.refreshing && needsRefresh(entry, now)) {
+          entry.refreshing = true;
+          refresh = true;
+        }
+      }
+    } finally {
+      segment.lock.unlock();
+    }
+
+    if (load) {
+      misses.increment();
+      load(segment, key, entry);
+    } else {
+      hits.increment();
+      if (refresh) {
+        refresh(segment, key, entry);
+      }
+    }
+    return entry.promise;
+  }
+
+  /*
+   * the function is applied inside the IO, so if it throws, the entry is removed and the promise completed
+   * like with any other failure, instead of leaving behind a promise that never completes
+   */
+  private void load(Segment segment, A key, Entry<T> entry) {
+    IO.suspend(() -> function.apply(key)).safeRunAsync(executor, result -> {
+      if (result.isFailure()) {
+        segment.remove(key, entry);
+      }
+      entry.promise.tryComplete(result);
+    });
+  }
+
+  private void refresh(Segment segment, A key, Entry<T> entry) {
+    IO.suspend(() -> function.apply(key)).safeRunAsync(executor, result -> segment.refreshed(key, entry, result));
+  }
+
+  private boolean isExpired(Entry<T> entry, long now) {
+    return expireAfterWrite > 0 && entry.promise.isCompleted() && now - entry.writeTime >= expireAfterWrite;
+  }
+
+  private boolean needsRefresh(Entry<T> entry, long now) {
+    return refreshAfterWrite > 0 && entry.promise.isCompleted() && now - entry.writeTime >= refreshAfterWrite;
+  }
+
+  private Segment segmentFor(A key) {
+    int hash = key.hashCode();
+    return segments[(hash ^ (hash >>> 16)) & (segments.length - 1)];
+  }
+
+  private static final class Entry<T> {
+
+    private final Promise<T> promise;
+    private final long writeTime;
+
+    // guarded by the lock of the segment
+    private int frequency;
+    private boolean refreshing;
+
+    private Entry(Promise<T> promise, long writeTime) {
+      this.promise = promise;
+      this.writeTime = writeTime;
+    }
+  }
+
+  private final class Segment {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<A, Entry<T>> entries;
+    private final int capacity;
+    private final Eviction eviction;
+
+    private Segment(int capacity, Eviction eviction) {
+      this.capacity = capacity;
+      this.eviction = eviction;
+      this.entries = new LinkedHashMap<>(16, 0.75f, eviction == Eviction.LRU);
+    }
+
+    private int size() {
+      lock.lock();
+      try {
+        return entries.size();
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    private void remove(A key, Entry<T> entry) {
+      lock.lock();
+      try {
+        entries.remove(key, entry);
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    private void refreshed(A key, Entry<T> entry, Try<? extends T> result) {
+      lock.lock();
+      try {
+        if (result.isSuccess() && entries.get(key) == entry) {
+          Entry<T> refreshed = new Entry<>(Promise.make(executor), System.nanoTime());
+          refreshed.frequency = entry.frequency;
+          refreshed.promise.tryComplete(result);
+          entries.put(key, refreshed);
+        } else {
+          entry.refreshing = false;
+        }
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    // should be called with the lock acquired, before adding a new entry
+    private int evict() {
+      int evicted = 0;
+      while (entries.size() >= capacity) {
+        Iterator<Map.Entry<A, Entry<T>>> iterator = entries.entrySet().iterator();
+        if (eviction == Eviction.LRU) {
+          // entries are in access order, the first one is the least recently used
+          iterator.next();
+          iterator.remove();
+        } else {
+          removeLeastFrequentlyUsed(iterator);
+        }
+        evicted++;
+      }
+      return evicted;
+    }
+
+    private void removeLeastFrequentlyUsed(Iterator<Map.Entry<A, Entry<T>>> iterator) {
+      Map.Entry<A, Entry<T>> victim = iterator.next();
+      while (iterator.hasNext()) {
+        Map.Entry<A, Entry<T>> next = iterator.next();
+        if (next.getValue().frequency < victim.getValue().frequency) {
+          victim = next;
+        }
+      }
+      entries.remove(victim.getKey());
+    }
+  }
+}
@@ -9,6 +9,7 @@ import static com.github.tonivade.purefun.monad.IO.unit;
 import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
@@ -22,7 +23,10 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.time.Duration;
 import java.util.NoSuchElementException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.LockSupport;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -36,6 +40,7 @@ import com.github.tonivade.purefun.core.Producer;
 import com.github.tonivade.purefun.core.Tuple2;
 import com.github.tonivade.purefun.core.Unit;
 import com.github.tonivade.purefun.data.ImmutableList;
+import com.github.tonivade.purefun.data.Range;
 import com.github.tonivade.purefun.data.Sequence;
 import com.github.tonivade.purefun.runtimes.ConsoleExecutor;
 import com.github.tonivade.purefun.type.Either;
@@ -122,6 +127,26 @@ public class IOTest {
     verify(resultSet).close();
   }
 
+  @Test
+  public void bracketReleasesOnFailure() throws SQLException {
+    ResultSet resultSet = mock(ResultSet.class);
+
+    IO<String> bracket = IO.bracket(open(resultSet), rs -> IO.<String>raiseError(new SQLException()));
+
+    assertThrows(SQLException.class, bracket::unsafeRunSync);
+    verify(resultSet).close();
+  }
+
+  @Test
+  public void bracketReleasesOnCancel() throws SQLException {
+    ResultSet resultSet = mock(ResultSet.class);
+
+    IO<String> bracket = IO.bracket(open(resultSet), rs -> IO.<String>never());
+
+    assertThrows(TimeoutException.class, bracket.timeout(Duration.ofMillis(50))::unsafeRunSync);
+    verify(resultSet, timeout(1000)).close();
+  }
+
   @Test
   public void safeRunAsyncSuccess(@Mock Consumer1<? super Try<? extends String>> callback) {
     IO.pure("hola").safeRunAsync(callback);
@@ -246,6 +271,91 @@ public class IOTest {
     assertEquals("adios", io.unsafeRunSync());
   }
 
+  @Test
+  public void mapStackSafety() {
+    IO<Integer> io = IO.pure(0);
+    for (int i = 0; i < 100000; i++) {
+      io = io.map(x -> x + 1);
+    }
+
+    IO<Integer> result = io;
+
+    assertEquals(100000, result.unsafeRunSync());
+    assertEquals(100001, IO.unit().flatMap(ignore -> result).map(x -> x + 1).unsafeRunSync());
+  }
+
+  @Test
+  public void leftAssociatedStackSafety() {
+    IO<Integer> io = IO.pure(0);
+    for (int i = 0; i < 100000; i++) {
+      io = io.flatMap(x -> IO.task(() -> x + 1));
+    }
+
+    assertEquals(100000, io.unsafeRunSync());
+  }
+
+  @Test
+  public void nestedRecover() {
+    IO<String> io = IO.<String>raiseError(new IllegalArgumentException())
+        .recover(NoSuchElementException.class, error -> "inner")
+        .map(String::toUpperCase)
+        .recover(IllegalArgumentException.class, error -> "outer")
+        .flatMap(value -> IO.<String>raiseError(new UnsupportedOperationException(value)))
+        .recover(error -> error.getMessage());
+
+    assertEquals("outer", io.unsafeRunSync());
+  }
+
+  @Test
+  public void runSyncInCurrentThread() {
+    Thread current = Thread.currentThread();
+
+    IO<Thread> io = IO.unit().map(ignore -> Thread.currentThread()).flatMap(thread -> IO.task(() -> thread));
+
+    assertEquals(current, io.unsafeRunSync());
+  }
+
+  @Test
+  public void runSyncAsyncBoundary() {
+    IO<String> io = IO.task(() -> "hola").flatMap(value -> IO.forked().map(ignore -> value + " mundo"));
+
+    assertEquals(Try.success("hola mundo"), io.safeRunSync());
+    assertThrows(UnsupportedOperationException.class,
+        IO.forked().andThen(IO.raiseError(new UnsupportedOperationException()))::unsafeRunSync);
+  }
+
+  @Test
+  public void cede() {
+    IO<String> io = IO.task(() -> "hola").flatMap(value -> IO.cede().map(ignore -> value + " mundo"));
+
+    assertEquals("hola mundo", io.runAsync().getOrElseThrow());
+  }
+
+  @Test
+  public void blocking() {
+    IO<String> io = IO.blocking(() -> Thread.currentThread().getName())
+        .flatMap(name -> IO.task(() -> name + " " + Thread.currentThread().getName()));
+
+    String[] result = io.unsafeRunSync().split(" ", -1);
+
+    assertTrue(result[0].startsWith("purefun-blocking-"));
+    assertFalse(result[1].startsWith("purefun-blocking-"));
+  }
+
+  @Test
+  public void blockingFailure() {
+    IO<String> io = IO.blocking(() -> { throw new UnsupportedOperationException(); });
+
+    assertTrue(io.safeRunSync().getCause() instanceof UnsupportedOperationException);
+  }
+
+  @Test
+  public void mapAsync() {
+    IO<String> io = IO.forked().andThen(IO.pure("hola")).map(String::toUpperCase).map(x -> x + " MUNDO");
+
+    assertEquals("HOLA MUNDO", io.unsafeRunSync());
+  }
+
   @Test
   public void stackSafety() {
     IO<Integer> sum = sum(100000, 0);
@@ -276,6 +386,21 @@ public class IOTest {
     assertEquals(1, IO.pure(1).timeout(Duration.ofSeconds(1)).unsafeRunSync());
   }
 
+  @Test
+  public void timeoutCancelsAfterSyncAsync() throws InterruptedException {
+    CountDownLatch cancelled = new CountDownLatch(1);
+    // the callback returns after the next step has started in other thread
+    IO<Unit> program = IO.<Unit>cancellable(callback -> {
+          callback.accept(Try.success(Unit.unit()));
+          LockSupport.parkNanos(Duration.ofMillis(50).toNanos());
+          return IO.unit();
+        })
+        .andThen(IO.cancellable(callback -> IO.exec(cancelled::countDown)));
+
+    assertThrows(TimeoutException.class, program.timeout(Duration.ofMillis(200))::unsafeRunSync);
+    assertTrue(cancelled.await(1, TimeUnit.SECONDS));
+  }
+
   @Test
   public void traverse() {
     IO<String> left = IO.task(() -> "left");
@@ -286,6 +411,65 @@ public class IOTest {
     assertEquals(listOf("left", "right"), traverse.unsafeRunSync());
   }
 
+  @Test
+  public void parTraverseN() {
+    IO<Sequence<Integer>> traverse = IO.parTraverseN(4, Range.of(0, 1000).collect(), x -> IO.task(() -> x * 2));
+
+    assertEquals(Range.of(0, 1000).collect().map(x -> x * 2).asList(), traverse.unsafeRunSync().asList());
+  }
+
+  @Test
+  public void parSequenceNFailure() {
+    IO<Sequence<String>> sequence = IO.parSequenceN(2, listOf(
+        IO.task(() -> "a"),
+        IO.raiseError(new UnsupportedOperationException()),
+        IO.never()));
+
+    assertThrows(UnsupportedOperationException.class, sequence::unsafeRunSync);
+  }
+
+  @Test
+  public void parMapN() {
+    IO<String> parMap3 = IO.parMap3(IO.task(() -> "a"), IO.task(() -> "b"), IO.task(() -> "c"), (a, b, c) -> a + b + c);
+    IO<String> parMap4 = IO.parMap4(IO.task(() -> "a"), IO.task(() -> "b"), IO.task(() -> "c"), IO.task(() -> "d"),
+        (a, b, c, d) -> a + b + c + d);
+    IO<String> parMap5 = IO.parMap5(IO.task(() -> "a"), IO.task(() -> "b"), IO.task(() -> "c"), IO.task(() -> "d"),
+        IO.task(() -> "e"), (a, b, c, d, e) -> a + b + c + d + e);
+
+    assertAll(
+        () -> assertEquals("abc", parMap3.unsafeRunSync()),
+        () -> assertEquals("abcd", parMap4.unsafeRunSync()),
+        () -> assertEquals("abcde", parMap5.unsafeRunSync()));
+  }
+
+  @Test
+  public void parMapNFailFast() {
+    IO<String> parMap3 = IO.parMap3(IO.<String>never(), IO.<String>raiseError(new UnsupportedOperationException()),
+        IO.task(() -> "c"), (a, b, c) -> a + b + c);
+
+    assertThrows(UnsupportedOperationException.class, parMap3::unsafeRunSync);
+  }
+
+  @Test
+  public void raceAll() {
+    IO<Integer> race = IO.raceAll(listOf(
+        IO.delay(Duration.ofMillis(300), () -> 1),
+        IO.delay(Duration.ofMillis(10), () -> 2),
+        IO.never()));
+
+    assertEquals(2, race.unsafeRunSync());
+  }
+
+  @Test
+  public void raceAllFailure() {
+    IO<Integer> race = IO.raceAll(listOf(
+        IO.delay(Duration.ofMillis(300), () -> 1),
+        IO.raiseError(new UnsupportedOperationException())));
+
+    assertThrows(UnsupportedOperationException.class, race::unsafeRunSync);
+    assertThrows(NoSuchElementException.class, IO.raceAll(ImmutableList.<IO<Integer>>empty())::unsafeRunSync);
+  }
+
   @Test
   public void raceA() {
     IO<Either<Integer, String>> race = IO.race(
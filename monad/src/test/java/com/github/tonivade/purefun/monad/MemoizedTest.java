@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2018-2024, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.purefun.monad;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.tonivade.purefun.type.Try;
+
+class MemoizedTest {
+
+  private final AtomicInteger calls = new AtomicInteger();
+
+  @Test
+  void hitsAndMisses() {
+    Memoized<String, String> memoized = IO.memoize(Memoized.Policy.lru(10), this::toUpperCase).unsafeRunSync();
+
+    assertEquals("HOLA", memoized.apply("hola").unsafeRunSync());
+    assertEquals("HOLA", memoized.apply("hola").unsafeRunSync());
+    assertEquals("HOLA", memoized.apply("hola").unsafeRunSync());
+
+    assertAll(
+        () -> assertEquals(1, calls.get()),
+        () -> assertEquals(2, memoized.hits()),
+        () -> assertEquals(1, memoized.misses()),
+        () -> assertEquals(1, memoized.size()));
+  }
+
+  @Test
+  void failuresNotCached() {
+    Memoized<String, String> memoized = IO.memoize(Memoized.Policy.lru(10), (String value) -> {
+      if (calls.incrementAndGet() == 1) {
+        return IO.<String>raiseError(new UnsupportedOperationException());
+      }
+      return IO.pure(value.toUpperCase());
+    }).unsafeRunSync();
+
+    Try<String> failure = memoized.apply("hola").safeRunSync();
+
+    assertTrue(failure.isFailure());
+    assertEquals("HOLA", memoized.apply("hola").unsafeRunSync());
+    assertEquals(2, calls.get());
+  }
+
+  @Test
+  void functionThrows() {
+    Memoized<String, String> memoized = IO.memoize(Memoized.Policy.lru(10), (String value) -> {
+      if (calls.incrementAndGet() == 1) {
+        throw new UnsupportedOperationException();
+      }
+      return IO.pure(value.toUpperCase());
+    }).unsafeRunSync();
+
+    Try<String> failure = memoized.apply("hola").safeRunSync();
+
+    assertTrue(failure.isFailure());
+    assertEquals("HOLA", memoized.apply("hola").unsafeRunSync());
+    assertEquals(2, calls.get());
+  }
+
+  @Test
+  void lru() {
+    Memoized<String, String> memoized = IO.memoize(Memoized.Policy.lru(2), this::toUpperCase).unsafeRunSync();
+
+    memoized.apply("a").unsafeRunSync();
+    memoized.apply("b").unsafeRunSync();
+    memoized.apply("a").unsafeRunSync();
+    memoized.apply("c").unsafeRunSync();
+    memoized.apply("a").unsafeRunSync();
+    memoized.apply("b").unsafeRunSync();
+
+    assertAll(
+        () -> assertEquals(4, calls.get()),
+        () -> assertEquals(2, memoized.evictions()),
+        () -> assertEquals(2, memoized.size()));
+  }
+
+  @Test
+  void lfu() {
+    Memoized<String, String> memoized = IO.memoize(Memoized.Policy.lfu(2), this::toUpperCase).unsafeRunSync();
+
+    memoized.apply("a").unsafeRunSync();
+    memoized.apply("a").unsafeRunSync();
+    memoized.apply("b").unsafeRunSync();
+    memoized.apply("c").unsafeRunSync();
+    memoized.apply("a").unsafeRunSync();
+
+    assertAll(
+        () -> assertEquals(3, calls.get()),
+        () -> assertEquals(1, memoized.evictions()),
+        () -> assertEquals(2, memoized.size()));
+  }
+
+  @Test
+  void expireAfterWrite() throws InterruptedException {
+    Memoized.Policy policy = Memoized.Policy.lru(10).expireAfterWrite(Duration.ofMillis(50));
+    Memoized<String, String> memoized = IO.memoize(policy, this::toUpperCase).unsafeRunSync();
+
+    memoized.apply("hola").unsafeRunSync();
+    memoized.apply("hola").unsafeRunSync();
+    Thread.sleep(100);
+    memoized.apply("hola").unsafeRunSync();
+
+    assertEquals(2, calls.get());
+  }
+
+  @Test
+  void refreshAfterWrite() throws InterruptedException {
+    Memoized.Policy policy = Memoized.Policy.lru(10).refreshAfterWrite(Duration.ofMillis(50));
+    Memoized<String, Integer> memoized =
+        IO.memoize(policy, (String value) -> IO.task(calls::incrementAndGet)).unsafeRunSync();
+
+    assertEquals(1, memoized.apply("hola").unsafeRunSync());
+    Thread.sleep(100);
+    // the previous value is returned while refreshing
+    assertEquals(1, memoized.apply("hola").unsafeRunSync());
+    Thread.sleep(100);
+    assertEquals(2, memoized.apply("hola").unsafeRunSync());
+  }
+
+  @Test
+  void refreshThrows() throws InterruptedException {
+    Memoized.Policy policy = Memoized.Policy.lru(10).refreshAfterWrite(Duration.ofMillis(50));
+    Memoized<String, Integer> memoized = IO.memoize(policy, (String value) -> {
+      if (calls.incrementAndGet() == 2) {
+        throw new UnsupportedOperationException();
+      }
+      return IO.pure(calls.get());
+    }).unsafeRunSync();
+
+    assertEquals(1, memoized.apply("hola").unsafeRunSync());
+    Thread.sleep(100);
+    // the refresh fails, and the previous value is kept
+    assertEquals(1, memoized.apply("hola").unsafeRunSync());
+    Thread.sleep(50);
+    // the entry can be refreshed again
+    assertEquals(1, memoized.apply("hola").unsafeRunSync());
+    Thread.sleep(100);
+    assertEquals(3, memoized.apply("hola").unsafeRunSync());
+  }
+
+  @Test
+  void invalidPolicy() {
+    assertAll(
+        () -> assertThrows(IllegalArgumentException.class, () -> Memoized.Policy.lru(0)),
+        () -> assertThrows(IllegalArgumentException.class, () -> Memoized.Policy.lfu(10).expireAfterWrite(Duration.ZERO)));
+  }
+
+  private IO<String> toUpperCase(String value) {
+    return IO.task(() -> {
+      calls.incrementAndGet();
+      return value.toUpperCase();
+    });
+  }
+}
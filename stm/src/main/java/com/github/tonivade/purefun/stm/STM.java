@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) 2018-2024, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.purefun.stm;
+
+import static com.github.tonivade.purefun.core.Precondition.checkNonNull;
+
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+import com.github.tonivade.purefun.Kind;
+import com.github.tonivade.purefun.Nullable;
+import com.github.tonivade.purefun.concurrent.Backoff;
+import com.github.tonivade.purefun.concurrent.Future;
+import com.github.tonivade.purefun.core.Consumer1;
+import com.github.tonivade.purefun.core.Function1;
+import com.github.tonivade.purefun.core.Producer;
+import com.github.tonivade.purefun.core.Unit;
+import com.github.tonivade.purefun.type.Try;
+import com.github.tonivade.purefun.typeclasses.Async;
+
+/**
+ * <p>A transaction over many {@link TRef}. The transaction is executed by {@code atomically}, all the changes
+ * are committed at the same time or none of them, and it never sees the changes made by other transactions
+ * meanwhile. If another transaction modifies a reference read before this one commits, it's executed again.</p>
+ *
+ * <p>A transaction can decide to {@code retry} when the state of the references doesn't allow it to continue,
+ * then the fiber is suspended until any of the references read by the transaction changes, without blocking
+ * any thread.</p>
+ *
+ * <p>The transaction can be executed many times, so it should not have any side effect.</p>
+ *
+ * @param <A> type of the result
+ */
+public final class STM<A> {
+
+  private final Function1<Transaction, A> run;
+
+  STM(Function1<Transaction, A> run) {
+    this.run = checkNonNull(run);
+  }
+
+  public <B> STM<B> map(Function1<? super A, ? extends B> map) {
+    checkNonNull(map);
+    return new STM<>(tx -> map.apply(run.apply(tx)));
+  }
+
+  public <B> STM<B> flatMap(Function1<? super A, ? extends STM<? extends B>> map) {
+    checkNonNull(map);
+    return new STM<>(tx -> map.apply(run.apply(tx)).run(tx));
+  }
+
+  public <B> STM<B> andThen(STM<? extends B> next) {
+    checkNonNull(next);
+    return flatMap(ignore -> next);
+  }
+
+  /**
+   * If this transaction retries, the changes made by it are discarded and the other one is executed instead.
+   * If both retry, the fiber waits for any of the references read by any of them.
+   */
+  public STM<A> orElse(STM<? extends A> other) {
+    checkNonNull(other);
+    return new STM<>(tx -> {
+      Map<TRef<?>, Object> savepoint = tx.savepoint();
+      try {
+        return run.apply(tx);
+      } catch (RuntimeException e) {
+        if (e != Transaction.RETRY) {
+          throw e;
+        }
+        tx.rollback(savepoint);
+        return other.run(tx);
+      }
+    });
+  }
+
+  public <F> Kind<F, A> atomically(Async<F> async) {
+    return atomically(Future.DEFAULT_EXECUTOR, async);
+  }
+
+  /**
+   * Executes the transaction inside the effect {@code F}. A suspended transaction is resumed in the given executor.
+   */
+  public <F> Kind<F, A> atomically(Executor executor, Async<F> async) {
+    checkNonNull(executor);
+    checkNonNull(async);
+    return async.asyncF(callback -> {
+      Atomically<A> atomically = new Atomically<>(executor, this, callback);
+      atomically.run();
+      return async.exec(atomically::cancel);
+    });
+  }
+
+  A run(Transaction tx) {
+    return run.apply(tx);
+  }
+
+  public static <A> STM<A> pure(A value) {
+    return new STM<>(tx -> value);
+  }
+
+  public static <A> STM<A> later(Producer<? extends A> producer) {
+    checkNonNull(producer);
+    return new STM<>(tx -> producer.get());
+  }
+
+  public static STM<Unit> unit() {
+    return pure(Unit.unit());
+  }
+
+  /**
+   * Aborts the transaction, and executes it again when any of the references read has changed.
+   */
+  public static <A> STM<A> retry() {
+    return new STM<>(tx -> {
+      throw Transaction.RETRY;
+    });
+  }
+
+  public static STM<Unit> check(boolean condition) {
+    return condition ? unit() : retry();
+  }
+
+  private static final class Atomically<A> implements Runnable {
+
+    // failed attempts in the same thread before resubmitting the transaction to the executor
+    private static final int MAX_ATTEMPTS = 8;
+
+    private final Executor executor;
+    private final STM<A> stm;
+    private final Consumer1<? super Try<? extends A>> callback;
+
+    private volatile boolean cancelled;
+    @Nullable
+    private volatile Transaction.Waiter waiter;
+
+    private Atomically(Executor executor, STM<A> stm, Consumer1<? super Try<? extends A>> callback) {
+      this.executor = executor;
+      this.stm = stm;
+      this.callback = callback;
+    }
+
+    @Override
+    public void run() {
+      int attempt = 0;
+      while (!cancelled) {
+        Transaction tx = new Transaction();
+        A result;
+        try {
+          result = stm.run(tx);
+        } catch (RuntimeException e) {
+          if (e == Transaction.CONFLICT) {
+            if (backoff(attempt++)) {
+              continue;
+            }
+            return;
+          }
+          if (e == Transaction.RETRY) {
+            suspend(tx);
+            return;
+          }
+          callback.accept(Try.failure(e));
+          return;
+        } catch (Throwable e) {
+          callback.accept(Try.failure(e));
+          return;
+        }
+        if (tx.commit()) {
+          callback.accept(Try.success(result));
+          return;
+        }
+        if (!backoff(attempt++)) {
+          return;
+        }
+      }
+    }
+
+    /*
+     * after a few attempts the thread is released, so the transactions that are
+     * conflicting with this one can progress, even with only one thread
+     *
+     * returns false if the transaction has been resubmitted to the executor
+     */
+    private boolean backoff(int attempt) {
+      if (attempt < MAX_ATTEMPTS) {
+        Backoff.pause(attempt);
+        return true;
+      }
+      executor.execute(this);
+      return false;
+    }
+
+    private void suspend(Transaction tx) {
+      Transaction.Waiter current = tx.await(() -> executor.execute(this));
+      this.waiter = current;
+      if (cancelled) {
+        current.cancel();
+      }
+    }
+
+    private void cancel() {
+      cancelled = true;
+      Transaction.Waiter current = waiter;
+      if (current != null) {
+        current.cancel();
+      }
+    }
+  }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2018-2024, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.purefun.stm;
+
+import static com.github.tonivade.purefun.core.Precondition.checkNonNull;
+import static com.github.tonivade.purefun.core.Unit.unit;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.github.tonivade.purefun.core.Function1;
+import com.github.tonivade.purefun.core.Operator1;
+import com.github.tonivade.purefun.core.Tuple2;
+import com.github.tonivade.purefun.core.Unit;
+
+/**
+ * <p>A transactional reference. It can be read and modified only inside a {@link STM} transaction,
+ * and all the changes made by a transaction are visible to the others at the same time when it commits.</p>
+ *
+ * <p>Every reference keeps the version of the last transaction that has modified it, so a transaction only
+ * conflicts with the transactions that modify the same references, and transactions that use different
+ * references commit in parallel.</p>
+ *
+ * @param <A> type of the value
+ */
+public final class TRef<A> {
+
+  private static final AtomicLong IDS = new AtomicLong();
+
+  // used to lock the references always in the same order
+  final long id = IDS.incrementAndGet();
+
+  private volatile Versioned<A> current;
+  private final AtomicBoolean locked = new AtomicBoolean();
+  private final ConcurrentLinkedQueue<Transaction.Waiter> waiters = new ConcurrentLinkedQueue<>();
+
+  private TRef(A value) {
+    this.current = new Versioned<>(checkNonNull(value), 0);
+  }
+
+  public STM<A> get() {
+    return new STM<>(tx -> tx.read(this));
+  }
+
+  public STM<Unit> set(A newValue) {
+    checkNonNull(newValue);
+    return new STM<>(tx -> {
+      tx.write(this, newValue);
+      return unit();
+    });
+  }
+
+  public <B> STM<B> modify(Function1<A, Tuple2<B, A>> change) {
+    return new STM<>(tx -> {
+      Tuple2<B, A> tuple = change.apply(tx.read(this));
+      tx.write(this, checkNonNull(tuple.get2()));
+      return tuple.get1();
+    });
+  }
+
+  public STM<Unit> update(Operator1<A> update) {
+    return modify(value -> Tuple2.of(unit(), update.apply(value)));
+  }
+
+  public STM<A> getAndSet(A newValue) {
+    return modify(value -> Tuple2.of(value, newValue));
+  }
+
+  public STM<A> updateAndGet(Operator1<A> update) {
+    return modify(value -> {
+      A newValue = update.apply(value);
+      return Tuple2.of(newValue, newValue);
+    });
+  }
+
+  public STM<A> getAndUpdate(Operator1<A> update) {
+    return modify(value -> Tuple2.of(value, update.apply(value)));
+  }
+
+  public static <A> STM<TRef<A>> make(A value) {
+    return new STM<>(tx -> of(value));
+  }
+
+  public static <A> TRef<A> of(A value) {
+    return new TRef<>(value);
+  }
+
+  @Override
+  public String toString() {
+    return String.format("TRef(%s)", current.value());
+  }
+
+  /*
+   * the lock is checked before the value, if the reference is not locked, the value read is
+   * the last one committed or a newer one with a version greater than the read version
+   */
+  A read(long readVersion) {
+    if (locked.get()) {
+      throw Transaction.CONFLICT;
+    }
+    Versioned<A> versioned = current;
+    if (versioned.version() > readVersion) {
+      throw Transaction.CONFLICT;
+    }
+    return versioned.value();
+  }
+
+  long version() {
+    return current.version();
+  }
+
+  boolean isLocked() {
+    return locked.get();
+  }
+
+  boolean tryLock() {
+    return locked.compareAndSet(false, true);
+  }
+
+  void unlock() {
+    locked.set(false);
+  }
+
+  @SuppressWarnings("unchecked")
+  void commit(Object value, long writeVersion) {
+    current = new Versioned<>((A) value, writeVersion);
+    locked.set(false);
+  }
+
+  void await(Transaction.Waiter waiter) {
+    waiters.offer(waiter);
+  }
+
+  void remove(Transaction.Waiter waiter) {
+    waiters.remove(waiter);
+  }
+
+  void wakeUp() {
+    for (var waiter = waiters.poll(); waiter != null; waiter = waiters.poll()) {
+      waiter.wakeUp();
+    }
+  }
+
+  private record Versioned<A>(A value, long version) { }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2018-2024, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.purefun.stm;
+
+import static com.github.tonivade.purefun.core.Precondition.checkNonNull;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>Log of a transaction, based on TL2. When it starts, it takes the current value of a global clock as read
+ * version, and every value read should not be newer than it, in other case the transaction conflicts with another
+ * and it's restarted, so a transaction always sees a consistent snapshot. The writes are kept in the log until
+ * the transaction commits.</p>
+ *
+ * <p>To commit, the written references are locked, a new write version is taken from the clock and the references
+ * read are validated again. If nothing has changed meanwhile, the new values are published with the write version.
+ * A transaction that only reads doesn't need to lock anything.</p>
+ */
+final class Transaction {
+
+  // used only for control flow, without stack trace
+  @SuppressWarnings("StaticAssignmentOfThrowable")
+  static final RuntimeException RETRY = new ControlFlow("retry");
+  @SuppressWarnings("StaticAssignmentOfThrowable")
+  static final RuntimeException CONFLICT = new ControlFlow("conflict");
+
+  private static final AtomicLong CLOCK = new AtomicLong();
+
+  private final long readVersion = CLOCK.get();
+  private final Set<TRef<?>> reads = new LinkedHashSet<>();
+  private Map<TRef<?>, Object> writes = new HashMap<>();
+
+  @SuppressWarnings("unchecked")
+  <A> A read(TRef<A> ref) {
+    Object value = writes.get(ref);
+    if (value != null) {
+      return (A) value;
+    }
+    A result = ref.read(readVersion);
+    reads.add(ref);
+    return result;
+  }
+
+  <A> void write(TRef<A> ref, A value) {
+    writes.put(ref, checkNonNull(value));
+  }
+
+  Map<TRef<?>, Object> savepoint() {
+    return new HashMap<>(writes);
+  }
+
+  /*
+   * the references read are kept, so if both alternatives retry,
+   * the transaction waits for any of them to change
+   */
+  void rollback(Map<TRef<?>, Object> savepoint) {
+    writes = savepoint;
+  }
+
+  boolean commit() {
+    if (writes.isEmpty()) {
+      return true;
+    }
+    List<Map.Entry<TRef<?>, Object>> entries = sorted(writes);
+    List<TRef<?>> locked = new ArrayList<>(entries.size());
+    try {
+      for (var entry : entries) {
+        if (!entry.getKey().tryLock()) {
+          return false;
+        }
+        locked.add(entry.getKey());
+      }
+      long writeVersion = CLOCK.incrementAndGet();
+      // if nobody has committed since the transaction started, the reads are still valid
+      if (writeVersion > readVersion + 1) {
+        for (TRef<?> ref : reads) {
+          // the references written are locked by this transaction
+          if (ref.version() > readVersion || (!writes.containsKey(ref) && ref.isLocked())) {
+            return false;
+          }
+        }
+      }
+      for (var entry : entries) {
+        entry.getKey().commit(entry.getValue(), writeVersion);
+      }
+      locked.clear();
+    } finally {
+      locked.forEach(TRef::unlock);
+    }
+    writes.keySet().forEach(TRef::wakeUp);
+    return true;
+  }
+
+  /**
+   * Suspends the transaction until any of the references read changes.
+   */
+  Waiter await(Runnable resume) {
+    Waiter waiter = new Waiter(List.copyOf(reads), resume);
+    reads.forEach(ref -> ref.await(waiter));
+    // the references may have changed before the waiter was registered
+    for (TRef<?> ref : reads) {
+      if (ref.isLocked() || ref.version() > readVersion) {
+        waiter.wakeUp();
+        break;
+      }
+    }
+    return waiter;
+  }
+
+  private static List<Map.Entry<TRef<?>, Object>> sorted(Map<TRef<?>, Object> writes) {
+    List<Map.Entry<TRef<?>, Object>> result = new ArrayList<>(writes.entrySet());
+    result.sort(Comparator.comparingLong(entry -> entry.getKey().id));
+    return result;
+  }
+
+  static final class Waiter {
+
+    private final List<TRef<?>> refs;
+    private final Runnable resume;
+    private final AtomicBoolean done = new AtomicBoolean();
+
+    private Waiter(List<TRef<?>> refs, Runnable resume) {
+      this.refs = refs;
+      this.resume = resume;
+    }
+
+    void wakeUp() {
+      if (cancel()) {
+        resume.run();
+      }
+    }
+
+    boolean cancel() {
+      if (done.compareAndSet(false, true)) {
+        refs.forEach(ref -> ref.remove(this));
+        return true;
+      }
+      return false;
+    }
+  }
+
+  private static final class ControlFlow extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private ControlFlow(String message) {
+      super(message, null, false, false);
+    }
+  }
+}
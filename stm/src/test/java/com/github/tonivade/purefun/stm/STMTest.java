@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2018-2024, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.purefun.stm;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.tonivade.purefun.concurrent.Future;
+import com.github.tonivade.purefun.core.Unit;
+import com.github.tonivade.purefun.data.ImmutableArray;
+import com.github.tonivade.purefun.effect.UIO;
+import com.github.tonivade.purefun.effect.UIOOf;
+import com.github.tonivade.purefun.monad.IO;
+import com.github.tonivade.purefun.monad.IOOf;
+import com.github.tonivade.purefun.type.Try;
+import com.github.tonivade.purefun.typeclasses.Instances;
+
+public class STMTest {
+
+  @Test
+  public void transfer() {
+    TRef<Integer> from = TRef.of(100);
+    TRef<Integer> to = TRef.of(0);
+
+    IO<Unit> program = transfer(from, to, 30).atomically(Instances.<IO<?>>async()).fix(IOOf::toIO);
+
+    program.unsafeRunSync();
+
+    assertAll(
+        () -> assertEquals(70, atomically(from.get()).unsafeRunSync()),
+        () -> assertEquals(30, atomically(to.get()).unsafeRunSync()));
+  }
+
+  @Test
+  public void retrySuspendsUntilChange() {
+    TRef<Integer> from = TRef.of(0);
+    TRef<Integer> to = TRef.of(0);
+
+    Future<Unit> transfer = atomically(transfer(from, to, 50)).runAsync();
+    UIO.sleep(Duration.ofMillis(100)).unsafeRunSync();
+
+    assertFalse(transfer.isCompleted());
+
+    atomically(from.set(100)).unsafeRunSync();
+
+    assertEquals(Unit.unit(), transfer.getOrElseThrow());
+    assertAll(
+        () -> assertEquals(50, atomically(from.get()).unsafeRunSync()),
+        () -> assertEquals(50, atomically(to.get()).unsafeRunSync()));
+  }
+
+  @Test
+  public void orElse() {
+    TRef<Integer> from = TRef.of(10);
+    TRef<Integer> to = TRef.of(0);
+
+    STM<String> program = transfer(from, to, 50).map(ignore -> "done")
+        .orElse(from.set(0).map(ignore -> "aborted"));
+
+    assertAll(
+        () -> assertEquals("aborted", atomically(program).unsafeRunSync()),
+        () -> assertEquals(0, atomically(from.get()).unsafeRunSync()),
+        () -> assertEquals(0, atomically(to.get()).unsafeRunSync()));
+  }
+
+  @Test
+  public void orElseDiscardsChanges() {
+    TRef<Integer> ref = TRef.of(0);
+
+    STM<Integer> program = ref.set(10).andThen(STM.<Integer>retry()).orElse(ref.get());
+
+    assertEquals(0, atomically(program).unsafeRunSync());
+  }
+
+  @Test
+  public void errorDiscardsChanges() {
+    TRef<Integer> ref = TRef.of(0);
+
+    STM<Unit> program = ref.set(10).andThen(STM.later(() -> {
+      throw new UnsupportedOperationException();
+    }));
+
+    Try<Unit> result = atomically(program).safeRunSync();
+
+    assertAll(
+        () -> assertTrue(result.getCause() instanceof UnsupportedOperationException),
+        () -> assertEquals(0, atomically(ref.get()).unsafeRunSync()));
+  }
+
+  @Test
+  public void cancelRetry() {
+    TRef<Integer> ref = TRef.of(0);
+
+    Try<Integer> result = atomically(ref.get().flatMap(value -> STM.check(value > 0).map(ignore -> value)))
+        .timeout(Duration.ofMillis(50)).safeRunSync();
+
+    atomically(ref.set(1)).unsafeRunSync();
+
+    assertTrue(result.isFailure());
+  }
+
+  @Test
+  public void concurrentTransfers() {
+    ImmutableArray<TRef<Integer>> accounts = ImmutableArray.from(IntStream.range(0, 10).mapToObj(i -> TRef.of(1000)));
+
+    Future.allOf(ImmutableArray.from(IntStream.range(0, 1000).mapToObj(i -> {
+      TRef<Integer> from = accounts.get(i % 10);
+      TRef<Integer> to = accounts.get((i * 7 + 3) % 10);
+      return atomically(transfer(from, to, i % 50)).runAsync();
+    }))).getOrElseThrow();
+
+    STM<Integer> total = accounts.foldLeft(STM.pure(0),
+        (sum, account) -> sum.flatMap(x -> account.get().map(y -> x + y)));
+
+    assertEquals(10000, atomically(total).unsafeRunSync());
+  }
+
+  @Test
+  public void independentRefs() {
+    TRef<Integer> first = TRef.of(0);
+    TRef<Integer> second = TRef.of(0);
+
+    Future.allOf(ImmutableArray.from(IntStream.range(0, 1000).mapToObj(i -> {
+      TRef<Integer> ref = i % 2 == 0 ? first : second;
+      return atomically(ref.update(x -> x + 1)).runAsync();
+    }))).getOrElseThrow();
+
+    assertAll(
+        () -> assertEquals(500, atomically(first.get()).unsafeRunSync()),
+        () -> assertEquals(500, atomically(second.get()).unsafeRunSync()));
+  }
+
+  private static STM<Unit> transfer(TRef<Integer> from, TRef<Integer> to, int amount) {
+    return from.get()
+        .flatMap(balance -> STM.check(balance >= amount))
+        .andThen(from.update(x -> x - amount))
+        .andThen(to.update(x -> x + amount));
+  }
+
+  private static <A> UIO<A> atomically(STM<A> stm) {
+    return stm.atomically(Instances.<UIO<?>>async()).fix(UIOOf::toUIO);
+  }
+}
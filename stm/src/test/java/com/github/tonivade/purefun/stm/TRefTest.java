@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2018-2024, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.purefun.stm;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.tonivade.purefun.core.Tuple;
+import com.github.tonivade.purefun.core.Unit;
+import com.github.tonivade.purefun.effect.UIO;
+import com.github.tonivade.purefun.effect.UIOOf;
+import com.github.tonivade.purefun.typeclasses.Instances;
+
+public class TRefTest {
+
+  @Test
+  public void get() {
+    TRef<String> ref = TRef.of("Hello World!");
+
+    assertEquals("Hello World!", atomically(ref.get()).unsafeRunSync());
+  }
+
+  @Test
+  public void set() {
+    TRef<String> ref = TRef.of("Hello World!");
+
+    STM<String> program = ref.set("Something else").andThen(ref.get());
+
+    assertEquals("Something else", atomically(program).unsafeRunSync());
+  }
+
+  @Test
+  public void update() {
+    TRef<String> ref = TRef.of("Hello World!");
+
+    Unit result = atomically(ref.update(String::toUpperCase)).unsafeRunSync();
+
+    assertAll(
+        () -> assertEquals(Unit.unit(), result),
+        () -> assertEquals("HELLO WORLD!", atomically(ref.get()).unsafeRunSync()));
+  }
+
+  @Test
+  public void modify() {
+    TRef<String> ref = TRef.of("Hello World!");
+
+    Integer result = atomically(ref.modify(value -> Tuple.of(value.length(), value.toUpperCase()))).unsafeRunSync();
+
+    assertAll(
+        () -> assertEquals(12, result),
+        () -> assertEquals("HELLO WORLD!", atomically(ref.get()).unsafeRunSync()));
+  }
+
+  @Test
+  public void getAndSet() {
+    TRef<String> ref = TRef.of("Hello World!");
+
+    String result = atomically(ref.getAndSet("Something else")).unsafeRunSync();
+
+    assertAll(
+        () -> assertEquals("Hello World!", result),
+        () -> assertEquals("Something else", atomically(ref.get()).unsafeRunSync()));
+  }
+
+  @Test
+  public void updateAndGet() {
+    TRef<Integer> ref = TRef.of(1);
+
+    assertEquals(2, atomically(ref.updateAndGet(x -> x + 1)).unsafeRunSync());
+  }
+
+  @Test
+  public void getAndUpdate() {
+    TRef<Integer> ref = TRef.of(1);
+
+    assertAll(
+        () -> assertEquals(1, atomically(ref.getAndUpdate(x -> x + 1)).unsafeRunSync()),
+        () -> assertEquals(2, atomically(ref.get()).unsafeRunSync()));
+  }
+
+  @Test
+  public void make() {
+    STM<Integer> program = TRef.make(1).flatMap(ref -> ref.update(x -> x + 1).andThen(ref.get()));
+
+    assertEquals(2, atomically(program).unsafeRunSync());
+  }
+
+  private static <A> UIO<A> atomically(STM<A> stm) {
+    return stm.atomically(Instances.<UIO<?>>async()).fix(UIOOf::toUIO);
+  }
+}
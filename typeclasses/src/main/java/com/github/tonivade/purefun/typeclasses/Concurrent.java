@@ -4,6 +4,12 @@
  */
 package com.github.tonivade.purefun.typeclasses;
 
+import static com.github.tonivade.purefun.core.Function1.identity;
+import static com.github.tonivade.purefun.core.Precondition.checkPositive;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import com.github.tonivade.purefun.Kind;
 
 import com.github.tonivade.purefun.concurrent.Promise;
@@ -11,6 +17,9 @@ import com.github.tonivade.purefun.core.Consumer1;
 import com.github.tonivade.purefun.core.Function1;
 import com.github.tonivade.purefun.core.Tuple2;
 import com.github.tonivade.purefun.core.Unit;
+import com.github.tonivade.purefun.data.ImmutableArray;
+import com.github.tonivade.purefun.data.ImmutableList;
+import com.github.tonivade.purefun.data.Sequence;
 import com.github.tonivade.purefun.type.Either;
 import com.github.tonivade.purefun.type.Try;
 
@@ -32,6 +41,59 @@ public interface Concurrent<F> extends Async<F> {
         tb -> map(tb.get1().cancel(), x -> Either.right(tb.get2()))));
   }
 
+  default Semaphore<F> semaphore(int permits) {
+    return Semaphore.of(this, permits);
+  }
+
+  default Semaphore<F> semaphore(int permits, boolean fair) {
+    return Semaphore.of(this, permits, fair);
+  }
+
+  default <A> Deferred<F, A> deferred() {
+    return Deferred.of(this);
+  }
+
+  default CountDownLatch<F> countDownLatch(int count) {
+    return CountDownLatch.of(this, count);
+  }
+
+  default <A> Kind<F, Sequence<A>> parSequenceN(int parallelism, Sequence<? extends Kind<F, ? extends A>> values) {
+    return parTraverseN(parallelism, values, identity());
+  }
+
+  /**
+   * Generic implementation with {@code parallelism} fibers, every one takes the next value from a shared index
+   * and writes the result in a preallocated array, so a new element starts as soon as another one completes.
+   * The first failure cancels all the fibers.
+   */
+  default <A, B> Kind<F, Sequence<B>> parTraverseN(int parallelism, Sequence<? extends A> values,
+      Function1<? super A, ? extends Kind<F, ? extends B>> mapper) {
+    checkPositive(parallelism);
+    return defer(() -> {
+      ImmutableArray<A> items = ImmutableArray.from(values);
+      Object[] results = new Object[items.size()];
+      AtomicInteger next = new AtomicInteger();
+      Deferred<F, Throwable> failure = deferred();
+
+      Kind<F, Unit> worker = handleErrorWith(parWorker(items, results, next, mapper), error -> {
+        // the other fibers don't take more values
+        next.set(items.size());
+        return map(failure.complete(error), ignore -> Unit.unit());
+      });
+
+      Kind<F, Sequence<Fiber<F, Unit>>> fibers = pure(ImmutableList.empty());
+      for (int i = 0; i < Math.min(parallelism, items.size()); i++) {
+        fibers = flatMap(fibers, fs -> map(fork(worker), fs::append));
+      }
+
+      return flatMap(fibers, fs -> flatMap(race(failure.get(), joinAll(fs)), either -> either.fold(
+          error -> flatMap(cancelAll(fs), ignore -> this.<Sequence<B>>raiseError(error)),
+          // the last fiber may have failed at the same time the others completed
+          done -> flatMap(failure.tryGet(), error -> error.fold(
+              () -> pure(parResults(results)), this::<Sequence<B>>raiseError)))));
+    });
+  }
+
   default <A> Kind<F, A> cancellable(Function1<Consumer1<? super Try<? extends A>>, Kind<F, Unit>> callback) {
     return asyncF(cb1 -> {
       Promise<Unit> promise = Promise.make();
@@ -47,4 +109,31 @@ public interface Concurrent<F> extends Async<F> {
     });
   }
 
+  private <A, B> Kind<F, Unit> parWorker(ImmutableArray<A> items, Object[] results, AtomicInteger next,
+      Function1<? super A, ? extends Kind<F, ? extends B>> mapper) {
+    return defer(() -> {
+      int index = next.getAndIncrement();
+      if (index >= items.size()) {
+        return pure(Unit.unit());
+      }
+      return flatMap(mapper.apply(items.get(index)), value -> {
+        results[index] = value;
+        return parWorker(items, results, next, mapper);
+      });
+    });
+  }
+
+  private Kind<F, Unit> joinAll(Sequence<Fiber<F, Unit>> fibers) {
+    return fibers.foldLeft(pure(Unit.unit()), (acc, fiber) -> flatMap(acc, ignore -> fiber.join()));
+  }
+
+  private Kind<F, Unit> cancelAll(Sequence<Fiber<F, Unit>> fibers) {
+    return fibers.foldLeft(pure(Unit.unit()), (acc, fiber) -> flatMap(acc, ignore -> fiber.cancel()));
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <B> Sequence<B> parResults(Object[] results) {
+    return ImmutableList.from(Arrays.asList((B[]) results));
+  }
+
 }
@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2018-2024, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.purefun.typeclasses;
+
+import static com.github.tonivade.purefun.core.Precondition.checkNonNull;
+
+import com.github.tonivade.purefun.Kind;
+import com.github.tonivade.purefun.concurrent.Latch;
+import com.github.tonivade.purefun.core.Unit;
+
+/**
+ * Fibers that call {@code await} are suspended, without blocking any thread, until {@code countDown}
+ * has been called the given number of times.
+ *
+ * @param <F> type of the effect
+ */
+public interface CountDownLatch<F> {
+
+  Kind<F, Unit> countDown();
+
+  Kind<F, Unit> await();
+
+  Kind<F, Integer> count();
+
+  static <F> CountDownLatch<F> of(Async<F> async, int count) {
+    return new AsyncCountDownLatch<>(async, count);
+  }
+}
+
+final class AsyncCountDownLatch<F> implements CountDownLatch<F> {
+
+  private final Async<F> async;
+  private final Latch latch;
+
+  AsyncCountDownLatch(Async<F> async, int count) {
+    this.async = checkNonNull(async);
+    this.latch = new Latch(count);
+  }
+
+  @Override
+  public Kind<F, Unit> countDown() {
+    return async.exec(latch::countDown);
+  }
+
+  @Override
+  public Kind<F, Unit> await() {
+    return async.asyncF(callback -> {
+      Runnable cancel = latch.await(callback);
+      return async.exec(cancel::run);
+    });
+  }
+
+  @Override
+  public Kind<F, Integer> count() {
+    return async.later(latch::count);
+  }
+
+  @Override
+  public String toString() {
+    return "CountDownLatch(" + latch.count() + ")";
+  }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2018-2024, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.purefun.typeclasses;
+
+import static com.github.tonivade.purefun.core.Precondition.checkNonNull;
+
+import com.github.tonivade.purefun.Kind;
+import com.github.tonivade.purefun.concurrent.Completion;
+import com.github.tonivade.purefun.type.Option;
+
+/**
+ * <p>A value that is not available yet, and can be completed only once. Fibers that call {@code get} before
+ * the value is available are suspended until another fiber completes it, without blocking any thread.</p>
+ *
+ * <p>If a waiting fiber is cancelled, its callback is removed, so it is not retained until the value is available.</p>
+ *
+ * @param <F> type of the effect
+ * @param <A> type of the value
+ */
+public interface Deferred<F, A> {
+
+  Kind<F, A> get();
+
+  Kind<F, Option<A>> tryGet();
+
+  /**
+   * Completes the value and resumes all the waiting fibers
+   *
+   * @return false if the value was already completed
+   */
+  Kind<F, Boolean> complete(A value);
+
+  static <F, A> Deferred<F, A> of(Async<F> async) {
+    return new AsyncDeferred<>(async);
+  }
+}
+
+final class AsyncDeferred<F, A> implements Deferred<F, A> {
+
+  private final Async<F> async;
+  private final Completion<A> value = new Completion<>();
+
+  AsyncDeferred(Async<F> async) {
+    this.async = checkNonNull(async);
+  }
+
+  @Override
+  public Kind<F, A> get() {
+    return async.asyncF(callback -> {
+      Runnable cancel = value.onComplete(callback);
+      return async.exec(cancel::run);
+    });
+  }
+
+  @Override
+  public Kind<F, Option<A>> tryGet() {
+    return async.later(() -> Option.of(value.get()));
+  }
+
+  @Override
+  public Kind<F, Boolean> complete(A newValue) {
+    checkNonNull(newValue);
+    return async.later(() -> value.complete(newValue));
+  }
+
+  @Override
+  public String toString() {
+    return "Deferred(" + value.get() + ")";
+  }
+}
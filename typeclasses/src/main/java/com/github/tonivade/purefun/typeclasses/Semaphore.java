@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2018-2024, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.purefun.typeclasses;
+
+import static com.github.tonivade.purefun.core.Precondition.checkNonNull;
+import static com.github.tonivade.purefun.core.Precondition.checkPositive;
+
+import com.github.tonivade.purefun.Kind;
+import com.github.tonivade.purefun.concurrent.Permits;
+import com.github.tonivade.purefun.core.Function1;
+import com.github.tonivade.purefun.core.Unit;
+
+/**
+ * <p>Asynchronous semaphore, used to limit the number of effects that run at the same time. When there are not
+ * enough permits, {@code acquire} suspends the fiber until other fiber releases them, without blocking any thread.
+ * If a waiting fiber is cancelled, it is removed from the queue and doesn't get any permit.</p>
+ *
+ * <p>In a fair semaphore the permits are granted in the same order they were requested, so a fiber waiting for
+ * many permits stops the ones behind it. In a non fair semaphore a new request can take the available permits even
+ * if other fibers are waiting, and any waiting fiber gets the permits as soon as there are enough for it.</p>
+ *
+ * @param <F> type of the effect
+ */
+public interface Semaphore<F> {
+
+  Kind<F, Integer> available();
+
+  default Kind<F, Unit> acquire() {
+    return acquireN(1);
+  }
+
+  Kind<F, Unit> acquireN(int permits);
+
+  default Kind<F, Boolean> tryAcquire() {
+    return tryAcquireN(1);
+  }
+
+  Kind<F, Boolean> tryAcquireN(int permits);
+
+  default Kind<F, Unit> release() {
+    return releaseN(1);
+  }
+
+  Kind<F, Unit> releaseN(int permits);
+
+  default <A> Kind<F, A> withPermit(Kind<F, ? extends A> effect) {
+    return withPermits(1, effect);
+  }
+
+  /**
+   * Runs the effect after acquiring the permits, and releases them when the effect ends,
+   * even if it fails or is cancelled.
+   */
+  <A> Kind<F, A> withPermits(int permits, Kind<F, ? extends A> effect);
+
+  static <F> Semaphore<F> of(Async<F> async, int permits) {
+    return of(async, permits, true);
+  }
+
+  static <F> Semaphore<F> of(Async<F> async, int permits, boolean fair) {
+    return new AsyncSemaphore<>(async, permits, fair);
+  }
+}
+
+final class AsyncSemaphore<F> implements Semaphore<F> {
+
+  private final Async<F> async;
+  private final Permits permits;
+
+  AsyncSemaphore(Async<F> async, int permits, boolean fair) {
+    this.async = checkNonNull(async);
+    this.permits = new Permits(permits, fair);
+  }
+
+  @Override
+  public Kind<F, Integer> available() {
+    return async.later(permits::available);
+  }
+
+  @Override
+  public Kind<F, Unit> acquireN(int n) {
+    checkPositive(n);
+    return async.asyncF(callback -> {
+      Runnable cancel = permits.acquire(n, callback);
+      return async.exec(cancel::run);
+    });
+  }
+
+  @Override
+  public Kind<F, Boolean> tryAcquireN(int n) {
+    checkPositive(n);
+    return async.later(() -> permits.tryAcquire(n));
+  }
+
+  @Override
+  public Kind<F, Unit> releaseN(int n) {
+    checkPositive(n);
+    return async.exec(() -> permits.release(n));
+  }
+
+  @Override
+  public <A> Kind<F, A> withPermits(int n, Kind<F, ? extends A> effect) {
+    Function1<Unit, Kind<F, Unit>> release = ignore -> releaseN(n);
+    return async.bracket(acquireN(n), ignore -> effect, release);
+  }
+
+  @Override
+  public String toString() {
+    return "Semaphore(" + permits.available() + ")";
+  }
+}
@@ -4,14 +4,18 @@
  */
 package com.github.tonivade.purefun.typeclasses;
 
+import static com.github.tonivade.purefun.data.Sequence.listOf;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import com.github.tonivade.purefun.Kind;
+import com.github.tonivade.purefun.data.Sequence;
 import com.github.tonivade.purefun.effect.PureIO;
 import com.github.tonivade.purefun.effect.PureIOOf;
 import com.github.tonivade.purefun.monad.IO;
 import com.github.tonivade.purefun.monad.IOOf;
 import com.github.tonivade.purefun.type.Either;
 import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.jupiter.api.Test;
 
 public class ConcurrentTest {
@@ -44,6 +48,72 @@ public class ConcurrentTest {
     assertEquals(Either.right("b"), orElseThrow);
   }
 
+  @Test
+  public void ioParTraverseN() {
+    Concurrent<IO<?>> concurrent = Instances.concurrent();
+
+    Kind<IO<?>, Sequence<Integer>> result = concurrent.parTraverseN(2, listOf(1, 2, 3, 4, 5), x -> IO.task(() -> x * 10));
+
+    assertEquals(listOf(10, 20, 30, 40, 50), result.fix(IOOf::toIO).runAsync().await(TIMEOUT).getOrElseThrow().asList());
+  }
+
+  @Test
+  public void PureIOParTraverseN() {
+    Concurrent<PureIO<Void, Throwable, ?>> concurrent = Instances.concurrent();
+
+    Kind<PureIO<Void, Throwable, ?>, Sequence<Integer>> result =
+        concurrent.parTraverseN(2, listOf(1, 2, 3, 4, 5), x -> PureIO.task(() -> x * 10));
+
+    Either<Throwable, Sequence<Integer>> orElseThrow =
+        result.fix(PureIOOf::<Void, Throwable, Sequence<Integer>>toPureIO).runAsync(null).await(TIMEOUT).getOrElseThrow();
+
+    assertEquals(Either.right(listOf(10, 20, 30, 40, 50)), orElseThrow);
+  }
+
+  @Test
+  public void PureIOParTraverseNBounded() {
+    Concurrent<PureIO<Void, Throwable, ?>> concurrent = Instances.concurrent();
+    AtomicInteger running = new AtomicInteger();
+    AtomicInteger max = new AtomicInteger();
+
+    Kind<PureIO<Void, Throwable, ?>, Sequence<Integer>> result =
+        concurrent.parTraverseN(2, listOf(1, 2, 3, 4, 5, 6), x -> PureIO.<Void, Integer>task(() -> {
+          max.accumulateAndGet(running.incrementAndGet(), Math::max);
+          Thread.sleep(10);
+          running.decrementAndGet();
+          return x * 10;
+        }));
+
+    Either<Throwable, Sequence<Integer>> orElseThrow =
+        result.fix(PureIOOf::<Void, Throwable, Sequence<Integer>>toPureIO).runAsync(null).await(TIMEOUT).getOrElseThrow();
+
+    assertEquals(Either.right(listOf(10, 20, 30, 40, 50, 60)), orElseThrow);
+    assertTrue(max.get() <= 2);
+  }
+
+  @Test
+  public void PureIOParTraverseNCancelsOnFailure() throws InterruptedException {
+    Concurrent<PureIO<Void, Throwable, ?>> concurrent = Instances.concurrent();
+    AtomicInteger cancelled = new AtomicInteger();
+    UnsupportedOperationException error = new UnsupportedOperationException();
+
+    // the siblings never complete, unless they are cancelled
+    Kind<PureIO<Void, Throwable, ?>, Sequence<Integer>> result =
+        concurrent.parTraverseN(3, listOf(1, 2, 3, 4, 5), x -> x == 1
+            ? PureIO.<Void, Throwable>sleep(Duration.ofMillis(10)).andThen(PureIO.<Void, Throwable, Integer>raiseError(error))
+            : PureIO.<Void, Throwable, Integer>cancellable((env, callback) -> PureIO.exec(cancelled::incrementAndGet)));
+
+    Either<Throwable, Sequence<Integer>> orElseThrow =
+        result.fix(PureIOOf::<Void, Throwable, Sequence<Integer>>toPureIO).runAsync(null).await(TIMEOUT).getOrElseThrow();
+
+    // the cancel tokens run asynchronously
+    for (int i = 0; i < 100 && cancelled.get() < 2; i++) {
+      Thread.sleep(10);
+    }
+    assertEquals(Either.left(error), orElseThrow);
+    assertEquals(2, cancelled.get());
+  }
+
   @Test
   public void PureIORaceA() {
     Concurrent<PureIO<Void, Throwable, ?>> concurrent = Instances.concurrent();
@@ -0,0 +1,35 @@
+/*
+ * Copyright (c) 2018-2024, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.purefun.typeclasses;
+
+import static com.github.tonivade.purefun.data.Sequence.listOf;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.tonivade.purefun.Kind;
+import com.github.tonivade.purefun.core.Unit;
+import com.github.tonivade.purefun.data.Sequence;
+import com.github.tonivade.purefun.effect.UIO;
+import com.github.tonivade.purefun.effect.UIOOf;
+
+public class CountDownLatchTest {
+
+  private static final Duration TIMEOUT = Duration.ofSeconds(3);
+
+  @Test
+  public void uioAwait() {
+    Concurrent<UIO<?>> concurrent = Instances.concurrent();
+    CountDownLatch<UIO<?>> latch = concurrent.countDownLatch(3);
+
+    Kind<UIO<?>, Sequence<Unit>> result = concurrent.parTraverseN(4, listOf(1, 2, 3, 4),
+        x -> x == 4 ? latch.await() : UIO.sleep(Duration.ofMillis(10 * x)).andThen(latch.countDown().fix(UIOOf::toUIO)));
+
+    assertEquals(4, result.fix(UIOOf::toUIO).runAsync().await(TIMEOUT).getOrElseThrow().size());
+    assertEquals(0, latch.count().fix(UIOOf::toUIO).unsafeRunSync());
+  }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2018-2024, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.purefun.typeclasses;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.tonivade.purefun.concurrent.Future;
+import com.github.tonivade.purefun.monad.IO;
+import com.github.tonivade.purefun.monad.IOOf;
+import com.github.tonivade.purefun.type.Option;
+
+public class DeferredTest {
+
+  private static final Duration TIMEOUT = Duration.ofSeconds(3);
+
+  @Test
+  public void ioGetSuspendsUntilComplete() {
+    Concurrent<IO<?>> concurrent = Instances.concurrent();
+    Deferred<IO<?>, String> deferred = concurrent.deferred();
+
+    Future<String> get = deferred.get().fix(IOOf::<String>toIO).runAsync();
+    IO.sleep(Duration.ofMillis(50)).unsafeRunSync();
+
+    assertFalse(get.isCompleted());
+
+    deferred.complete("hola").fix(IOOf::toIO).unsafeRunSync();
+
+    assertEquals("hola", get.await(TIMEOUT).getOrElseThrow());
+    assertEquals(Option.some("hola"), deferred.tryGet().fix(IOOf::toIO).unsafeRunSync());
+  }
+
+  @Test
+  public void ioCompleteOnlyOnce() {
+    Concurrent<IO<?>> concurrent = Instances.concurrent();
+    Deferred<IO<?>, String> deferred = concurrent.deferred();
+
+    IO<String> result = deferred.complete("hola").fix(IOOf::toIO)
+        .andThen(deferred.complete("adios").fix(IOOf::toIO))
+        .andThen(deferred.get().fix(IOOf::toIO));
+
+    assertEquals("hola", result.unsafeRunSync());
+  }
+}
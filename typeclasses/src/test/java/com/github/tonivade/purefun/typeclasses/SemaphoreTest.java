@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2018-2024, Antonio Gabriel Muñoz Conejo <me at tonivade dot es>
+ * Distributed under the terms of the MIT License
+ */
+package com.github.tonivade.purefun.typeclasses;
+
+import static com.github.tonivade.purefun.data.Sequence.listOf;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.tonivade.purefun.Kind;
+import com.github.tonivade.purefun.data.Sequence;
+import com.github.tonivade.purefun.effect.UIO;
+import com.github.tonivade.purefun.effect.UIOOf;
+import com.github.tonivade.purefun.monad.IO;
+import com.github.tonivade.purefun.monad.IOOf;
+
+public class SemaphoreTest {
+
+  private static final Duration TIMEOUT = Duration.ofSeconds(3);
+
+  @Test
+  public void ioWithPermit() {
+    Concurrent<IO<?>> concurrent = Instances.concurrent();
+    Semaphore<IO<?>> semaphore = concurrent.semaphore(2);
+    AtomicInteger running = new AtomicInteger();
+    AtomicInteger max = new AtomicInteger();
+
+    Kind<IO<?>, Sequence<Integer>> result = concurrent.parTraverseN(10, listOf(1, 2, 3, 4, 5, 6, 7, 8, 9, 10),
+        x -> semaphore.withPermit(IO.exec(() -> max.accumulateAndGet(running.incrementAndGet(), Math::max))
+            .andThen(IO.sleep(Duration.ofMillis(10)))
+            .andThen(IO.exec(running::decrementAndGet))
+            .andThen(IO.pure(x))));
+
+    assertEquals(listOf(1, 2, 3, 4, 5, 6, 7, 8, 9, 10),
+        result.fix(IOOf::toIO).runAsync().await(TIMEOUT).getOrElseThrow().asList());
+    assertEquals(2, max.get());
+    assertEquals(2, semaphore.available().fix(IOOf::toIO).unsafeRunSync());
+  }
+
+  @Test
+  public void uioTryAcquire() {
+    Concurrent<UIO<?>> concurrent = Instances.concurrent();
+    Semaphore<UIO<?>> semaphore = concurrent.semaphore(1, false);
+
+    assertAll(
+        () -> assertTrue(semaphore.tryAcquire().fix(UIOOf::toUIO).unsafeRunSync()),
+        () -> assertFalse(semaphore.tryAcquire().fix(UIOOf::toUIO).unsafeRunSync()),
+        () -> assertEquals(1, semaphore.release().fix(UIOOf::toUIO)
+            .andThen(semaphore.available().fix(UIOOf::toUIO)).unsafeRunSync()));
+  }
+
+  @Test
+  public void uioAcquireSuspendsUntilRelease() {
+    Concurrent<UIO<?>> concurrent = Instances.concurrent();
+    Semaphore<UIO<?>> semaphore = concurrent.semaphore(0);
+
+    var acquire = semaphore.acquire().fix(UIOOf::toUIO).runAsync();
+
+    UIO.sleep(Duration.ofMillis(50)).unsafeRunSync();
+
+    assertFalse(acquire.isCompleted());
+
+    semaphore.release().fix(UIOOf::toUIO).unsafeRunSync();
+
+    assertTrue(acquire.await(TIMEOUT).isSuccess());
+  }
+}